@@ -0,0 +1,45 @@
+package com.werewolfkill.game.benchmark;
+
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Wires the beans under test by hand, the way Spring would, without starting a context.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {}
+
+    static SessionManager sessionManager() {
+        RoomTracer roomTracer = new RoomTracer();
+        ReflectionTestUtils.setField(roomTracer, "ringSize", 64);
+        ReflectionTestUtils.setField(roomTracer, "maxRooms", 1000);
+
+        SessionManager sessionManager = new SessionManager();
+        ReflectionTestUtils.setField(sessionManager, "roomTracer", roomTracer);
+        ReflectionTestUtils.setField(sessionManager, "eventPublisher", (ApplicationEventPublisher) event -> { });
+        return sessionManager;
+    }
+
+    /**
+     * Creates {@code rooms} sessions of {@code playersPerRoom} players each and returns the room ids.
+     */
+    static List<UUID> populate(SessionManager sessionManager, int rooms, int playersPerRoom) {
+        List<UUID> roomIds = new ArrayList<>(rooms);
+        for (int r = 0; r < rooms; r++) {
+            UUID roomId = UUID.randomUUID();
+            sessionManager.getOrCreateSession(roomId, "room-" + r);
+            for (int p = 0; p < playersPerRoom; p++) {
+                sessionManager.addPlayer(roomId, "s-" + r + "-" + p, UUID.randomUUID(), "player" + p);
+            }
+            roomIds.add(roomId);
+        }
+        return roomIds;
+    }
+}
@@ -0,0 +1,40 @@
+package com.werewolfkill.game.benchmark;
+
+import com.werewolfkill.game.session.HeartbeatMonitor;
+import com.werewolfkill.game.session.SessionManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One stale-connection sweep over every live room. All players are fresh, so this measures
+ * the scan itself, which runs whether or not anything gets evicted.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeartbeatSweepBenchmark {
+
+    @Param({"1000", "10000"})
+    int rooms;
+
+    private HeartbeatMonitor heartbeatMonitor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SessionManager sessionManager = BenchmarkFixtures.sessionManager();
+        BenchmarkFixtures.populate(sessionManager, rooms, 8);
+
+        heartbeatMonitor = new HeartbeatMonitor();
+        ReflectionTestUtils.setField(heartbeatMonitor, "sessionManager", sessionManager);
+    }
+
+    @Benchmark
+    public void checkStaleConnections() {
+        heartbeatMonitor.checkStaleConnections();
+    }
+}
@@ -0,0 +1,46 @@
+package com.werewolfkill.game.benchmark;
+
+import com.werewolfkill.game.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification as done on every authenticated REST request and STOMP CONNECT.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "your-secret-key-here-make-it-long-and-secure-at-least-256-bits");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        token = jwtUtil.generateToken("benchmark", UUID.randomUUID());
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtUtil.validateToken(token, "benchmark");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("benchmark", UUID.randomUUID());
+    }
+}
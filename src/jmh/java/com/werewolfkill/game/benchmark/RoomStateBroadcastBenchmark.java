@@ -0,0 +1,53 @@
+package com.werewolfkill.game.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.session.SessionManager.RoomSession;
+import com.werewolfkill.game.websocket.RoomStateBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one room-state broadcast before it reaches the broker: building the
+ * ROOM_STATE_UPDATE map and serialising it to JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoomStateBroadcastBenchmark {
+
+    @Param({"5", "10", "15"})
+    int players;
+
+    private final RoomStateBuilder roomStateBuilder = new RoomStateBuilder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RoomSession session;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SessionManager sessionManager = BenchmarkFixtures.sessionManager();
+        UUID roomId = BenchmarkFixtures.populate(sessionManager, 1, players).get(0);
+        session = sessionManager.getSession(roomId).orElseThrow();
+    }
+
+    @Benchmark
+    public Map<String, Object> build() {
+        return roomStateBuilder.build(session, false);
+    }
+
+    @Benchmark
+    public byte[] buildAndSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(roomStateBuilder.build(session, false));
+    }
+
+    @Benchmark
+    public byte[] buildAndSerializePublicView() throws Exception {
+        return objectMapper.writeValueAsBytes(roomStateBuilder.build(session, true));
+    }
+}
@@ -0,0 +1,108 @@
+package com.werewolfkill.game.benchmark;
+
+import com.werewolfkill.game.session.SessionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionManager under contention: joins/leaves and heartbeats from many threads against a
+ * small set of hot rooms, plus the full-map copy made by getAllSessions().
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionManagerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class HotRooms {
+
+        @Param({"16"})
+        int hotRooms;
+
+        SessionManager sessionManager;
+        UUID[] roomIds;
+        String[] residents;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            sessionManager = BenchmarkFixtures.sessionManager();
+            // One resident player per room keeps the session from closing between join and leave
+            roomIds = BenchmarkFixtures.populate(sessionManager, hotRooms, 1).toArray(new UUID[0]);
+            residents = new String[hotRooms];
+            for (int r = 0; r < hotRooms; r++) {
+                residents[r] = "s-" + r + "-0";
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        String sessionId;
+        UUID playerId;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            int thread = THREADS.incrementAndGet();
+            sessionId = "bench-" + thread;
+            playerId = UUID.randomUUID();
+            next = thread;
+        }
+
+        int nextRoom(int rooms) {
+            return (next++ & Integer.MAX_VALUE) % rooms;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ManyRooms {
+
+        @Param({"10000"})
+        int totalRooms;
+
+        SessionManager sessionManager;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            sessionManager = BenchmarkFixtures.sessionManager();
+            BenchmarkFixtures.populate(sessionManager, totalRooms, 8);
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void joinThenLeave(HotRooms state, Player player) {
+        UUID roomId = state.roomIds[player.nextRoom(state.hotRooms)];
+        state.sessionManager.addPlayer(roomId, player.sessionId, player.playerId, "bench");
+        state.sessionManager.removePlayer(roomId, player.sessionId);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void heartbeat(HotRooms state, Player player) {
+        int room = player.nextRoom(state.hotRooms);
+        // The resident player's session id, see BenchmarkFixtures.populate
+        state.sessionManager.updateHeartbeat(state.roomIds[room], state.residents[room]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<UUID, SessionManager.RoomSession> getAllSessions(ManyRooms state) {
+        return state.sessionManager.getAllSessions();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int activePlayerCount(ManyRooms state) {
+        return state.sessionManager.getActivePlayerCount();
+    }
+}
@@ -0,0 +1,79 @@
+package com.werewolfkill.game.loadtest;
+
+import com.werewolfkill.game.WerewolfGameApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The app started in-process with the loadtest profile (H2, random port), plus read access
+ * to its own meters for the report.
+ */
+public class EmbeddedTarget implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedTarget(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static EmbeddedTarget start(String[] args) {
+        SpringApplication application = new SpringApplication(WerewolfGameApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        return new EmbeddedTarget(application.run(args));
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    /** Broadcast and inbound handler timings as measured by the server itself. */
+    public Map<String, Object> serverMetrics() {
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        Map<String, Object> server = new LinkedHashMap<>();
+        Timer broadcast = registry.find("werewolf.broadcast.room_state").timer();
+        if (broadcast != null) {
+            server.put("roomStateBroadcastMs", timerSummary(broadcast));
+        }
+        Map<String, Object> inbound = new LinkedHashMap<>();
+        registry.find("werewolf.inbound.message.handling").timers().forEach(timer ->
+            inbound.put(timer.getId().getTag("destination"), timerSummary(timer)));
+        server.put("inboundHandlingMs", inbound);
+        return server;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static Map<String, Object> timerSummary(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.count());
+        summary.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        summary.put("p50", bucketPercentile(snapshot, 0.5));
+        summary.put("p99", bucketPercentile(snapshot, 0.99));
+        summary.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        return summary;
+    }
+
+    // Upper bound of the histogram bucket holding the percentile; the server timers publish
+    // percentile histograms rather than precomputed percentiles
+    private static Double bucketPercentile(HistogramSnapshot snapshot, double percentile) {
+        double rank = snapshot.count() * percentile;
+        for (CountAtBucket bucket : snapshot.histogramCounts()) {
+            if (bucket.count() >= rank && bucket.count() > 0) {
+                return bucket.bucket(TimeUnit.MILLISECONDS);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.werewolfkill.game.loadtest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side measurements for one run. Percentiles are kept for the whole run rather than
+ * Micrometer's default two-minute window.
+ */
+public class LoadStats {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    private final Timer joinToBroadcast = latencyTimer("loadtest.join_to_broadcast");
+    private final Timer broadcastDelivery = latencyTimer("loadtest.broadcast_delivery");
+    private final Timer resumeReply = latencyTimer("loadtest.resume_reply");
+    private final Counter framesSent = registry.counter("loadtest.frames.sent");
+    private final Counter framesReceived = registry.counter("loadtest.frames.received");
+    private final Counter joinTimeouts = registry.counter("loadtest.join.timeouts");
+    private final Counter errors = registry.counter("loadtest.errors");
+
+    private final AtomicLong connected = new AtomicLong();
+    private final AtomicLong peakConnected = new AtomicLong();
+    private final AtomicLong peakHeap = new AtomicLong();
+    private long baselineHeap;
+
+    private Timer latencyTimer(String name) {
+        return Timer.builder(name)
+            .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+            .distributionStatisticExpiry(Duration.ofDays(1))
+            .distributionStatisticBufferLength(1)
+            .register(registry);
+    }
+
+    public void recordJoin(long nanos) { joinToBroadcast.record(nanos, TimeUnit.NANOSECONDS); }
+
+    public void recordDelivery(long millis) {
+        broadcastDelivery.record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordResume(long nanos) { resumeReply.record(nanos, TimeUnit.NANOSECONDS); }
+
+    public void frameSent() { framesSent.increment(); }
+    public void frameReceived() { framesReceived.increment(); }
+    public void joinTimedOut() { joinTimeouts.increment(); }
+    public void error() { errors.increment(); }
+
+    public void connected() {
+        peakConnected.accumulateAndGet(connected.incrementAndGet(), Math::max);
+    }
+
+    public void disconnected() { connected.decrementAndGet(); }
+
+    public void markHeapBaseline() {
+        System.gc();
+        baselineHeap = memory.getHeapMemoryUsage().getUsed();
+        peakHeap.set(baselineHeap);
+    }
+
+    /** Called periodically by the runner. */
+    public void sampleHeap() {
+        peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+    }
+
+    public Map<String, Object> toReport(Duration elapsed) {
+        System.gc();
+        long retainedHeap = memory.getHeapMemoryUsage().getUsed();
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+
+        Map<String, Object> throughput = new LinkedHashMap<>();
+        throughput.put("framesSent", (long) framesSent.count());
+        throughput.put("framesReceived", (long) framesReceived.count());
+        throughput.put("sentPerSecond", framesSent.count() / seconds);
+        throughput.put("receivedPerSecond", framesReceived.count() / seconds);
+
+        Map<String, Object> heap = new LinkedHashMap<>();
+        heap.put("baselineBytes", baselineHeap);
+        heap.put("peakBytes", peakHeap.get());
+        heap.put("retainedAfterGcBytes", retainedHeap);
+        heap.put("growthBytes", retainedHeap - baselineHeap);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("joinToBroadcastMs", summarize(joinToBroadcast));
+        report.put("broadcastDeliveryMs", summarize(broadcastDelivery));
+        report.put("resumeReplyMs", summarize(resumeReply));
+        report.put("throughput", throughput);
+        report.put("peakConnections", peakConnected.get());
+        report.put("joinTimeouts", (long) joinTimeouts.count());
+        report.put("errors", (long) errors.count());
+        report.put("heap", heap);
+        return report;
+    }
+
+    static Map<String, Object> summarize(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", snapshot.count());
+        summary.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            summary.put("p" + formatPercentile(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        summary.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        return summary;
+    }
+
+    // 0.99 -> "99", 0.999 -> "999"
+    private static String formatPercentile(double percentile) {
+        long perMille = Math.round(percentile * 1000);
+        return perMille % 10 == 0 ? String.valueOf(perMille / 10) : String.valueOf(perMille);
+    }
+}
@@ -0,0 +1,52 @@
+package com.werewolfkill.game.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load test settings, read from -Dloadtest.* system properties so a run is reproducible
+ * from its command line alone.
+ */
+public class LoadTestConfig {
+
+    /** Base URL of a running instance; empty boots the app in-process with the loadtest profile. */
+    private final String target;
+    private final int rooms;
+    private final int playersPerRoom;
+    private final Scenario scenario;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final Duration heartbeatInterval;
+    private final Duration churnInterval;
+    private final Duration joinTimeout;
+    private final String reportPath;
+
+    private LoadTestConfig() {
+        this.target = System.getProperty("loadtest.target", "");
+        this.rooms = Integer.getInteger("loadtest.rooms", 100);
+        this.playersPerRoom = Integer.getInteger("loadtest.players-per-room", 8);
+        this.scenario = Scenario.valueOf(System.getProperty("loadtest.scenario", "STEADY").toUpperCase());
+        this.rampUp = Duration.ofSeconds(Long.getLong("loadtest.ramp-up-s", 10));
+        this.duration = Duration.ofSeconds(Long.getLong("loadtest.duration-s", 60));
+        this.heartbeatInterval = Duration.ofMillis(Long.getLong("loadtest.heartbeat-ms", 15000));
+        this.churnInterval = Duration.ofMillis(Long.getLong("loadtest.churn-ms", 20000));
+        this.joinTimeout = Duration.ofMillis(Long.getLong("loadtest.join-timeout-ms", 10000));
+        this.reportPath = System.getProperty("loadtest.report", "target/loadtest-report.json");
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    public boolean isEmbedded() { return target.isBlank(); }
+    public String getTarget() { return target; }
+    public int getRooms() { return rooms; }
+    public int getPlayersPerRoom() { return playersPerRoom; }
+    public int getTotalPlayers() { return rooms * playersPerRoom; }
+    public Scenario getScenario() { return scenario; }
+    public Duration getRampUp() { return rampUp; }
+    public Duration getDuration() { return duration; }
+    public Duration getHeartbeatInterval() { return heartbeatInterval; }
+    public Duration getChurnInterval() { return churnInterval; }
+    public Duration getJoinTimeout() { return joinTimeout; }
+    public String getReportPath() { return reportPath; }
+}
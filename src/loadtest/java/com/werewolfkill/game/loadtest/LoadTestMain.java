@@ -0,0 +1,47 @@
+package com.werewolfkill.game.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Entry point for mvn -Ploadtest verify. With no -Dloadtest.target the app is started
+ * in-process on H2 (application-loadtest.properties), so client and server share the heap
+ * reported in the results.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        EmbeddedTarget embedded = config.isEmbedded() ? EmbeddedTarget.start(args) : null;
+        String baseUrl = embedded != null ? embedded.getBaseUrl() : config.getTarget();
+
+        int exitCode = 0;
+        try {
+            Map<String, Object> report = new LoadTestRunner(config, baseUrl).run();
+            if (embedded != null) {
+                report.put("server", embedded.serverMetrics());
+            }
+            writeReport(report, config.getReportPath());
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    static void writeReport(Map<String, Object> report, String path) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        File file = new File(path);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+}
@@ -0,0 +1,159 @@
+package com.werewolfkill.game.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the rooms over REST, then drives one virtual thread per simulated player
+ * against /ws/game and collects the results.
+ */
+public class LoadTestRunner {
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final LoadStats stats = new LoadStats();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    public LoadTestRunner(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+    }
+
+    public Map<String, Object> run() throws Exception {
+        List<UUID> roomIds = createRooms();
+
+        WebSocketStompClient stompClient = newStompClient();
+        String wsUrl = baseUrl.replaceFirst("^http", "ws") + "/ws/game";
+        int total = config.getTotalPlayers();
+        long rampMillis = config.getScenario() == Scenario.STORM ? 0 : config.getRampUp().toMillis();
+        long startAt = System.currentTimeMillis() + 500;
+        long endAt = startAt + rampMillis + config.getDuration().toMillis();
+
+        stats.markHeapBaseline();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(stats::sampleHeap, 0, 250, TimeUnit.MILLISECONDS);
+
+        long started = System.nanoTime();
+        try (ExecutorService players = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> running = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                UUID roomId = roomIds.get(i % roomIds.size());
+                long joinAt = startAt + (total > 1 ? rampMillis * i / (total - 1) : 0);
+                running.add(players.submit(new SimulatedPlayer(config, stats, stompClient, wsUrl,
+                    roomId, "load" + i, joinAt, endAt)));
+            }
+            for (Future<?> player : running) {
+                player.get();
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", describeConfig());
+        report.put("elapsedSeconds", elapsed.toMillis() / 1000.0);
+        report.putAll(stats.toReport(elapsed));
+        return report;
+    }
+
+    /** One shared client; connection setup runs on virtual threads. */
+    static WebSocketStompClient newStompClient() {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        webSocketClient.setTaskExecutor(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()));
+        WebSocketStompClient stompClient = new WebSocketStompClient(webSocketClient);
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        stompClient.setInboundMessageSizeLimit(256 * 1024);
+        return stompClient;
+    }
+
+    private List<UUID> createRooms() throws Exception {
+        return createRooms(baseUrl, config.getRooms(), config.getPlayersPerRoom());
+    }
+
+    /** Registers a throwaway user and creates {@code count} rooms through the REST API. */
+    static List<UUID> createRooms(String baseUrl, int count, int maxPlayers) throws Exception {
+        Map<?, ?> auth = post(baseUrl, "/api/auth/register", Map.of(
+            "username", "loadtest" + System.nanoTime(),
+            "password", "loadtest"), null);
+        String token = (String) auth.get("token");
+        String userId = (String) auth.get("userId");
+
+        try (ExecutorService creators = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<UUID>> rooms = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String name = "loadtest-" + i;
+                rooms.add(creators.submit(() -> {
+                    Map<?, ?> room = post(baseUrl, "/api/rooms", Map.of(
+                        "name", name,
+                        "createdBy", userId,
+                        "maxPlayers", maxPlayers), token);
+                    return UUID.fromString((String) room.get("id"));
+                }));
+            }
+            List<UUID> roomIds = new ArrayList<>(rooms.size());
+            for (Future<UUID> room : rooms) {
+                roomIds.add(room.get());
+            }
+            return roomIds;
+        }
+    }
+
+    /** POSTs JSON and returns the "data" of the ApiResponse. */
+    private static Map<?, ?> post(String baseUrl, String path, Object body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<byte[]> response = HTTP.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException("POST " + path + " failed: " + response.statusCode()
+                + " " + new String(response.body()));
+        }
+        Map<?, ?> data = (Map<?, ?>) OBJECT_MAPPER.readValue(response.body(), Map.class).get("data");
+        if (data == null) {
+            throw new IllegalStateException("POST " + path + " returned no data: " + new String(response.body()));
+        }
+        return data;
+    }
+
+    private Map<String, Object> describeConfig() {
+        Map<String, Object> described = new LinkedHashMap<>();
+        described.put("target", config.isEmbedded() ? "embedded" : config.getTarget());
+        described.put("scenario", config.getScenario().name());
+        described.put("rooms", config.getRooms());
+        described.put("playersPerRoom", config.getPlayersPerRoom());
+        described.put("rampUpSeconds", config.getRampUp().toSeconds());
+        described.put("durationSeconds", config.getDuration().toSeconds());
+        described.put("heartbeatMs", config.getHeartbeatInterval().toMillis());
+        described.put("churnMs", config.getChurnInterval().toMillis());
+        described.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        described.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        described.put("javaVersion", System.getProperty("java.version"));
+        return described;
+    }
+}
@@ -0,0 +1,16 @@
+package com.werewolfkill.game.loadtest;
+
+/**
+ * What each simulated player does between joining and the end of the run.
+ */
+public enum Scenario {
+
+    /** Join during the ramp-up, heartbeat until the end, then leave and disconnect. */
+    STEADY,
+
+    /** Like STEADY, but every player leaves and rejoins its room once per churn interval. */
+    CHURN,
+
+    /** Everyone joins at once; halfway through every connection drops without a leave and reconnects. */
+    STORM
+}
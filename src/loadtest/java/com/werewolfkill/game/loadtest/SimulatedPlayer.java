@@ -0,0 +1,225 @@
+package com.werewolfkill.game.loadtest;
+
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One headless client. Runs its whole scenario on the calling (virtual) thread, blocking
+ * between steps; frames arrive on the WebSocket client's threads.
+ */
+public class SimulatedPlayer implements Runnable {
+
+    // Subscriptions and the join travel on different inbound executor threads, so give the
+    // broker a moment to register the subscription before the join is sent
+    private static final long SUBSCRIBE_SETTLE_MS = 200;
+
+    private final LoadTestConfig config;
+    private final LoadStats stats;
+    private final WebSocketStompClient stompClient;
+    private final String wsUrl;
+    private final UUID roomId;
+    private final UUID playerId = UUID.randomUUID();
+    private final String username;
+    private final long startAt;
+    private final long endAt;
+
+    private StompSession session;
+    private volatile CountDownLatch awaiting;
+    private volatile long awaitingSince;
+    private volatile boolean awaitingResume;
+    private volatile long lastEpoch;
+    private volatile long lastSeq;
+    private volatile String resumeToken;
+
+    public SimulatedPlayer(LoadTestConfig config, LoadStats stats, WebSocketStompClient stompClient,
+                           String wsUrl, UUID roomId, String username, long startAt, long endAt) {
+        this.config = config;
+        this.stats = stats;
+        this.stompClient = stompClient;
+        this.wsUrl = wsUrl;
+        this.roomId = roomId;
+        this.username = username;
+        this.startAt = startAt;
+        this.endAt = endAt;
+    }
+
+    @Override
+    public void run() {
+        try {
+            sleepUntil(startAt);
+            connect();
+            enter("join");
+
+            long heartbeatMs = config.getHeartbeatInterval().toMillis();
+            long churnMs = config.getChurnInterval().toMillis();
+            long nextHeartbeat = System.currentTimeMillis() + heartbeatMs;
+            long nextChurn = config.getScenario() == Scenario.CHURN ? System.currentTimeMillis() + churnMs : Long.MAX_VALUE;
+            long stormAt = config.getScenario() == Scenario.STORM ? startAt + (endAt - startAt) / 2 : Long.MAX_VALUE;
+
+            while (true) {
+                long now = System.currentTimeMillis();
+                if (now >= endAt) break;
+
+                if (now >= stormAt) {
+                    // Drop the connection without a leave, then come back with resume
+                    session.disconnect();
+                    stats.disconnected();
+                    connect();
+                    enter("resume");
+                    stormAt = Long.MAX_VALUE;
+                } else if (now >= nextChurn) {
+                    send("/app/room/" + roomId + "/leave", Map.of());
+                    enter("join");
+                    nextChurn += churnMs;
+                } else if (now >= nextHeartbeat) {
+                    send("/app/room/" + roomId + "/heartbeat", Map.of());
+                    nextHeartbeat += heartbeatMs;
+                } else {
+                    Thread.sleep(Math.min(Math.min(nextHeartbeat, nextChurn), Math.min(stormAt, endAt)) - now);
+                }
+            }
+
+            send("/app/room/" + roomId + "/leave", Map.of());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            stats.error();
+        } finally {
+            if (session != null && session.isConnected()) {
+                session.disconnect();
+                stats.disconnected();
+            }
+        }
+    }
+
+    private void connect() throws Exception {
+        session = stompClient.connectAsync(wsUrl, new WebSocketHttpHeaders(), new StompHeaders(),
+                new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        stats.error();
+                    }
+                })
+            .get(config.getJoinTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        stats.connected();
+
+        session.subscribe("/topic/room/" + roomId, new MapHandler() {
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onRoomFrame(headers, (Map<?, ?>) payload);
+            }
+        });
+        session.subscribe("/user/queue/resume", new MapHandler() {
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                stats.frameReceived();
+                if (((Map<?, ?>) payload).get("resumeToken") instanceof String token) {
+                    resumeToken = token;
+                }
+                if (awaitingResume && !"RESUME_TOKEN".equals(((Map<?, ?>) payload).get("type"))) {
+                    arrived(true);
+                }
+            }
+        });
+        session.subscribe("/user/queue/errors", new MapHandler() {
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                stats.frameReceived();
+                stats.error();
+            }
+        });
+        Thread.sleep(SUBSCRIBE_SETTLE_MS);
+    }
+
+    /**
+     * Sends a join or resume and blocks until this player shows up in a room state update
+     * (join) or the private resume reply arrives.
+     */
+    private void enter(String action) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        awaitingResume = action.equals("resume");
+        awaitingSince = System.nanoTime();
+        awaiting = latch;
+
+        if (awaitingResume) {
+            send("/app/room/" + roomId + "/resume", Map.of(
+                "playerId", playerId.toString(),
+                "username", username,
+                "resumeToken", resumeToken != null ? resumeToken : "",
+                "epoch", lastEpoch,
+                "lastSeq", lastSeq));
+        } else {
+            send("/app/room/" + roomId + "/join", Map.of(
+                "playerId", playerId.toString(),
+                "username", username));
+        }
+
+        if (!latch.await(config.getJoinTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            awaiting = null;
+            stats.joinTimedOut();
+        }
+    }
+
+    private void onRoomFrame(StompHeaders headers, Map<?, ?> payload) {
+        stats.frameReceived();
+        if (headers.getFirst("seq") != null) {
+            lastEpoch = Long.parseLong(headers.getFirst("epoch"));
+            lastSeq = Long.parseLong(headers.getFirst("seq"));
+        }
+        if (!"ROOM_STATE_UPDATE".equals(payload.get("type"))) {
+            return;
+        }
+        if (payload.get("timestamp") instanceof Number timestamp) {
+            stats.recordDelivery(System.currentTimeMillis() - timestamp.longValue());
+        }
+        if (awaiting != null && !awaitingResume && payload.get("players") instanceof List<?> players) {
+            String self = playerId.toString();
+            boolean present = players.stream()
+                .anyMatch(p -> p instanceof Map<?, ?> player && self.equals(player.get("playerId")));
+            if (present) {
+                arrived(false);
+            }
+        }
+    }
+
+    private void arrived(boolean resume) {
+        CountDownLatch latch = awaiting;
+        if (latch == null) return;
+        awaiting = null;
+        long nanos = System.nanoTime() - awaitingSince;
+        if (resume) {
+            stats.recordResume(nanos);
+        } else {
+            stats.recordJoin(nanos);
+        }
+        latch.countDown();
+    }
+
+    private void send(String destination, Object payload) {
+        session.send(destination, payload);
+        stats.frameSent();
+    }
+
+    private static void sleepUntil(long epochMillis) throws InterruptedException {
+        long delay = epochMillis - System.currentTimeMillis();
+        if (delay > 0) Thread.sleep(delay);
+    }
+
+    private abstract static class MapHandler implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Map.class;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.werewolfkill.game.loadtest;
+
+import java.util.Map;
+
+/**
+ * Replays a recording made with traffic.recording.enabled:
+ *
+ *   mvn -Ploadtest verify -Dloadtest.main=com.werewolfkill.game.loadtest.TrafficReplayMain \
+ *       -Dloadtest.args="-Dreplay.file=recordings/traffic.wwrec -Dreplay.speed=4"
+ *
+ * replay.speed is a multiplier of the recorded pace, or "max". Against the embedded target
+ * the report includes the server's handler timings; with -Dloadtest.target only the
+ * client-side counts are available.
+ */
+public class TrafficReplayMain {
+
+    public static void main(String[] args) throws Exception {
+        String file = System.getProperty("replay.file", "recordings/traffic.wwrec");
+        String speedSetting = System.getProperty("replay.speed", "1");
+        double speed = speedSetting.equalsIgnoreCase("max") ? 0 : Double.parseDouble(speedSetting);
+        int roomCapacity = Integer.getInteger("replay.room-capacity", 16);
+        String target = System.getProperty("loadtest.target", "");
+
+        EmbeddedTarget embedded = target.isBlank() ? EmbeddedTarget.start(args) : null;
+        String baseUrl = embedded != null ? embedded.getBaseUrl() : target;
+
+        int exitCode = 0;
+        try {
+            Map<String, Object> report = new TrafficReplayer(file, speed, baseUrl, roomCapacity).run();
+            if (embedded != null) {
+                report.put("server", embedded.serverMetrics());
+            }
+            LoadTestMain.writeReport(report, System.getProperty("replay.report", "target/replay-report.json"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+}
@@ -0,0 +1,258 @@
+package com.werewolfkill.game.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolfkill.game.recording.TrafficRecordFormat;
+import com.werewolfkill.game.recording.TrafficRecordFormat.RecordedFrame;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Feeds a traffic recording back into an instance. Every recorded session becomes a real
+ * STOMP connection whose frames are sent, in order, on its own virtual-thread lane; the
+ * dispatcher paces the lanes to the recorded timestamps divided by the speed factor
+ * (0 = as fast as possible). Recorded room ids are mapped onto freshly created rooms.
+ */
+public class TrafficReplayer {
+
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+        "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern ROOM_DESTINATION = Pattern.compile("/room/(" + UUID_PATTERN.pattern() + ")");
+
+    private final String file;
+    private final double speed;
+    private final String baseUrl;
+    private final int roomCapacity;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WebSocketStompClient stompClient = LoadTestRunner.newStompClient();
+    private final Map<String, String> rooms = new HashMap<>();
+    private final Map<Long, Lane> lanes = new HashMap<>();
+    private final Map<String, LongAdder> framesReplayed = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> broadcastsReceived = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong maxLagMicros = new AtomicLong();
+
+    public TrafficReplayer(String file, double speed, String baseUrl, int roomCapacity) {
+        this.file = file;
+        this.speed = speed;
+        this.baseUrl = baseUrl;
+        this.roomCapacity = roomCapacity;
+    }
+
+    public Map<String, Object> run() throws Exception {
+        Set<String> recordedRooms = scanRooms();
+        List<UUID> created = LoadTestRunner.createRooms(baseUrl, recordedRooms.size(), roomCapacity);
+        int i = 0;
+        for (String recordedRoom : recordedRooms) {
+            rooms.put(recordedRoom, created.get(i++).toString());
+        }
+
+        long started = System.nanoTime();
+        long recordedSpanMicros = 0;
+        try (TrafficRecordFormat.Reader reader = open()) {
+            long segmentBase = 0;
+            long lastOffset = 0;
+            long origin = -1;
+            RecordedFrame frame;
+            while ((frame = reader.next()) != null) {
+                if (frame.getKind() == TrafficRecordFormat.SEGMENT) {
+                    // Segments from separate recorder runs are played back to back
+                    segmentBase = lastOffset;
+                    continue;
+                }
+                lastOffset = segmentBase + frame.getOffsetMicros();
+                if (origin < 0) {
+                    // Skip the idle time between recorder start and the first frame
+                    origin = lastOffset;
+                }
+                recordedSpanMicros = Math.max(recordedSpanMicros, lastOffset - origin);
+                pace(started, lastOffset - origin);
+                dispatch(frame);
+            }
+        }
+
+        for (Lane lane : lanes.values()) {
+            lane.finish();
+        }
+        // Let the last broadcasts arrive before counting
+        Thread.sleep(1000);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("file", file);
+        report.put("speed", speed > 0 ? speed : "max");
+        report.put("recordedSeconds", recordedSpanMicros / 1_000_000.0);
+        report.put("elapsedSeconds", elapsed.toMillis() / 1000.0);
+        report.put("sessions", lanes.size());
+        report.put("rooms", rooms.size());
+        report.put("framesReplayed", counts(framesReplayed));
+        report.put("broadcastsReceived", counts(broadcastsReceived));
+        report.put("maxScheduleLagMs", maxLagMicros.get() / 1000.0);
+        report.put("failures", failures.sum());
+        return report;
+    }
+
+    private Set<String> scanRooms() throws IOException {
+        Set<String> recordedRooms = new LinkedHashSet<>();
+        try (TrafficRecordFormat.Reader reader = open()) {
+            RecordedFrame frame;
+            while ((frame = reader.next()) != null) {
+                if (frame.getDestination() == null) continue;
+                Matcher matcher = ROOM_DESTINATION.matcher(frame.getDestination());
+                if (matcher.find()) {
+                    recordedRooms.add(matcher.group(1));
+                }
+            }
+        }
+        return recordedRooms;
+    }
+
+    private TrafficRecordFormat.Reader open() throws IOException {
+        return new TrafficRecordFormat.Reader(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+    }
+
+    private void pace(long started, long offsetMicros) throws InterruptedException {
+        if (speed <= 0) return;
+        long dueMicros = (long) (offsetMicros / speed);
+        long nowMicros = (System.nanoTime() - started) / 1000;
+        if (dueMicros > nowMicros) {
+            TimeUnit.MICROSECONDS.sleep(dueMicros - nowMicros);
+        } else {
+            maxLagMicros.accumulateAndGet(nowMicros - dueMicros, Math::max);
+        }
+    }
+
+    private void dispatch(RecordedFrame frame) {
+        Lane lane = lanes.computeIfAbsent(frame.getSession(), session -> new Lane());
+        switch (frame.getKind()) {
+            case TrafficRecordFormat.CONNECT -> lane.submit("connect", lane::connect);
+            case TrafficRecordFormat.SUBSCRIBE -> {
+                String destination = remap(frame.getDestination());
+                lane.submit("subscribe", () -> lane.subscribe(destination));
+            }
+            case TrafficRecordFormat.SEND -> {
+                String destination = remap(frame.getDestination());
+                byte[] body = frame.getBody();
+                lane.submit(kindOf(destination), () -> lane.send(destination, body));
+            }
+            case TrafficRecordFormat.DISCONNECT -> lane.submit("disconnect", lane::disconnect);
+            default -> { }
+        }
+    }
+
+    private String remap(String destination) {
+        Matcher matcher = UUID_PATTERN.matcher(destination);
+        StringBuilder out = new StringBuilder(destination.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(out, rooms.getOrDefault(matcher.group(), matcher.group()));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private static String kindOf(String destination) {
+        return destination.substring(destination.lastIndexOf('/') + 1);
+    }
+
+    private static Map<String, Long> counts(Map<String, LongAdder> counters) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counters.forEach((key, value) -> counts.put(key, value.sum()));
+        return counts;
+    }
+
+    /**
+     * One recorded session: a single virtual thread so its frames keep their order.
+     */
+    private class Lane {
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofVirtual().factory());
+        private StompSession session;
+
+        void submit(String kind, ThrowingRunnable step) {
+            executor.execute(() -> {
+                try {
+                    step.run();
+                    framesReplayed.computeIfAbsent(kind, k -> new LongAdder()).increment();
+                } catch (Exception e) {
+                    failures.increment();
+                }
+            });
+        }
+
+        void connect() throws Exception {
+            if (session != null && session.isConnected()) return;
+            session = stompClient.connectAsync(baseUrl.replaceFirst("^http", "ws") + "/ws/game",
+                    new WebSocketHttpHeaders(), new StompHeaders(), new StompSessionHandlerAdapter() {
+                        @Override
+                        public void handleTransportError(StompSession session, Throwable exception) {
+                            failures.increment();
+                        }
+                    })
+                .get(10, TimeUnit.SECONDS);
+        }
+
+        void subscribe(String destination) {
+            if (session == null) return;
+            session.subscribe(destination, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    Object type = payload instanceof Map<?, ?> map ? map.get("type") : null;
+                    broadcastsReceived.computeIfAbsent(type != null ? type.toString() : "other",
+                        k -> new LongAdder()).increment();
+                }
+            });
+        }
+
+        void send(String destination, byte[] body) throws IOException {
+            if (session == null) return;
+            session.send(destination, objectMapper.readValue(body, Object.class));
+        }
+
+        void disconnect() {
+            if (session != null && session.isConnected()) {
+                session.disconnect();
+            }
+        }
+
+        void finish() throws InterruptedException {
+            submit("end", this::disconnect);
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
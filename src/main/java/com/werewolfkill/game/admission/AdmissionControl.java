@@ -0,0 +1,235 @@
+package com.werewolfkill.game.admission;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.session.SessionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-aware admission for new players.
+ *
+ * Every sample interval it reads the inbound channel queue depth, the inbound executor's
+ * scheduling lag (from a probe task), heap occupancy after the last GC and the active
+ * player count. The worst signal sets the state; stepping back down needs
+ * admission.recovery-samples consecutive calmer samples so the state doesn't flap.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final String INBOUND_EXECUTOR = "clientInboundChannelExecutor";
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.degraded.inbound-queue-depth:200}")
+    private int degradedQueueDepth;
+
+    @Value("${admission.full.inbound-queue-depth:1000}")
+    private int fullQueueDepth;
+
+    @Value("${admission.degraded.executor-lag-ms:100}")
+    private long degradedLagMs;
+
+    @Value("${admission.full.executor-lag-ms:500}")
+    private long fullLagMs;
+
+    @Value("${admission.degraded.heap-used-ratio:0.80}")
+    private double degradedHeapRatio;
+
+    @Value("${admission.full.heap-used-ratio:0.92}")
+    private double fullHeapRatio;
+
+    @Value("${admission.degraded.active-players:4000}")
+    private int degradedPlayers;
+
+    @Value("${admission.full.active-players:5000}")
+    private int fullPlayers;
+
+    @Value("${admission.recovery-samples:4}")
+    private int recoverySamples;
+
+    @Value("${admission.retry-after-ms:5000}")
+    private long retryAfterMs;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private ThreadPoolTaskExecutor inboundExecutor;
+
+    private volatile AdmissionState state = AdmissionState.ACCEPTING;
+    private volatile String reason;
+    private volatile Map<String, Object> signals = Map.of();
+    private int calmSamples;
+
+    private volatile long probeSubmittedAt;
+    private volatile long lastProbeLagNanos;
+
+    /**
+     * Outcome of an admission check. Rejections carry a jittered retry hint so refused
+     * clients don't all come back in the same instant.
+     */
+    public static class Decision {
+        private static final Decision ADMIT = new Decision(true, 0, null);
+
+        private final boolean admitted;
+        private final long retryAfterMs;
+        private final String reason;
+
+        private Decision(boolean admitted, long retryAfterMs, String reason) {
+            this.admitted = admitted;
+            this.retryAfterMs = retryAfterMs;
+            this.reason = reason;
+        }
+
+        public boolean isAdmitted() { return admitted; }
+        public long getRetryAfterMs() { return retryAfterMs; }
+        public String getReason() { return reason; }
+    }
+
+    /** A player entering an existing room. */
+    public Decision admitJoin() {
+        return decide(AdmissionState.FULL, "join");
+    }
+
+    /** A new room, which will bring a whole table of players with it. */
+    public Decision admitRoomCreation() {
+        return decide(AdmissionState.DEGRADED, "create_room");
+    }
+
+    public AdmissionState getState() {
+        return state;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Map<String, Object> getSignals() {
+        return signals;
+    }
+
+    private Decision decide(AdmissionState refusedFrom, String operation) {
+        if (state.compareTo(refusedFrom) < 0) {
+            return Decision.ADMIT;
+        }
+        gameMetrics.recordAdmissionRejected(operation);
+        long base = state == AdmissionState.FULL ? retryAfterMs * 2 : retryAfterMs;
+        return new Decision(false, base / 2 + ThreadLocalRandom.current().nextLong(base + 1),
+                "Server is busy (" + reason + "), try again shortly");
+    }
+
+    @Scheduled(fixedRateString = "${admission.sample-interval-ms:500}")
+    public void sample() {
+        if (!enabled) return;
+
+        int queueDepth = inboundQueueDepth();
+        long lagMs = TimeUnit.NANOSECONDS.toMillis(probeExecutorLag());
+        double heapRatio = heapUsedRatio();
+        int players = sessionManager.getActivePlayerCount();
+
+        AdmissionState measured = AdmissionState.ACCEPTING;
+        String cause = null;
+        if (queueDepth >= fullQueueDepth || lagMs >= fullLagMs || heapRatio >= fullHeapRatio || players >= fullPlayers) {
+            measured = AdmissionState.FULL;
+        } else if (queueDepth >= degradedQueueDepth || lagMs >= degradedLagMs
+                || heapRatio >= degradedHeapRatio || players >= degradedPlayers) {
+            measured = AdmissionState.DEGRADED;
+        }
+        if (measured != AdmissionState.ACCEPTING) {
+            cause = queueDepth >= degradedQueueDepth ? "inbound queue"
+                    : lagMs >= degradedLagMs ? "executor lag"
+                    : heapRatio >= degradedHeapRatio ? "heap"
+                    : "player count";
+        }
+
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("inboundQueueDepth", queueDepth);
+        current.put("executorLagMs", lagMs);
+        current.put("heapUsedRatio", Math.round(heapRatio * 1000) / 1000.0);
+        current.put("activePlayers", players);
+        signals = current;
+
+        if (measured.compareTo(state) >= 0) {
+            // Escalate (or hold) immediately
+            calmSamples = 0;
+            state = measured;
+            reason = cause;
+        } else if (++calmSamples >= recoverySamples) {
+            calmSamples = 0;
+            state = measured;
+            reason = cause;
+        }
+    }
+
+    private int inboundQueueDepth() {
+        ThreadPoolTaskExecutor executor = inboundExecutor();
+        return executor != null ? executor.getThreadPoolExecutor().getQueue().size() : 0;
+    }
+
+    /**
+     * Time a no-op task waited for an inbound executor thread. While a probe is still
+     * queued, its age so far counts, so a stalled executor shows up before the probe runs.
+     */
+    private long probeExecutorLag() {
+        ThreadPoolTaskExecutor executor = inboundExecutor();
+        if (executor == null) return 0;
+
+        long now = System.nanoTime();
+        long pending = probeSubmittedAt;
+        if (pending != 0) {
+            return Math.max(lastProbeLagNanos, now - pending);
+        }
+        probeSubmittedAt = now;
+        try {
+            executor.execute(() -> {
+                lastProbeLagNanos = System.nanoTime() - now;
+                probeSubmittedAt = 0;
+            });
+        } catch (RejectedExecutionException e) {
+            probeSubmittedAt = 0;
+            return TimeUnit.MILLISECONDS.toNanos(fullLagMs);
+        }
+        return lastProbeLagNanos;
+    }
+
+    // Occupancy after the last collection, so short-lived garbage doesn't count as pressure
+    private static double heapUsedRatio() {
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        double worst = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) continue;
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage == null || usage.getMax() <= 0) continue;
+            worst = Math.max(worst, (double) usage.getUsed() / usage.getMax());
+        }
+        return worst;
+    }
+
+    private ThreadPoolTaskExecutor inboundExecutor() {
+        if (inboundExecutor == null && applicationContext.containsBean(INBOUND_EXECUTOR)) {
+            inboundExecutor = applicationContext.getBean(INBOUND_EXECUTOR, ThreadPoolTaskExecutor.class);
+        }
+        return inboundExecutor;
+    }
+}
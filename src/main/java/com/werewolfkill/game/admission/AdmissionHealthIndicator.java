@@ -0,0 +1,36 @@
+package com.werewolfkill.game.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the admission state as health status DEGRADED or FULL. Load balancers should
+ * probe /actuator/health/accepting, which answers 503 while FULL; the main health
+ * endpoint stays 200 so a busy node isn't restarted.
+ */
+@Component("admission")
+public class AdmissionHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Not accepting new rooms");
+    public static final Status FULL = new Status("FULL", "Not accepting new rooms or players");
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Override
+    public Health health() {
+        Status status = switch (admissionControl.getState()) {
+            case ACCEPTING -> Status.UP;
+            case DEGRADED -> DEGRADED;
+            case FULL -> FULL;
+        };
+        Health.Builder builder = Health.status(status).withDetails(admissionControl.getSignals());
+        if (admissionControl.getReason() != null) {
+            builder.withDetail("reason", admissionControl.getReason());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.werewolfkill.game.admission;
+
+/**
+ * How much new load the node is taking. Players already in a game are always served.
+ */
+public enum AdmissionState {
+
+    /** Everything admitted. */
+    ACCEPTING,
+
+    /** New rooms are refused; joins into existing rooms still go through. */
+    DEGRADED,
+
+    /** New rooms and joins are refused; reconnects (resume) still go through. */
+    FULL
+}
@@ -0,0 +1,80 @@
+package com.werewolfkill.game.chat;
+
+import com.werewolfkill.game.service.WebSocketService;
+import com.werewolfkill.game.session.SessionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Room chat over STOMP. Players subscribe to /topic/chat/{roomId} for CHAT_BATCH frames,
+ * then to /app/room/{roomId}/chat for the recent history, and send to /app/room/{roomId}/chat.
+ * The send rate is limited by the /app/room/{id}/chat rule in ratelimit.session-rules.
+ */
+@Controller
+public class ChatController {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @MessageMapping("/room/{roomId}/chat")
+    public void handleChat(
+            @DestinationVariable String roomId,
+            Map<String, String> message,
+            StompHeaderAccessor headerAccessor) {
+        String webSocketSessionId = headerAccessor.getSessionId();
+        try {
+            chatService.post(UUID.fromString(roomId), webSocketSessionId, message.get("text"));
+        } catch (IllegalArgumentException e) {
+            sendError(webSocketSessionId, "Invalid room id");
+        } catch (RuntimeException e) {
+            sendError(webSocketSessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Chat history for late joiners, answered straight to the subscriber (players only).
+     */
+    @SubscribeMapping("/room/{roomId}/chat")
+    public Map<String, Object> handleChatSubscribe(
+            @DestinationVariable String roomId,
+            StompHeaderAccessor headerAccessor) {
+        UUID roomUuid;
+        try {
+            roomUuid = UUID.fromString(roomId);
+        } catch (IllegalArgumentException e) {
+            return error("Invalid room id");
+        }
+        boolean member = sessionManager.getSession(roomUuid)
+            .map(session -> session.getPlayers().containsKey(headerAccessor.getSessionId()))
+            .orElse(false);
+        if (!member) {
+            return error("Not a player in this room");
+        }
+        return chatService.history(roomUuid);
+    }
+
+    private Map<String, Object> error(String errorMessage) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("type", "ERROR");
+        error.put("message", errorMessage);
+        return error;
+    }
+
+    private void sendError(String sessionId, String errorMessage) {
+        webSocketService.sendToSession(sessionId, "/queue/errors", error(errorMessage));
+    }
+}
@@ -0,0 +1,175 @@
+package com.werewolfkill.game.chat;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.session.SessionManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-room chat on its own topic, /topic/chat/{roomId}, so chat never queues up in front of
+ * room state on /topic/room/{roomId}.
+ *
+ * Accepted messages go into the room's history ring (the last chat.history-size, for late
+ * joiners) and its pending batch. A single low-priority thread flushes every
+ * chat.flush-interval-ms, sending one CHAT_BATCH frame per room that had messages.
+ */
+@Service
+public class ChatService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatService.class);
+
+    public static final String TOPIC_PREFIX = "/topic/chat/";
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Value("${chat.max-length:500}")
+    private int maxLength;
+
+    @Value("${chat.history-size:50}")
+    private int historySize;
+
+    @Value("${chat.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    private final ConcurrentHashMap<UUID, RoomChat> rooms = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    /** One room's chat; all fields guarded by the instance. */
+    private static final class RoomChat {
+        final ArrayDeque<Map<String, Object>> history = new ArrayDeque<>();
+        List<Map<String, Object>> pending = new ArrayList<>();
+        long seq;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-fanout");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a message from a seated player. The sender's name comes from the room session,
+     * not from the client.
+     */
+    public void post(UUID roomId, String webSocketSessionId, String text) {
+        SessionManager.PlayerInfo sender = sessionManager.getSession(roomId)
+            .map(session -> session.getPlayers().get(webSocketSessionId))
+            .orElse(null);
+        if (sender == null) {
+            gameMetrics.recordChatMessage("rejected");
+            throw new RuntimeException("Not a player in this room");
+        }
+
+        String trimmed = text != null ? text.strip() : "";
+        if (trimmed.isEmpty() || trimmed.length() > maxLength) {
+            gameMetrics.recordChatMessage("rejected");
+            throw new RuntimeException("Chat message must be 1-" + maxLength + " characters");
+        }
+
+        RoomChat chat = rooms.computeIfAbsent(roomId, id -> new RoomChat());
+        synchronized (chat) {
+            Map<String, Object> message = new HashMap<>();
+            message.put("seq", ++chat.seq);
+            message.put("playerId", sender.getPlayerId().toString());
+            message.put("username", sender.getUsername());
+            message.put("text", trimmed);
+            message.put("timestamp", System.currentTimeMillis());
+
+            chat.history.addLast(message);
+            if (chat.history.size() > historySize) {
+                chat.history.removeFirst();
+            }
+            chat.pending.add(message);
+        }
+        gameMetrics.recordChatMessage("sent");
+    }
+
+    /**
+     * Recent messages for a player who just subscribed. Messages above the returned seq
+     * arrive in CHAT_BATCH frames.
+     */
+    public Map<String, Object> history(UUID roomId) {
+        List<Map<String, Object>> messages = new ArrayList<>();
+        long seq = 0;
+        RoomChat chat = rooms.get(roomId);
+        if (chat != null) {
+            synchronized (chat) {
+                messages.addAll(chat.history);
+                seq = chat.seq;
+            }
+        }
+        Map<String, Object> reply = new HashMap<>();
+        reply.put("type", "CHAT_HISTORY");
+        reply.put("roomId", roomId.toString());
+        reply.put("seq", seq);
+        reply.put("messages", messages);
+        return reply;
+    }
+
+    private void flush() {
+        try {
+            for (Map.Entry<UUID, RoomChat> entry : rooms.entrySet()) {
+                UUID roomId = entry.getKey();
+                RoomChat chat = entry.getValue();
+
+                List<Map<String, Object>> batch;
+                synchronized (chat) {
+                    if (chat.pending.isEmpty()) {
+                        // Forget rooms whose session is gone; a new session starts a fresh chat
+                        if (sessionManager.getSession(roomId).isEmpty()) {
+                            rooms.remove(roomId, chat);
+                        }
+                        continue;
+                    }
+                    batch = chat.pending;
+                    chat.pending = new ArrayList<>();
+                }
+
+                Map<String, Object> message = new HashMap<>();
+                message.put("type", "CHAT_BATCH");
+                message.put("roomId", roomId.toString());
+                message.put("messages", batch);
+                messagingTemplate.convertAndSend(TOPIC_PREFIX + roomId, (Object) message);
+                gameMetrics.recordChatBatch(batch.size());
+            }
+        } catch (RuntimeException e) {
+            // Never let one failure cancel the periodic task
+            log.warn("Chat flush failed", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.werewolfkill.game.config;
+
+import com.werewolfkill.game.dto.ApiResponse;
+import com.werewolfkill.game.dto.AuthResponse;
+import com.werewolfkill.game.dto.CreateRoomRequest;
+import com.werewolfkill.game.dto.LoginRequest;
+import com.werewolfkill.game.dto.PlayerDTO;
+import com.werewolfkill.game.dto.RegisterRequest;
+import com.werewolfkill.game.model.GameState;
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.model.User;
+import com.werewolfkill.game.model.enums.GamePhase;
+import com.werewolfkill.game.model.enums.PlayerStatus;
+import com.werewolfkill.game.model.enums.Role;
+import com.werewolfkill.game.model.enums.RoomStatus;
+import com.werewolfkill.game.websocket.dto.GameUpdateMessage;
+import com.werewolfkill.game.websocket.dto.JoinRoomMessage;
+import com.werewolfkill.game.websocket.dto.NightActionMessage;
+import com.werewolfkill.game.websocket.dto.PrivateDeliveryReport;
+import com.werewolfkill.game.websocket.dto.VoteMessage;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the AOT / native-image builds (-Paot, -Pnative).
+ *
+ * Spring's AOT pass covers beans and @MessageMapping methods, but not the types Jackson
+ * binds (Lombok DTOs, STOMP payloads), the JPA entities Hibernate instantiates, or the
+ * implementation classes JJWT loads by name at runtime.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    // JJWT's api module looks these up with Class.forName
+    private static final List<String> JJWT_TYPES = List.of(
+        "io.jsonwebtoken.impl.DefaultJwtBuilder",
+        "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+        "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+        "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+        "io.jsonwebtoken.impl.security.StandardKeyOperations",
+        "io.jsonwebtoken.impl.security.KeysBridge",
+        "io.jsonwebtoken.jackson.io.JacksonSerializer",
+        "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(),
+            ApiResponse.class, AuthResponse.class, CreateRoomRequest.class, LoginRequest.class,
+            PlayerDTO.class, RegisterRequest.class,
+            GameUpdateMessage.class, JoinRoomMessage.class, NightActionMessage.class,
+            PrivateDeliveryReport.class, VoteMessage.class);
+
+        for (Class<?> entity : List.of(Room.class, User.class, GameState.class)) {
+            hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        for (Class<?> type : List.of(GamePhase.class, PlayerStatus.class, Role.class, RoomStatus.class)) {
+            hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        for (String type : JJWT_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        hints.resources().registerPattern("db/migration/*.sql");
+    }
+}
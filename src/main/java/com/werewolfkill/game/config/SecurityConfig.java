@@ -1,5 +1,6 @@
 package com.werewolfkill.game.config;
 
+import com.werewolfkill.game.ratelimit.AuthRateLimitFilter;
 import com.werewolfkill.game.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -19,6 +20,9 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private AuthRateLimitFilter authRateLimitFilter;
+
     @Bean
     PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -34,13 +38,18 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(
                     "/api/auth/**",
+                    "/api/wire-format",
                     "/ws/**",
                     "/app/**",
                     "/topic/**",
-                    "/actuator/**"
+                    "/actuator/health/**",
+                    "/actuator/info"
                 ).permitAll()
+                // Metrics and prometheus describe internal load; scrapers present an admin JWT
+                .requestMatchers("/api/admin/**", "/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(authRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
@@ -1,19 +1,56 @@
 package com.werewolfkill.game.config;
 
+import com.werewolfkill.game.metrics.InboundMetricsInterceptor;
+import com.werewolfkill.game.ratelimit.RemoteAddressHandshakeInterceptor;
+import com.werewolfkill.game.ratelimit.StompRateLimitInterceptor;
+import com.werewolfkill.game.recording.TrafficRecorder;
+import com.werewolfkill.game.websocket.SlowConsumerMonitor;
+import com.werewolfkill.game.websocket.WireFormatInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private WireFormatInterceptor wireFormatInterceptor;
+
+    @Autowired
+    private SlowConsumerMonitor slowConsumerMonitor;
+
+    @Autowired
+    private InboundMetricsInterceptor inboundMetricsInterceptor;
+
+    @Autowired
+    private TrafficRecorder trafficRecorder;
+
+    @Autowired
+    private StompRateLimitInterceptor stompRateLimitInterceptor;
+
+    @Autowired
+    private RemoteAddressHandshakeInterceptor remoteAddressHandshakeInterceptor;
+
+    @Value("${websocket.outbound.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.outbound.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Enable simple broker for broadcasting
-        config.enableSimpleBroker("/topic");
+        // Enable simple broker for broadcasting and private (per-session) queues
+        config.enableSimpleBroker("/topic", "/queue");
+
+        // Per-session publish order on the outbound thread pool is kept by SlowConsumerMonitor,
+        // which also conflates what is queued, so setPreservePublishOrder stays off
         
         // Prefix for client messages
         config.setApplicationDestinationPrefixes("/app");
@@ -24,10 +61,38 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         // WebSocket endpoint with SockJS fallback
         registry.addEndpoint("/ws/game")
                 .setAllowedOriginPatterns("*")
+                .addInterceptors(remoteAddressHandshakeInterceptor)
                 .withSockJS();
         
         // Also register without SockJS for native WebSocket support
         registry.addEndpoint("/ws/game")
-                .setAllowedOriginPatterns("*");
+                .setAllowedOriginPatterns("*")
+                .addInterceptors(remoteAddressHandshakeInterceptor);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Optionally captures frames for replay (traffic.recording.enabled) before the rate
+        // limiter drops any, so recordings keep abusive traffic; then records which sessions
+        // negotiated CBOR on CONNECT, decodes CBOR SEND frames to JSON, and times and sizes
+        // the frames that get through
+        registration.interceptors(trafficRecorder, stompRateLimitInterceptor,
+                wireFormatInterceptor.inbound(), inboundMetricsInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Transcodes outbound JSON for CBOR sessions, then orders and conflates per session.
+        // The slow-consumer monitor must stay last: the message it lets through is the one
+        // it matches up in afterMessageHandled to release the session's next message.
+        registration.interceptors(wireFormatInterceptor, slowConsumerMonitor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Hard per-connection limits; exceeding either closes the session
+        registration.setSendTimeLimit(sendTimeLimitMs);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+        registration.addDecoratorFactory(slowConsumerMonitor);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.werewolfkill.game.controller;
+
+import com.werewolfkill.game.dto.ApiResponse;
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * AdminController - Operational views for incident analysis (ROLE_ADMIN only, see admin.usernames)
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private RoomTracer roomTracer;
+
+    /**
+     * GET /api/admin/trace - Rooms with a retained trace
+     */
+    @GetMapping("/trace")
+    public ResponseEntity<ApiResponse<List<UUID>>> getTracedRooms() {
+        return ResponseEntity.ok(ApiResponse.success("Traced rooms retrieved", roomTracer.getTracedRooms()));
+    }
+
+    /**
+     * GET /api/admin/trace/{roomId} - Recent session events for a room, oldest first
+     */
+    @GetMapping("/trace/{roomId}")
+    public ResponseEntity<ApiResponse<List<RoomTracer.TraceRecord>>> getRoomTrace(
+            @PathVariable String roomId) {
+        try {
+            UUID roomUuid = UUID.fromString(roomId);
+            return ResponseEntity.ok(ApiResponse.success("Trace retrieved", roomTracer.getTrace(roomUuid)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid room ID format"));
+        }
+    }
+}
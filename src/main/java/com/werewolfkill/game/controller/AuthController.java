@@ -2,10 +2,16 @@ package com.werewolfkill.game.controller;
 
 import com.werewolfkill.game.dto.*;
 import com.werewolfkill.game.service.AuthService;
+import com.werewolfkill.game.service.UsernameAvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -13,6 +19,9 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UsernameAvailabilityService usernameAvailability;
+
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
             @RequestBody RegisterRequest request) {
@@ -21,6 +30,9 @@ public class AuthController {
             return ResponseEntity.ok(
                 ApiResponse.success("Registration successful", response)
             );
+        } catch (DuplicateKeyException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("Username already exists"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error(e.getMessage()));
@@ -40,4 +52,20 @@ public class AuthController {
                 .body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    /**
+     * GET /api/auth/username-available?username=alice - Whether a username is free to register
+     */
+    @GetMapping("/username-available")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> usernameAvailable(
+            @RequestParam String username) {
+        if (username.isBlank()) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Username is required"));
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("username", username);
+        data.put("available", usernameAvailability.isAvailable(username));
+        return ResponseEntity.ok(ApiResponse.success("Username checked", data));
+    }
 }
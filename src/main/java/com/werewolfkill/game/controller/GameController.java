@@ -3,7 +3,9 @@ package com.werewolfkill.game.controller;
 import com.werewolfkill.game.dto.ApiResponse;
 import com.werewolfkill.game.service.GameService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -27,12 +29,19 @@ public class GameController {
         }
     }
 
+    /**
+     * The voter is the authenticated player; a voterId in the body must match it.
+     */
     @PostMapping("/{roomId}/vote")
     public ResponseEntity<ApiResponse<String>> vote(
             @PathVariable UUID roomId,
-            @RequestBody Map<String, String> request) {
+            @RequestBody Map<String, String> request,
+            Authentication authentication) {
         try {
-            UUID voterId = UUID.fromString(request.get("voterId"));
+            UUID voterId = actingPlayer(authentication, request.get("voterId"));
+            if (voterId == null) {
+                return forbidden();
+            }
             UUID targetId = UUID.fromString(request.get("targetId"));
             
             gameService.handleVote(roomId, voterId, targetId);
@@ -43,12 +52,19 @@ public class GameController {
         }
     }
 
+    /**
+     * The actor is the authenticated player; an actorId in the body must match it.
+     */
     @PostMapping("/{roomId}/action")
     public ResponseEntity<ApiResponse<String>> nightAction(
             @PathVariable UUID roomId,
-            @RequestBody Map<String, String> request) {
+            @RequestBody Map<String, String> request,
+            Authentication authentication) {
         try {
-            UUID actorId = UUID.fromString(request.get("actorId"));
+            UUID actorId = actingPlayer(authentication, request.get("actorId"));
+            if (actorId == null) {
+                return forbidden();
+            }
             UUID targetId = UUID.fromString(request.get("targetId"));
             String action = request.get("action");
             
@@ -59,4 +75,20 @@ public class GameController {
                 .body(ApiResponse.error(e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /** The caller's user id (set by JwtAuthenticationFilter), or null if the claimed id is someone else's. */
+    private static UUID actingPlayer(Authentication authentication, String claimedId) {
+        if (authentication == null || !(authentication.getDetails() instanceof UUID userId)) {
+            return null;
+        }
+        if (claimedId != null && !claimedId.equals(userId.toString())) {
+            return null;
+        }
+        return userId;
+    }
+
+    private static ResponseEntity<ApiResponse<String>> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+            .body(ApiResponse.error("You can only act as yourself"));
+    }
+}
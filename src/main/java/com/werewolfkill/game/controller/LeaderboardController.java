@@ -0,0 +1,62 @@
+package com.werewolfkill.game.controller;
+
+import com.werewolfkill.game.dto.ApiResponse;
+import com.werewolfkill.game.stats.Leaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    @Value("${leaderboard.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * GET /api/leaderboard?gameMode=CLASSIC&offset=0&limit=20 - A page of the board (all modes if no gameMode)
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTop(
+            @RequestParam(defaultValue = Leaderboard.GLOBAL) String gameMode,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (offset < 0 || limit < 1) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("offset must be >= 0 and limit >= 1"));
+        }
+        List<Map<String, Object>> page = leaderboard.getTop(gameMode, offset, Math.min(limit, maxPageSize));
+        return ResponseEntity.ok(ApiResponse.success("Leaderboard retrieved", page));
+    }
+
+    /**
+     * GET /api/leaderboard/users/{userId}?gameMode=CLASSIC&radius=5 - A player's rank and their neighbours
+     */
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAround(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = Leaderboard.GLOBAL) String gameMode,
+            @RequestParam(defaultValue = "5") int radius) {
+        try {
+            int clampedRadius = Math.max(0, Math.min(radius, maxPageSize / 2));
+            Map<String, Object> data = leaderboard.getAround(gameMode, UUID.fromString(userId), clampedRadius);
+            if (data == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Player is not ranked"));
+            }
+            return ResponseEntity.ok(ApiResponse.success("Rank retrieved", data));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid UUID format"));
+        }
+    }
+}
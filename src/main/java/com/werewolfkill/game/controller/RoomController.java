@@ -1,13 +1,19 @@
 package com.werewolfkill.game.controller;
 
+import com.werewolfkill.game.admission.AdmissionControl;
 import com.werewolfkill.game.dto.ApiResponse;
 import com.werewolfkill.game.dto.PlayerDTO;
 import com.werewolfkill.game.model.Room;
 import com.werewolfkill.game.service.RoomService;
 import com.werewolfkill.game.session.SessionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,18 +30,29 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/rooms")
 public class RoomController {
 
+    private static final Logger log = LoggerFactory.getLogger(RoomController.class);
+
     @Autowired
     private RoomService roomService;
     
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private AdmissionControl admissionControl;
+
     /**
      * GET /api/rooms - Get all rooms (persistent data only)
+     * Answers If-None-Match with 304 before touching the database.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllRooms() {
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllRooms(WebRequest request) {
         try {
+            String etag = roomService.getLobbyEtag();
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+
             List<Room> rooms = roomService.getAvailableRooms();
             
             List<Map<String, Object>> roomData = rooms.stream().map(room -> {
@@ -57,9 +74,9 @@ public class RoomController {
                 return data;
             }).collect(Collectors.toList());
             
-            return ResponseEntity.ok(ApiResponse.success("Rooms retrieved", roomData));
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success("Rooms retrieved", roomData));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to retrieve rooms", e);
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Failed to retrieve rooms: " + e.getMessage()));
         }
@@ -85,6 +102,14 @@ public class RoomController {
             }
 
             UUID createdBy = UUID.fromString(createdByStr);
+
+            AdmissionControl.Decision decision = admissionControl.admitRoomCreation();
+            if (!decision.isAdmitted()) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((decision.getRetryAfterMs() + 999) / 1000))
+                    .body(ApiResponse.error(decision.getReason()));
+            }
+
             Room room = roomService.createRoom(name, createdBy, maxPlayers);
 
             Map<String, Object> data = new HashMap<>();
@@ -101,7 +126,7 @@ public class RoomController {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Invalid UUID format"));
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to create room", e);
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Failed to create room: " + e.getMessage()));
         }
@@ -112,13 +137,18 @@ public class RoomController {
      */
     @GetMapping("/{roomId}")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getRoomDetails(
-            @PathVariable String roomId) {
+            @PathVariable String roomId, WebRequest request) {
         try {
             UUID roomUuid = UUID.fromString(roomId);
-            Room room = roomService.getAvailableRooms().stream()
-                .filter(r -> r.getId().equals(roomUuid))
-                .findFirst()
+            String knownEtag = roomService.getRoomEtag(roomUuid);
+            if (knownEtag != null && request.checkNotModified(knownEtag)) {
+                return null;
+            }
+
+            Room room = roomService.getRoom(roomUuid)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
+            // Read the version before the session so a concurrent change can only make it stale, not wrong
+            String etag = roomService.getRoomEtag(roomUuid);
 
             Map<String, Object> data = new HashMap<>();
             data.put("id", room.getId().toString());
@@ -135,7 +165,7 @@ public class RoomController {
                 data.put("status", session.getCurrentPhase());
             });
 
-            return ResponseEntity.ok(ApiResponse.success("Room retrieved", data));
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success("Room retrieved", data));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Invalid room ID format"));
@@ -150,12 +180,17 @@ public class RoomController {
      */
     @GetMapping("/{roomId}/players")
     public ResponseEntity<ApiResponse<List<PlayerDTO>>> getRoomPlayers(
-            @PathVariable String roomId) {
+            @PathVariable String roomId, WebRequest request) {
         try {
             UUID roomUuid = UUID.fromString(roomId);
+            String etag = roomService.getPlayersEtag(roomUuid);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+
             List<PlayerDTO> players = roomService.getRoomPlayers(roomUuid);
             
-            return ResponseEntity.ok(ApiResponse.success("Players retrieved", players));
+            return ResponseEntity.ok().eTag(etag).body(ApiResponse.success("Players retrieved", players));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Invalid room ID format"));
@@ -0,0 +1,46 @@
+package com.werewolfkill.game.controller;
+
+import com.werewolfkill.game.dto.ApiResponse;
+import com.werewolfkill.game.stats.UserStats;
+import com.werewolfkill.game.stats.UserStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    /**
+     * GET /api/users/{userId}/stats - Lifetime win/loss totals (zeros if never played)
+     */
+    @GetMapping("/{userId}/stats")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats(@PathVariable String userId) {
+        try {
+            UserStats stats = userStatsService.getStats(UUID.fromString(userId));
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("userId", stats.getUserId().toString());
+            data.put("gamesPlayed", stats.getGamesPlayed());
+            data.put("wins", stats.getWins());
+            data.put("losses", stats.getLosses());
+            data.put("winRate", stats.getGamesPlayed() == 0 ? 0.0 : (double) stats.getWins() / stats.getGamesPlayed());
+            data.put("lastPlayedAt", stats.getLastPlayedAt() != null ? stats.getLastPlayedAt().toString() : null);
+
+            return ResponseEntity.ok(ApiResponse.success("Stats retrieved", data));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid UUID format"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.werewolfkill.game.controller;
+
+import com.werewolfkill.game.dto.ApiResponse;
+import com.werewolfkill.game.websocket.CompactCborCodec;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Publishes the CBOR field dictionary, and which fields carry tag-37 UUIDs, so clients
+ * can decode compact payloads.
+ */
+@RestController
+@RequestMapping("/api/wire-format")
+public class WireFormatController {
+
+    /**
+     * GET /api/wire-format - Field id dictionary for the "cbor" wire format
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getWireFormat() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("format", "cbor");
+        data.put("uuidTag", CompactCborCodec.UUID_TAG);
+        data.put("uuidFields", CompactCborCodec.UUID_FIELDS.stream().sorted().toList());
+        data.put("fields", CompactCborCodec.FIELD_DICTIONARY);
+        return ResponseEntity.ok(ApiResponse.success("Wire format retrieved", data));
+    }
+}
@@ -0,0 +1,226 @@
+package com.werewolfkill.game.engine;
+
+import com.werewolfkill.game.model.enums.GamePhase;
+import com.werewolfkill.game.model.enums.Role;
+
+import java.util.SplittableRandom;
+
+/**
+ * The rules of one game, with no framework, I/O or clock: the live server drives it from
+ * GameService, the simulator drives it from bots. Players are indices 0..n-1.
+ *
+ * The game opens at night 0. At night every living werewolf picks a victim and every living
+ * seer inspects one player; once all have acted, resolveNight kills the werewolves' pick
+ * (most picks, ties to the lowest index). By day every living player votes; resolveDay
+ * eliminates the plurality, or nobody on a tie. Villagers win when no werewolf is left,
+ * werewolves once they are at least as many as everyone else.
+ *
+ * State lives in flat arrays sized once per player count, and deal() resets them, so one
+ * engine can play any number of games without allocating. Not thread-safe.
+ */
+public final class GameEngine {
+
+    public enum Team { WEREWOLVES, VILLAGERS }
+
+    public static final int NONE = -1;
+
+    private final Role[] roles;
+    private final boolean[] alive;
+    // Night: werewolf victim / seer inspection target; day: vote. NONE until the player acts
+    private final int[] choices;
+    // Scratch space for counting choices per target
+    private final int[] tally;
+
+    private GamePhase phase = GamePhase.WAITING;
+    private int dayNumber;
+    private int aliveCount;
+    private int aliveWerewolves;
+    private int pending;
+    private Team winner;
+
+    public GameEngine(int playerCount) {
+        this.roles = new Role[playerCount];
+        this.alive = new boolean[playerCount];
+        this.choices = new int[playerCount];
+        this.tally = new int[playerCount];
+    }
+
+    /** Start a new game: shuffle roles per the distribution and open night 0. */
+    public void deal(RoleDistribution distribution, SplittableRandom random) {
+        distribution.deal(roles, random);
+        aliveCount = roles.length;
+        aliveWerewolves = 0;
+        for (int i = 0; i < roles.length; i++) {
+            alive[i] = true;
+            if (roles[i] == Role.WEREWOLF) aliveWerewolves++;
+        }
+        dayNumber = 0;
+        winner = null;
+        beginNight();
+    }
+
+    public int getPlayerCount() { return roles.length; }
+    public GamePhase getPhase() { return phase; }
+    public int getDayNumber() { return dayNumber; }
+    public Role getRole(int player) { return roles[player]; }
+    public boolean isAlive(int player) { return alive[player]; }
+    public int getAliveCount() { return aliveCount; }
+    public int getAliveWerewolves() { return aliveWerewolves; }
+    public Team getWinner() { return winner; }
+
+    /** What the player has chosen this phase, or NONE. */
+    public int getChoice(int player) { return choices[player]; }
+
+    public void submitKill(int werewolf, int target) {
+        requirePhase(GamePhase.NIGHT);
+        requireAlive(werewolf);
+        requireAlive(target);
+        if (roles[werewolf] != Role.WEREWOLF) {
+            throw new IllegalStateException("Only werewolves can kill");
+        }
+        if (roles[target] == Role.WEREWOLF) {
+            throw new IllegalArgumentException("Werewolves can't kill werewolves");
+        }
+        choose(werewolf, target);
+    }
+
+    /** Inspect a player's role; once per seer per night. */
+    public Role inspect(int seer, int target) {
+        requirePhase(GamePhase.NIGHT);
+        requireAlive(seer);
+        requireAlive(target);
+        if (roles[seer] != Role.SEER) {
+            throw new IllegalStateException("Only seers can inspect");
+        }
+        if (seer == target) {
+            throw new IllegalArgumentException("Seers can't inspect themselves");
+        }
+        if (choices[seer] != NONE) {
+            throw new IllegalStateException("Already inspected tonight");
+        }
+        choose(seer, target);
+        return roles[target];
+    }
+
+    public void submitVote(int voter, int target) {
+        requirePhase(GamePhase.DAY);
+        requireAlive(voter);
+        requireAlive(target);
+        if (voter == target) {
+            throw new IllegalArgumentException("Can't vote for yourself");
+        }
+        choose(voter, target);
+    }
+
+    /** True once everyone who must act this phase has. */
+    public boolean isPhaseComplete() {
+        return pending == 0;
+    }
+
+    /** Kill the werewolves' victim and move to day. Returns the victim, or NONE. */
+    public int resolveNight() {
+        requirePhase(GamePhase.NIGHT);
+        int victim = plurality(Role.WEREWOLF, false);
+        if (victim != NONE) kill(victim);
+        if (!checkWinner()) {
+            beginDay();
+        }
+        return victim;
+    }
+
+    /** Eliminate the most-voted player (nobody on a tie) and move to the next night. */
+    public int resolveDay() {
+        requirePhase(GamePhase.DAY);
+        int eliminated = plurality(null, true);
+        if (eliminated != NONE) kill(eliminated);
+        if (!checkWinner()) {
+            dayNumber++;
+            beginNight();
+        }
+        return eliminated;
+    }
+
+    private void beginNight() {
+        phase = GamePhase.NIGHT;
+        pending = 0;
+        for (int i = 0; i < roles.length; i++) {
+            choices[i] = NONE;
+            if (alive[i] && (roles[i] == Role.WEREWOLF || roles[i] == Role.SEER)) pending++;
+        }
+    }
+
+    private void beginDay() {
+        phase = GamePhase.DAY;
+        pending = aliveCount;
+        for (int i = 0; i < roles.length; i++) {
+            choices[i] = NONE;
+        }
+    }
+
+    private void choose(int player, int target) {
+        if (choices[player] == NONE) pending--;
+        choices[player] = target;
+    }
+
+    /**
+     * The target with the most choices among living players (only those with the given
+     * role, if not null). On a tie: NONE if noneOnTie, else the lowest index.
+     */
+    private int plurality(Role chooserRole, boolean noneOnTie) {
+        int best = NONE;
+        int bestCount = 0;
+        boolean tied = false;
+        for (int i = 0; i < roles.length; i++) {
+            int target = choices[i];
+            if (target == NONE || !alive[i] || (chooserRole != null && roles[i] != chooserRole)) continue;
+            tally[target]++;
+        }
+        for (int target = 0; target < tally.length; target++) {
+            int count = tally[target];
+            tally[target] = 0;
+            if (count == 0) continue;
+            if (count > bestCount) {
+                best = target;
+                bestCount = count;
+                tied = false;
+            } else if (count == bestCount) {
+                tied = true;
+            }
+        }
+        return tied && noneOnTie ? NONE : best;
+    }
+
+    private void kill(int player) {
+        alive[player] = false;
+        aliveCount--;
+        if (roles[player] == Role.WEREWOLF) aliveWerewolves--;
+    }
+
+    private boolean checkWinner() {
+        if (aliveWerewolves == 0) {
+            winner = Team.VILLAGERS;
+        } else if (aliveWerewolves * 2 >= aliveCount) {
+            winner = Team.WEREWOLVES;
+        } else {
+            return false;
+        }
+        phase = GamePhase.GAME_OVER;
+        pending = 0;
+        return true;
+    }
+
+    private void requirePhase(GamePhase expected) {
+        if (phase != expected) {
+            throw new IllegalStateException("Not allowed during " + phase);
+        }
+    }
+
+    private void requireAlive(int player) {
+        if (player < 0 || player >= roles.length) {
+            throw new IllegalArgumentException("No such player");
+        }
+        if (!alive[player]) {
+            throw new IllegalStateException("Player is dead");
+        }
+    }
+}
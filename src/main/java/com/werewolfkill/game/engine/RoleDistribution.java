@@ -0,0 +1,105 @@
+package com.werewolfkill.game.engine;
+
+import com.werewolfkill.game.model.enums.Role;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * How many werewolves and seers a game gets for its player count; everyone else is a
+ * villager. Configured as "minPlayers:werewolves:seers" entries: the entry with the largest
+ * minPlayers not above the player count applies.
+ */
+public final class RoleDistribution {
+
+    public static final String DEFAULT_SPEC = "3:1:0,5:1:1,8:2:1,12:3:1";
+
+    private final int[] minPlayers;
+    private final int[] werewolves;
+    private final int[] seers;
+
+    private RoleDistribution(int[] minPlayers, int[] werewolves, int[] seers) {
+        this.minPlayers = minPlayers;
+        this.werewolves = werewolves;
+        this.seers = seers;
+    }
+
+    public static RoleDistribution parse(String spec) {
+        return parse(List.of(spec.split(",")));
+    }
+
+    public static RoleDistribution parse(List<String> entries) {
+        List<int[]> parsed = new ArrayList<>();
+        for (String entry : entries) {
+            if (entry == null || entry.isBlank()) continue;
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Role distribution must be minPlayers:werewolves:seers, got " + entry);
+            }
+            parsed.add(new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2])});
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Role distribution is empty");
+        }
+        parsed.sort(Comparator.comparingInt(e -> e[0]));
+
+        int[] minPlayers = new int[parsed.size()];
+        int[] werewolves = new int[parsed.size()];
+        int[] seers = new int[parsed.size()];
+        for (int i = 0; i < parsed.size(); i++) {
+            minPlayers[i] = parsed.get(i)[0];
+            werewolves[i] = parsed.get(i)[1];
+            seers[i] = parsed.get(i)[2];
+        }
+        return new RoleDistribution(minPlayers, werewolves, seers);
+    }
+
+    /** The same role counts at every player count (used by the simulator to sweep configurations). */
+    public static RoleDistribution fixed(int werewolves, int seers) {
+        return new RoleDistribution(new int[] {0}, new int[] {werewolves}, new int[] {seers});
+    }
+
+    public int werewolves(int players) {
+        return werewolves[entryFor(players)];
+    }
+
+    public int seers(int players) {
+        return seers[entryFor(players)];
+    }
+
+    /**
+     * Fill roles (length = player count) with a uniformly shuffled deal.
+     */
+    public void deal(Role[] roles, SplittableRandom random) {
+        int players = roles.length;
+        int entry = entryFor(players);
+        int wolves = werewolves[entry];
+        int seerCount = seers[entry];
+        if (wolves < 1 || seerCount < 0 || wolves * 2 >= players || wolves + seerCount > players) {
+            throw new IllegalArgumentException(
+                wolves + " werewolves and " + seerCount + " seers don't make a game of " + players);
+        }
+
+        int i = 0;
+        for (; i < wolves; i++) roles[i] = Role.WEREWOLF;
+        for (; i < wolves + seerCount; i++) roles[i] = Role.SEER;
+        for (; i < players; i++) roles[i] = Role.VILLAGER;
+
+        // Fisher-Yates
+        for (int j = players - 1; j > 0; j--) {
+            int k = random.nextInt(j + 1);
+            Role swap = roles[j];
+            roles[j] = roles[k];
+            roles[k] = swap;
+        }
+    }
+
+    private int entryFor(int players) {
+        for (int i = minPlayers.length - 1; i >= 0; i--) {
+            if (players >= minPlayers[i]) return i;
+        }
+        throw new IllegalArgumentException("No role distribution for " + players + " players");
+    }
+}
@@ -0,0 +1,94 @@
+package com.werewolfkill.game.matchmaking;
+
+import com.werewolfkill.game.admission.AdmissionControl;
+import com.werewolfkill.game.service.WebSocketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Quick-play over STOMP. Clients subscribe to /user/queue/matchmaking, send to
+ * /app/matchmaking/enqueue and, on MATCH_FOUND, join the room as usual.
+ */
+@Controller
+public class MatchmakingController {
+
+    @Autowired
+    private MatchmakingService matchmakingService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @MessageMapping("/matchmaking/enqueue")
+    public void handleEnqueue(Map<String, String> message, StompHeaderAccessor headerAccessor) {
+        String playerIdStr = message.get("playerId");
+        String username = message.get("username");
+        String gameMode = message.getOrDefault("gameMode", "CLASSIC");
+        String webSocketSessionId = headerAccessor.getSessionId();
+
+        if (playerIdStr == null || username == null) {
+            sendError(webSocketSessionId, "playerId and username required");
+            return;
+        }
+
+        // Queued players will be joining a room, so the same load shedding applies
+        AdmissionControl.Decision decision = admissionControl.admitJoin();
+        if (!decision.isAdmitted()) {
+            Map<String, Object> deferred = new HashMap<>();
+            deferred.put("type", "JOIN_DEFERRED");
+            deferred.put("message", decision.getReason());
+            deferred.put("retryAfterMs", decision.getRetryAfterMs());
+            webSocketService.sendToSession(webSocketSessionId, "/queue/errors", deferred);
+            return;
+        }
+
+        int waiting;
+        try {
+            waiting = matchmakingService.enqueue(webSocketSessionId, UUID.fromString(playerIdStr), username, gameMode);
+        } catch (RuntimeException e) {
+            sendError(webSocketSessionId, e.getMessage());
+            return;
+        }
+        if (waiting == 0) {
+            return; // Completed a lobby; MATCH_FOUND is already on its way
+        }
+
+        Map<String, Object> reply = new HashMap<>();
+        reply.put("type", "MATCHMAKING_QUEUED");
+        reply.put("gameMode", gameMode);
+        reply.put("waiting", waiting);
+        webSocketService.sendToSession(webSocketSessionId, MatchmakingService.DESTINATION, reply);
+    }
+
+    @MessageMapping("/matchmaking/cancel")
+    public void handleCancel(StompHeaderAccessor headerAccessor) {
+        String webSocketSessionId = headerAccessor.getSessionId();
+        if (matchmakingService.cancel(webSocketSessionId)) {
+            Map<String, Object> reply = new HashMap<>();
+            reply.put("type", "MATCHMAKING_CANCELLED");
+            webSocketService.sendToSession(webSocketSessionId, MatchmakingService.DESTINATION, reply);
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        matchmakingService.cancel(event.getSessionId());
+    }
+
+    private void sendError(String sessionId, String errorMessage) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("type", "ERROR");
+        error.put("message", errorMessage);
+        webSocketService.sendToSession(sessionId, "/queue/errors", error);
+    }
+}
@@ -0,0 +1,301 @@
+package com.werewolfkill.game.matchmaking;
+
+import com.werewolfkill.game.admission.AdmissionControl;
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.service.RoomService;
+import com.werewolfkill.game.service.WebSocketService;
+import com.werewolfkill.game.session.SessionManager;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quick-play matchmaking.
+ *
+ * Waiting players sit in one insertion-ordered queue per game mode. An enqueue is O(1);
+ * the enqueue that completes a lobby takes the oldest lobby-size tickets, creates a private
+ * room for them, reserves each player's seat and pushes each a MATCH_FOUND with the room to
+ * join on /user/queue/matchmaking.
+ * A periodic sweep starts a smaller lobby once the oldest ticket has waited
+ * matchmaking.fill-wait-ms, and drops tickets that reach matchmaking.max-wait-ms.
+ */
+@Service
+public class MatchmakingService {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchmakingService.class);
+
+    public static final String DESTINATION = "/queue/matchmaking";
+
+    @Value("${matchmaking.game-modes:CLASSIC}")
+    private String[] gameModes;
+
+    @Value("${matchmaking.lobby-size:8}")
+    private int lobbySize;
+
+    @Value("${matchmaking.min-players:5}")
+    private int minPlayers;
+
+    @Value("${matchmaking.fill-wait-ms:30000}")
+    private long fillWaitMs;
+
+    @Value("${matchmaking.max-wait-ms:120000}")
+    private long maxWaitMs;
+
+    @Value("${room.reservation-ttl-ms:15000}")
+    private long reservationTtlMs;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    private Map<String, ModeQueue> queues;
+
+    // WebSocket session id -> its ticket, for cancel/disconnect without scanning the queues
+    private final ConcurrentHashMap<String, Ticket> ticketsBySession = new ConcurrentHashMap<>();
+
+    public static class Ticket {
+        private final String sessionId;
+        private final UUID playerId;
+        private final String username;
+        private final String gameMode;
+        private final long enqueuedAt = System.currentTimeMillis();
+
+        Ticket(String sessionId, UUID playerId, String username, String gameMode) {
+            this.sessionId = sessionId;
+            this.playerId = playerId;
+            this.username = username;
+            this.gameMode = gameMode;
+        }
+
+        public String getSessionId() { return sessionId; }
+        public UUID getPlayerId() { return playerId; }
+        public String getUsername() { return username; }
+        public String getGameMode() { return gameMode; }
+        public long getEnqueuedAt() { return enqueuedAt; }
+    }
+
+    /**
+     * Tickets for one game mode, oldest first. Keyed by player so a second tab replaces
+     * the first ticket instead of taking two seats.
+     */
+    private static class ModeQueue {
+        private LinkedHashMap<UUID, Ticket> waiting = new LinkedHashMap<>();
+        private long deferredUntil;
+
+        synchronized Ticket put(Ticket ticket) {
+            return waiting.put(ticket.getPlayerId(), ticket);
+        }
+
+        synchronized boolean remove(Ticket ticket) {
+            return waiting.remove(ticket.getPlayerId(), ticket);
+        }
+
+        /** The oldest count tickets, or null if fewer are waiting or lobbies are on hold. */
+        synchronized List<Ticket> take(int count, long now) {
+            if (waiting.size() < count || now < deferredUntil) {
+                return null;
+            }
+            List<Ticket> lobby = new ArrayList<>(count);
+            Iterator<Ticket> it = waiting.values().iterator();
+            while (lobby.size() < count) {
+                lobby.add(it.next());
+                it.remove();
+            }
+            return lobby;
+        }
+
+        /** Put a lobby that couldn't be started back at the head and hold off until the given time. */
+        synchronized void restore(List<Ticket> lobby, long holdUntil) {
+            LinkedHashMap<UUID, Ticket> restored = new LinkedHashMap<>();
+            for (Ticket ticket : lobby) {
+                restored.put(ticket.getPlayerId(), ticket);
+            }
+            // Anyone who re-queued meanwhile keeps the newer ticket
+            waiting.forEach(restored::put);
+            waiting = restored;
+            deferredUntil = holdUntil;
+        }
+
+        synchronized Ticket oldest() {
+            return waiting.isEmpty() ? null : waiting.values().iterator().next();
+        }
+
+        synchronized List<Ticket> expire(long cutoff) {
+            List<Ticket> expired = new ArrayList<>();
+            Iterator<Ticket> it = waiting.values().iterator();
+            while (it.hasNext()) {
+                Ticket ticket = it.next();
+                if (ticket.getEnqueuedAt() > cutoff) break;
+                expired.add(ticket);
+                it.remove();
+            }
+            return expired;
+        }
+
+        synchronized int size() {
+            return waiting.size();
+        }
+    }
+
+    @PostConstruct
+    void createQueues() {
+        Map<String, ModeQueue> byMode = new HashMap<>();
+        for (String mode : gameModes) {
+            byMode.put(mode.trim(), new ModeQueue());
+        }
+        queues = Map.copyOf(byMode);
+    }
+
+    /**
+     * Queue a player for a game mode and start a lobby if this fills one.
+     * Returns the number of players now waiting for that mode, or 0 if this player was matched.
+     */
+    public int enqueue(String sessionId, UUID playerId, String username, String gameMode) {
+        ModeQueue queue = queues.get(gameMode);
+        if (queue == null) {
+            throw new RuntimeException("Unknown game mode: " + gameMode);
+        }
+
+        cancel(sessionId);
+        Ticket ticket = new Ticket(sessionId, playerId, username, gameMode);
+        ticketsBySession.put(sessionId, ticket);
+        Ticket replaced = queue.put(ticket);
+        if (replaced != null) {
+            ticketsBySession.remove(replaced.getSessionId(), replaced);
+        }
+
+        List<Ticket> lobby = queue.take(lobbySize, System.currentTimeMillis());
+        if (lobby != null) {
+            startLobby(queue, gameMode, lobby);
+            if (!ticketsBySession.containsKey(sessionId)) {
+                return 0;
+            }
+        }
+        return queue.size();
+    }
+
+    /**
+     * Leave the queue (explicit cancel or disconnect). Returns false if the session wasn't queued.
+     */
+    public boolean cancel(String sessionId) {
+        Ticket ticket = ticketsBySession.remove(sessionId);
+        if (ticket == null) {
+            return false;
+        }
+        boolean removed = queues.get(ticket.getGameMode()).remove(ticket);
+        if (removed) {
+            gameMetrics.recordMatchmaking(ticket.getGameMode(), "cancelled", ticket.getEnqueuedAt());
+        }
+        return removed;
+    }
+
+    public int getWaitingCount() {
+        int total = 0;
+        for (ModeQueue queue : queues.values()) {
+            total += queue.size();
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${matchmaking.sweep-interval-ms:1000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, ModeQueue> entry : queues.entrySet()) {
+            String gameMode = entry.getKey();
+            ModeQueue queue = entry.getValue();
+
+            for (Ticket ticket : queue.expire(now - maxWaitMs)) {
+                ticketsBySession.remove(ticket.getSessionId(), ticket);
+                gameMetrics.recordMatchmaking(gameMode, "timeout", ticket.getEnqueuedAt());
+                Map<String, Object> message = new HashMap<>();
+                message.put("type", "MATCHMAKING_TIMEOUT");
+                message.put("gameMode", gameMode);
+                webSocketService.sendToSession(ticket.getSessionId(), DESTINATION, message);
+            }
+
+            // Every full lobby deferred by admission control, then a short lobby for long waiters
+            boolean started = true;
+            List<Ticket> lobby;
+            while (started && (lobby = queue.take(lobbySize, now)) != null) {
+                started = startLobby(queue, gameMode, lobby);
+            }
+            if (!started) {
+                continue;
+            }
+
+            Ticket oldest = queue.oldest();
+            if (oldest != null && now - oldest.getEnqueuedAt() >= fillWaitMs) {
+                lobby = queue.take(Math.max(minPlayers, 1), now);
+                if (lobby != null) {
+                    // Pull in everyone else who is waiting, up to a full table
+                    List<Ticket> more = queue.take(Math.min(queue.size(), lobbySize - lobby.size()), now);
+                    if (more != null) lobby.addAll(more);
+                    startLobby(queue, gameMode, lobby);
+                }
+            }
+        }
+    }
+
+    /** Returns false if the lobby was put back in the queue instead. */
+    private boolean startLobby(ModeQueue queue, String gameMode, List<Ticket> lobby) {
+        AdmissionControl.Decision decision = admissionControl.admitRoomCreation();
+        if (!decision.isAdmitted()) {
+            queue.restore(lobby, System.currentTimeMillis() + decision.getRetryAfterMs());
+            return false;
+        }
+
+        Room room;
+        try {
+            String name = "Quick Play " + gameMode + " " + UUID.randomUUID().toString().substring(0, 8);
+            room = roomService.createRoom(name, lobby.get(0).getPlayerId(), lobbySize, gameMode, false);
+        } catch (RuntimeException e) {
+            log.warn("Matchmaking could not create a {} room: {}", gameMode, e.getMessage());
+            queue.restore(lobby, System.currentTimeMillis() + fillWaitMs);
+            return false;
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "MATCH_FOUND");
+        message.put("roomId", room.getId().toString());
+        message.put("roomName", room.getName());
+        message.put("gameMode", gameMode);
+        message.put("players", lobby.size());
+
+        // Everyone gets the same payload, so it is encoded once. Seats are held until the
+        // WebSocket joins arrive, so nobody else can fill the table first
+        Map<String, Object> payloads = new HashMap<>();
+        for (Ticket ticket : lobby) {
+            sessionManager.reserveSeat(room.getId(), room.getName(), ticket.getPlayerId(), lobbySize, reservationTtlMs);
+            ticketsBySession.remove(ticket.getSessionId(), ticket);
+            gameMetrics.recordMatchmaking(gameMode, "matched", ticket.getEnqueuedAt());
+            payloads.put(ticket.getSessionId(), message);
+        }
+        webSocketService.sendPrivateMessagesToSessions(DESTINATION, payloads);
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package com.werewolfkill.game.metrics;
+
+import com.werewolfkill.game.admission.AdmissionControl;
+import com.werewolfkill.game.matchmaking.MatchmakingService;
+import com.werewolfkill.game.pool.RoomPool;
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.websocket.SlowConsumerMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Central place for the game's Micrometer meters, scraped at /actuator/prometheus (admin only).
+ */
+@Component
+public class GameMetrics {
+
+    private static final Set<String> CHANNEL_EXECUTORS = Set.of(
+        "clientInboundChannelExecutor",
+        "clientOutboundChannelExecutor",
+        "brokerChannelExecutor"
+    );
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private Timer roomStateBroadcastTimer;
+    private Counter staleEvictions;
+    private Counter trafficFramesRecorded;
+    private Counter trafficFramesDropped;
+    private Counter roomsArchived;
+    private Timer roomReaperRuns;
+    private DistributionSummary roomReaperBatches;
+
+    private final ConcurrentHashMap<String, Timer> inboundTimers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DistributionSummary> inboundSizes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> rateLimited = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> admissionRejected = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Timer> matchmakingWaits = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> roomPoolClaims = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> chatMessages = new ConcurrentHashMap<>();
+    private DistributionSummary chatBatchSizes;
+    private final ConcurrentHashMap<String, Counter> usernameChecks = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("werewolf.rooms.active", sessionManager, SessionManager::getActiveRoomCount)
+            .description("Rooms with a live session")
+            .register(registry);
+        Gauge.builder("werewolf.players.active", sessionManager, SessionManager::getActivePlayerCount)
+            .description("Players connected to a room session")
+            .register(registry);
+
+        roomStateBroadcastTimer = Timer.builder("werewolf.broadcast.room_state")
+            .description("Time to build and send a ROOM_STATE_UPDATE")
+            .publishPercentileHistogram()
+            .register(registry);
+        staleEvictions = Counter.builder("werewolf.heartbeat.stale_evictions")
+            .description("Players removed by the heartbeat monitor")
+            .register(registry);
+        trafficFramesRecorded = Counter.builder("werewolf.recording.frames")
+            .tag("result", "written")
+            .description("Inbound frames handled by the traffic recorder")
+            .register(registry);
+        trafficFramesDropped = Counter.builder("werewolf.recording.frames")
+            .tag("result", "dropped")
+            .description("Inbound frames handled by the traffic recorder")
+            .register(registry);
+        roomsArchived = Counter.builder("werewolf.reaper.rooms.archived")
+            .description("Idle rooms moved to rooms_archive")
+            .register(registry);
+        roomReaperRuns = Timer.builder("werewolf.reaper.run")
+            .description("Time spent per room reaper run")
+            .register(registry);
+        roomReaperBatches = DistributionSummary.builder("werewolf.reaper.batches")
+            .description("Archive batches executed per room reaper run")
+            .register(registry);
+        chatBatchSizes = DistributionSummary.builder("werewolf.chat.batch.messages")
+            .description("Chat messages carried per CHAT_BATCH frame")
+            .register(registry);
+    }
+
+    /**
+     * Channel executors and the slow-consumer monitor are created with the
+     * WebSocket infrastructure, so their gauges are bound once the context is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void registerChannelMeters() {
+        for (String name : CHANNEL_EXECUTORS) {
+            if (!applicationContext.containsBean(name)) continue;
+            ThreadPoolTaskExecutor executor = applicationContext.getBean(name, ThreadPoolTaskExecutor.class);
+            Gauge.builder("werewolf.channel.queue.depth", executor,
+                    e -> e.getThreadPoolExecutor().getQueue().size())
+                .tag("executor", name)
+                .description("Messages waiting for a channel executor thread")
+                .register(registry);
+            Gauge.builder("werewolf.channel.active.threads", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("executor", name)
+                .register(registry);
+        }
+
+        SlowConsumerMonitor slowConsumerMonitor = applicationContext.getBean(SlowConsumerMonitor.class);
+        Gauge.builder("werewolf.websocket.lagging_sessions", slowConsumerMonitor,
+                SlowConsumerMonitor::getLaggingSessionCount)
+            .description("Sessions currently receiving conflated room state")
+            .register(registry);
+
+        AdmissionControl admissionControl = applicationContext.getBean(AdmissionControl.class);
+        Gauge.builder("werewolf.admission.state", admissionControl, a -> a.getState().ordinal())
+            .description("0 accepting, 1 degraded (no new rooms), 2 full (no new players)")
+            .register(registry);
+
+        MatchmakingService matchmakingService = applicationContext.getBean(MatchmakingService.class);
+        Gauge.builder("werewolf.matchmaking.waiting", matchmakingService, MatchmakingService::getWaitingCount)
+            .description("Players waiting in the quick-play queues")
+            .register(registry);
+
+        RoomPool roomPool = applicationContext.getBean(RoomPool.class);
+        Gauge.builder("werewolf.roompool.available", roomPool, RoomPool::getAvailableCount)
+            .description("Pre-created rooms waiting to be claimed")
+            .register(registry);
+    }
+
+    public Timer getRoomStateBroadcastTimer() {
+        return roomStateBroadcastTimer;
+    }
+
+    public void recordStaleEviction() {
+        staleEvictions.increment();
+    }
+
+    public void recordTrafficFrame(boolean written) {
+        (written ? trafficFramesRecorded : trafficFramesDropped).increment();
+    }
+
+    public void recordRateLimited(String scope, String rule) {
+        rateLimited.computeIfAbsent(scope + " " + rule, key -> Counter.builder("werewolf.ratelimit.rejected")
+                .tag("scope", scope)
+                .tag("rule", rule)
+                .description("Frames or requests rejected by a rate limit")
+                .register(registry))
+            .increment();
+    }
+
+    public void recordAdmissionRejected(String operation) {
+        admissionRejected.computeIfAbsent(operation, op -> Counter.builder("werewolf.admission.rejected")
+                .tag("operation", op)
+                .description("Joins and room creations refused by admission control")
+                .register(registry))
+            .increment();
+    }
+
+    /**
+     * Time a ticket spent queued, tagged by how it left the queue (matched, cancelled, timeout).
+     */
+    public void recordMatchmaking(String gameMode, String outcome, long enqueuedAtMillis) {
+        matchmakingWaits.computeIfAbsent(gameMode + " " + outcome, key -> Timer.builder("werewolf.matchmaking.wait")
+                .tag("mode", gameMode)
+                .tag("outcome", outcome)
+                .description("Time players spent in the quick-play queue")
+                .register(registry))
+            .record(System.currentTimeMillis() - enqueuedAtMillis, java.util.concurrent.TimeUnit.MILLISECONDS);
+    }
+
+    public void recordRoomReaperRun(int archived, int batches, long runNanos) {
+        roomsArchived.increment(archived);
+        roomReaperBatches.record(batches);
+        roomReaperRuns.record(runNanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRoomPoolClaim(String gameMode, boolean hit) {
+        roomPoolClaims.computeIfAbsent(gameMode + " " + hit, key -> Counter.builder("werewolf.roompool.claims")
+                .tag("mode", gameMode)
+                .tag("result", hit ? "hit" : "miss")
+                .description("Room creations served from (hit) or past (miss) the pre-warmed pool")
+                .register(registry))
+            .increment();
+    }
+
+    /** result: sent, rejected (not a member / bad text) */
+    public void recordChatMessage(String result) {
+        chatMessages.computeIfAbsent(result, r -> Counter.builder("werewolf.chat.messages")
+                .tag("result", r)
+                .description("Chat messages accepted for fan-out or rejected by the chat handler")
+                .register(registry))
+            .increment();
+    }
+
+    public void recordChatBatch(int messages) {
+        chatBatchSizes.record(messages);
+    }
+
+    public void recordUsernameCheck(String answeredBy) {
+        usernameChecks.computeIfAbsent(answeredBy, a -> Counter.builder("werewolf.username.checks")
+                .tag("answered_by", a)
+                .description("Username availability checks answered by the Bloom filter or the database")
+                .register(registry))
+            .increment();
+    }
+
+    public void recordInbound(String destination, int payloadBytes, long handleNanos) {
+        inboundSizes.computeIfAbsent(destination, d -> DistributionSummary.builder("werewolf.inbound.message.size")
+                .baseUnit("bytes")
+                .tag("destination", d)
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(payloadBytes);
+        inboundTimers.computeIfAbsent(destination, d -> Timer.builder("werewolf.inbound.message.handling")
+                .tag("destination", d)
+                .publishPercentileHistogram()
+                .register(registry))
+            .record(handleNanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.werewolfkill.game.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Times inbound STOMP frames on the channel executor and records their size,
+ * tagged by a bounded destination kind (join, leave, heartbeat, ...).
+ */
+@Component
+public class InboundMetricsInterceptor implements ExecutorChannelInterceptor {
+
+    private static final Set<String> ROOM_ACTIONS = Set.of(
+        "join", "leave", "heartbeat", "resume", "vote", "action", "chat"
+    );
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    private final ThreadLocal<Long> handleStart = new ThreadLocal<>();
+
+    // Every inbound frame is dispatched to the broker, user-destination and @MessageMapping
+    // handlers; only the latter is measured so each frame is counted once.
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        if (handler instanceof SimpAnnotationMethodMessageHandler) {
+            handleStart.set(System.nanoTime());
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (!(handler instanceof SimpAnnotationMethodMessageHandler)) return;
+        Long start = handleStart.get();
+        if (start == null) return;
+        handleStart.remove();
+
+        int size = message.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+        gameMetrics.recordInbound(destinationKind(message), size, System.nanoTime() - start);
+    }
+
+    static String destinationKind(Message<?> message) {
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        if (type != SimpMessageType.MESSAGE) {
+            return type != null ? type.name().toLowerCase() : "other";
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) return "other";
+
+        String action = destination.substring(destination.lastIndexOf('/') + 1);
+        return ROOM_ACTIONS.contains(action) ? action : "other";
+    }
+}
@@ -0,0 +1,71 @@
+package com.werewolfkill.game.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs how long the instance took from JVM start to accepting connections, i.e. how long
+ * clients of failed-over rooms wait on a restart.
+ *
+ * The -Paot build runs the app once with startup.report-file and startup.exit-when-ready
+ * set, so every build records its startup time in target/startup-report.json.
+ */
+@Component
+public class StartupReport {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupReport.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${startup.report-file:}")
+    private String reportFile;
+
+    @Value("${startup.exit-when-ready:false}")
+    private boolean exitWhenReady;
+
+    // Last, so every other ready listener (pool adoption, lobby index) counts towards startup
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    void ready(ApplicationReadyEvent event) {
+        List<String> jvmArgs = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        long jvmToReadyMs = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jvmStartToReadyMs", jvmToReadyMs);
+        report.put("contextStartToReadyMs", event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : null);
+        report.put("aot", AotDetector.useGeneratedArtifacts());
+        report.put("cds", jvmArgs.stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")));
+        report.put("nativeImage", System.getProperty("org.graalvm.nativeimage.imagecode") != null);
+
+        log.info("Ready {} ms after JVM start {}", jvmToReadyMs, report);
+
+        if (!reportFile.isBlank()) {
+            try {
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(reportFile), report);
+            } catch (IOException e) {
+                log.warn("Could not write startup report to {}: {}", reportFile, e.getMessage());
+            }
+        }
+        if (exitWhenReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
@@ -32,4 +32,8 @@ public class Room {
     
     private String gameMode = "CLASSIC";
     private Boolean isPublic = true;
+
+    // Pre-created by RoomPool and not yet handed out; hidden from the lobby
+    @Column(nullable = false)
+    private Boolean pooled = false;
 }
\ No newline at end of file
@@ -0,0 +1,300 @@
+package com.werewolfkill.game.pool;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.session.SessionManager;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rooms created ahead of demand, so a burst of room creations doesn't turn into a burst
+ * of inserts against the unique name index.
+ *
+ * Each pool (game mode + max players) keeps unclaimed rows with pooled = true and a warm
+ * RoomSession for each. A claim is one primary-key UPDATE that renames the row and hands
+ * it out. A background thread refills with multi-row inserts, sized from the recent
+ * claim rate, and deletes surplus rooms once demand drops.
+ */
+@Component
+public class RoomPool {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomPool.class);
+
+    // Pooled rows need a creator; the real one is filled in on claim
+    private static final UUID NO_CREATOR = new UUID(0, 0);
+    private static final String NAME_PREFIX = "pool-";
+
+    @Value("${room-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${room-pool.pools:CLASSIC:8:10:200}")
+    private List<String> poolSpecs;
+
+    @Value("${room-pool.batch-size:50}")
+    private int batchSize;
+
+    @Value("${room-pool.refill-interval-ms:1000}")
+    private long refillIntervalMs;
+
+    @Value("${room-pool.demand-horizon-s:60}")
+    private double demandHorizonSeconds;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    private final Map<String, Pool> pools = new HashMap<>();
+    private final AtomicBoolean refillRequested = new AtomicBoolean();
+    private ScheduledExecutorService refiller;
+
+    private static class Pool {
+        final String gameMode;
+        final int maxPlayers;
+        final int minSize;
+        final int maxSize;
+        final ConcurrentLinkedQueue<UUID> available = new ConcurrentLinkedQueue<>();
+        final AtomicInteger size = new AtomicInteger();
+        final AtomicLong claims = new AtomicLong();
+        // Claims per second, smoothed; only touched by the refill thread
+        double claimRate;
+        long lastClaims;
+        volatile int target;
+
+        Pool(String gameMode, int maxPlayers, int minSize, int maxSize) {
+            this.gameMode = gameMode;
+            this.maxPlayers = maxPlayers;
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.target = minSize;
+        }
+
+        void offer(UUID roomId) {
+            available.offer(roomId);
+            size.incrementAndGet();
+        }
+
+        UUID poll() {
+            UUID roomId = available.poll();
+            if (roomId != null) size.decrementAndGet();
+            return roomId;
+        }
+    }
+
+    /**
+     * Schema (Flyway or Hibernate) is in place once the context is ready; take over rooms
+     * pooled by a previous run, then start refilling.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) return;
+
+        for (String spec : poolSpecs) {
+            if (spec == null || spec.isBlank()) continue;
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Room pool must be gameMode:maxPlayers:minSize:maxSize, got " + spec);
+            }
+            Pool pool = new Pool(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+            pools.put(key(pool.gameMode, pool.maxPlayers), pool);
+        }
+
+        List<UUID> orphaned = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, name, game_mode, max_players FROM rooms WHERE pooled", rs -> {
+            UUID roomId = rs.getObject("id", UUID.class);
+            Pool pool = pools.get(key(rs.getString("game_mode"), rs.getInt("max_players")));
+            if (pool == null) {
+                orphaned.add(roomId);
+                return;
+            }
+            sessionManager.prewarmSession(roomId, rs.getString("name"));
+            pool.offer(roomId);
+        });
+        delete(orphaned);
+
+        refiller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "room-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refiller.scheduleWithFixedDelay(this::tick, 0, refillIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (refiller != null) refiller.shutdownNow();
+    }
+
+    /**
+     * Hand out a pooled room under the caller's name and creator, within the caller's
+     * transaction. Returns null if there's no matching pool or it ran dry. If that
+     * transaction rolls back, the room goes back into the pool.
+     */
+    public Room claim(String gameMode, int maxPlayers, String name, UUID createdBy, boolean isPublic) {
+        Pool pool = pools.get(key(gameMode, maxPlayers));
+        if (pool == null) {
+            return null;
+        }
+        pool.claims.incrementAndGet();
+
+        UUID roomId = pool.poll();
+        if (roomId == null) {
+            gameMetrics.recordRoomPoolClaim(gameMode, false);
+            requestRefill();
+            return null;
+        }
+
+        Instant now = Instant.now();
+        int updated;
+        try {
+            updated = jdbcTemplate.update(
+                "UPDATE rooms SET pooled = FALSE, name = ?, created_by = ?, created_at = ?, is_public = ? WHERE id = ? AND pooled",
+                name, createdBy, Timestamp.from(now), isPublic, roomId);
+        } catch (RuntimeException e) {
+            // e.g. duplicate name: the row is still pooled once the transaction rolls back
+            pool.offer(roomId);
+            throw e;
+        }
+        if (updated == 0) {
+            sessionManager.discardWarmSession(roomId);
+            gameMetrics.recordRoomPoolClaim(gameMode, false);
+            return null;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // The rename is undone with the caller's transaction, so the row is pooled again
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        pool.offer(roomId);
+                    }
+                }
+            });
+        }
+
+        gameMetrics.recordRoomPoolClaim(gameMode, true);
+        if (pool.size.get() < pool.target / 2) {
+            requestRefill();
+        }
+        return new Room(roomId, name, createdBy, maxPlayers, now, gameMode, isPublic, false);
+    }
+
+    public int getAvailableCount() {
+        int total = 0;
+        for (Pool pool : pools.values()) {
+            total += pool.size.get();
+        }
+        return total;
+    }
+
+    /** Run a refill pass now instead of waiting for the next tick; collapses repeated requests. */
+    private void requestRefill() {
+        if (refiller != null && refillRequested.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                refillRequested.set(false);
+                maintain();
+            });
+        }
+    }
+
+    private void tick() {
+        double alpha = 0.2;
+        double intervalSeconds = refillIntervalMs / 1000.0;
+        for (Pool pool : pools.values()) {
+            long claims = pool.claims.get();
+            double rate = (claims - pool.lastClaims) / intervalSeconds;
+            pool.lastClaims = claims;
+            pool.claimRate = alpha * rate + (1 - alpha) * pool.claimRate;
+            int wanted = (int) Math.ceil(pool.claimRate * demandHorizonSeconds);
+            pool.target = Math.max(pool.minSize, Math.min(pool.maxSize, wanted));
+        }
+        maintain();
+    }
+
+    private void maintain() {
+        for (Pool pool : pools.values()) {
+            try {
+                int missing = pool.target - pool.size.get();
+                while (missing > 0) {
+                    int count = Math.min(missing, batchSize);
+                    insert(pool, count);
+                    missing -= count;
+                }
+                // Shrink in small steps, and only once well above target, so a lull doesn't thrash
+                int surplus = pool.size.get() - pool.target;
+                if (surplus > batchSize) {
+                    List<UUID> released = new ArrayList<>();
+                    for (int i = 0; i < batchSize; i++) {
+                        UUID roomId = pool.poll();
+                        if (roomId == null) break;
+                        released.add(roomId);
+                    }
+                    delete(released);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Room pool {}/{} refill failed: {}", pool.gameMode, pool.maxPlayers, e.getMessage());
+            }
+        }
+    }
+
+    private void insert(Pool pool, int count) {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO rooms (id, name, created_by, max_players, created_at, game_mode, is_public, pooled) VALUES ");
+        List<Object> args = new ArrayList<>(count * 6);
+        List<UUID> roomIds = new ArrayList<>(count);
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < count; i++) {
+            UUID roomId = UUID.randomUUID();
+            roomIds.add(roomId);
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, TRUE, TRUE)");
+            Collections.addAll(args, roomId, NAME_PREFIX + roomId, NO_CREATOR, pool.maxPlayers, now, pool.gameMode);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+
+        for (UUID roomId : roomIds) {
+            sessionManager.prewarmSession(roomId, NAME_PREFIX + roomId);
+            pool.offer(roomId);
+        }
+    }
+
+    private void delete(List<UUID> roomIds) {
+        if (roomIds.isEmpty()) return;
+        String placeholders = String.join(", ", Collections.nCopies(roomIds.size(), "?"));
+        jdbcTemplate.update("DELETE FROM rooms WHERE pooled AND id IN (" + placeholders + ")", roomIds.toArray());
+        roomIds.forEach(sessionManager::discardWarmSession);
+    }
+
+    private static String key(String gameMode, int maxPlayers) {
+        return gameMode + ":" + maxPlayers;
+    }
+}
@@ -0,0 +1,134 @@
+package com.werewolfkill.game.pool;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.service.RoomService;
+import com.werewolfkill.game.session.RoomSessionClosedEvent;
+import com.werewolfkill.game.session.SessionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves idle rooms to rooms_archive so the rooms table (and every lobby query) tracks
+ * rooms in use rather than every room ever created.
+ *
+ * A room is idle once it is older than room-reaper.idle-ttl-s, has no live session, and
+ * its last one closed at least that long ago. Session closes are stamped in
+ * rooms.last_active_at, so a restart doesn't reset anyone's idle time. Each batch is one set-based DELETE ... RETURNING feeding an
+ * INSERT; a run stops after room-reaper.max-batches so its work stays bounded.
+ */
+@Component
+public class RoomReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomReaper.class);
+
+    private static final String MARK_ACTIVE = "UPDATE rooms SET last_active_at = ? WHERE id = ?";
+
+    // Postgres data-modifying CTE: the delete and the archive insert happen in one statement
+    private static final String ARCHIVE_BATCH = """
+        WITH moved AS (
+            DELETE FROM rooms WHERE id IN (
+                SELECT id FROM rooms
+                WHERE NOT pooled AND created_at < ? AND (last_active_at IS NULL OR last_active_at < ?)
+                    AND id <> ALL (?)
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, name, created_by, max_players, created_at, game_mode, is_public, last_active_at),
+        archived AS (
+            INSERT INTO rooms_archive (id, name, created_by, max_players, created_at, game_mode, is_public, last_active_at)
+            SELECT id, name, created_by, max_players, created_at, game_mode, is_public, last_active_at FROM moved
+            RETURNING id)
+        SELECT id FROM archived
+        """;
+
+    @Value("${room-reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${room-reaper.idle-ttl-s:21600}")
+    private long idleTtlSeconds;
+
+    @Value("${room-reaper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${room-reaper.max-batches:10}")
+    private int maxBatches;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Scheduled(fixedDelayString = "${room-reaper.interval-ms:60000}",
+               initialDelayString = "${room-reaper.interval-ms:60000}")
+    public void reap() {
+        if (!enabled) return;
+
+        long started = System.nanoTime();
+        long now = System.currentTimeMillis();
+        long cutoff = now - idleTtlSeconds * 1000;
+
+        // Rooms in use right now; everything else is judged by its last_active_at
+        UUID[] live = sessionManager.getAllSessions().keySet().toArray(new UUID[0]);
+
+        int archived = 0;
+        int batches = 0;
+        try {
+            while (batches < maxBatches) {
+                List<UUID> moved = jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(ARCHIVE_BATCH);
+                    Array liveArray = con.createArrayOf("uuid", live);
+                    ps.setTimestamp(1, new Timestamp(cutoff));
+                    ps.setTimestamp(2, new Timestamp(cutoff));
+                    ps.setArray(3, liveArray);
+                    ps.setInt(4, batchSize);
+                    return ps;
+                }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+                batches++;
+                archived += moved.size();
+                if (!moved.isEmpty()) {
+                    roomService.roomsArchived(moved);
+                }
+                if (moved.size() < batchSize) break;
+            }
+        } catch (RuntimeException e) {
+            log.error("Room reaper failed after {} rooms", archived, e);
+        }
+
+        gameMetrics.recordRoomReaperRun(archived, batches, System.nanoTime() - started);
+        if (archived > 0) {
+            log.info("Archived {} idle rooms in {} batches", archived, batches);
+        }
+    }
+
+    /**
+     * The room's idle time starts now. Runs on the thread that closed the session; a failed
+     * stamp only means the room can be archived early, so it is logged and dropped.
+     */
+    @EventListener
+    public void onSessionClosed(RoomSessionClosedEvent event) {
+        try {
+            jdbcTemplate.update(MARK_ACTIVE, new Timestamp(event.getClosedAt()), event.getRoomId());
+        } catch (RuntimeException e) {
+            log.warn("Could not record last activity for room {}: {}", event.getRoomId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.werewolfkill.game.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.werewolfkill.game.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-IP limits on /api/auth/** (login and registration hash passwords with BCrypt, so
+ * they are the cheapest way to burn CPU). Over the limit: 429 with Retry-After. The
+ * address is the forwarded client's behind a trusted proxy (server.forward-headers-strategy).
+ */
+@Component
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        long wait = rateLimiter.tryAcquire(RateLimiter.Scope.AUTH, request.getRemoteAddr(), request.getRequestURI());
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(TimeUnit.NANOSECONDS.toSeconds(wait) + 1));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, try again later"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,65 @@
+package com.werewolfkill.game.ratelimit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One "pattern:permitsPerSecond:burst" entry. Patterns are destinations or request paths
+ * where '*' matches one path segment and a trailing '**' matches the rest.
+ */
+public class RateLimitRule {
+
+    private final String pattern;
+    private final double permitsPerSecond;
+    private final int burst;
+
+    public RateLimitRule(String pattern, double permitsPerSecond, int burst) {
+        this.pattern = pattern;
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    public String getPattern() { return pattern; }
+    public double getPermitsPerSecond() { return permitsPerSecond; }
+    public int getBurst() { return burst; }
+
+    public TokenBucket newBucket(long nowNanos) {
+        return new TokenBucket(permitsPerSecond, burst, nowNanos);
+    }
+
+    public static List<RateLimitRule> parse(List<String> specs) {
+        List<RateLimitRule> rules = new ArrayList<>();
+        for (String spec : specs) {
+            if (spec == null || spec.isBlank()) continue;
+            String[] parts = spec.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Rate limit rule must be pattern:permitsPerSecond:burst, got " + spec);
+            }
+            rules.add(new RateLimitRule(parts[0], Double.parseDouble(parts[1]), Integer.parseInt(parts[2])));
+        }
+        return rules;
+    }
+
+    // Walks both strings without allocating; runs for every inbound frame
+    public boolean matches(String path) {
+        int p = 0;
+        int s = 0;
+        while (p < pattern.length()) {
+            char c = pattern.charAt(p);
+            if (c == '*') {
+                if (p + 1 < pattern.length() && pattern.charAt(p + 1) == '*') {
+                    return true;
+                }
+                while (s < path.length() && path.charAt(s) != '/') s++;
+                p++;
+                continue;
+            }
+            if (s >= path.length() || path.charAt(s) != c) {
+                return false;
+            }
+            p++;
+            s++;
+        }
+        return s == path.length();
+    }
+}
@@ -0,0 +1,99 @@
+package com.werewolfkill.game.ratelimit;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keyed token buckets for the three limiting scopes: STOMP frames per connection and per
+ * client IP, and /api/auth/** requests per client IP. The first rule whose pattern matches
+ * decides; paths no rule matches are not limited.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Scope { SESSION, IP, AUTH }
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.session-rules:/app/room/*/join:1:5,/app/room/*/chat:2:10,/app/matchmaking/*:1:5,/app/room/*/resume:1:5,/app/room/*/leave:1:5,/app/room/*/heartbeat:1:3,/app/**:20:40}")
+    private List<String> sessionRuleSpecs;
+
+    @Value("${ratelimit.ip-rules:/app/room/*/join:10:50,/app/**:200:400}")
+    private List<String> ipRuleSpecs;
+
+    @Value("${ratelimit.auth-rules:/api/auth/login:0.5:10,/api/auth/register:0.1:5,/api/auth/username-available:5:20,/api/auth/**:2:20}")
+    private List<String> authRuleSpecs;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    private final Map<Scope, List<RateLimitRule>> rules = new ConcurrentHashMap<>();
+    private final Map<Scope, ConcurrentHashMap<String, TokenBucket[]>> buckets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        rules.put(Scope.SESSION, RateLimitRule.parse(sessionRuleSpecs));
+        rules.put(Scope.IP, RateLimitRule.parse(ipRuleSpecs));
+        rules.put(Scope.AUTH, RateLimitRule.parse(authRuleSpecs));
+        for (Scope scope : Scope.values()) {
+            buckets.put(scope, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Takes a permit for {@code path} from {@code key}'s bucket. Returns 0 if allowed,
+     * otherwise the nanoseconds until the caller may retry.
+     */
+    public long tryAcquire(Scope scope, String key, String path) {
+        if (!enabled || key == null || path == null) return 0;
+
+        List<RateLimitRule> scopeRules = rules.get(scope);
+        for (int i = 0; i < scopeRules.size(); i++) {
+            RateLimitRule rule = scopeRules.get(i);
+            if (!rule.matches(path)) continue;
+
+            long now = System.nanoTime();
+            TokenBucket[] keyBuckets = buckets.get(scope).computeIfAbsent(key, k -> new TokenBucket[scopeRules.size()]);
+            TokenBucket bucket = keyBuckets[i];
+            if (bucket == null) {
+                // A lost race here only hands out one extra burst
+                bucket = keyBuckets[i] = rule.newBucket(now);
+            }
+            long wait = bucket.tryAcquire(now);
+            if (wait > 0) {
+                gameMetrics.recordRateLimited(scope.name().toLowerCase(), rule.getPattern());
+            }
+            return wait;
+        }
+        return 0;
+    }
+
+    /** Drops a connection's buckets once it is gone. */
+    public void release(Scope scope, String key) {
+        buckets.get(scope).remove(key);
+    }
+
+    /**
+     * IP-keyed buckets have no disconnect to clean them up; drop the ones that have
+     * refilled, since a fresh bucket behaves the same.
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().forEach(keyed -> keyed.values().removeIf(keyBuckets -> {
+            for (TokenBucket bucket : keyBuckets) {
+                if (bucket != null && !bucket.isIdle(now)) return false;
+            }
+            return true;
+        }));
+    }
+}
@@ -0,0 +1,36 @@
+package com.werewolfkill.game.ratelimit;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * Copies the client address onto the WebSocket session so STOMP frames can be limited
+ * per IP. server.forward-headers-strategy=native makes this the forwarded client address
+ * when the handshake comes through a trusted proxy (see application.properties).
+ */
+@Component
+public class RemoteAddressHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String REMOTE_ADDRESS = "remoteAddress";
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote != null && remote.getAddress() != null) {
+            attributes.put(REMOTE_ADDRESS, remote.getAddress().getHostAddress());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.werewolfkill.game.ratelimit;
+
+import com.werewolfkill.game.service.WebSocketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drops inbound SEND frames over the per-connection or per-IP limit before they reach a
+ * handler. The client hears about it on /user/queue/errors, at most once per notice window.
+ */
+@Component
+public class StompRateLimitInterceptor implements ChannelInterceptor {
+
+    // One RATE_LIMITED notice per connection per 5s, so rejections can't amplify traffic
+    private static final double NOTICES_PER_SECOND = 0.2;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    @Lazy
+    private WebSocketService webSocketService;
+
+    private final ConcurrentHashMap<String, TokenBucket> notices = new ConcurrentHashMap<>();
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (sessionId == null) return message;
+
+        if (type == SimpMessageType.DISCONNECT) {
+            rateLimiter.release(RateLimiter.Scope.SESSION, sessionId);
+            notices.remove(sessionId);
+            return message;
+        }
+        if (type != SimpMessageType.MESSAGE) return message;
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        long wait = rateLimiter.tryAcquire(RateLimiter.Scope.SESSION, sessionId, destination);
+        if (wait == 0) {
+            Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(headers);
+            String remoteAddress = attributes != null
+                    ? (String) attributes.get(RemoteAddressHandshakeInterceptor.REMOTE_ADDRESS) : null;
+            wait = rateLimiter.tryAcquire(RateLimiter.Scope.IP, remoteAddress, destination);
+        }
+        if (wait == 0) return message;
+
+        notifyRejected(sessionId, destination, wait);
+        return null;
+    }
+
+    private void notifyRejected(String sessionId, String destination, long waitNanos) {
+        long now = System.nanoTime();
+        TokenBucket bucket = notices.computeIfAbsent(sessionId, id -> new TokenBucket(NOTICES_PER_SECOND, 1, now));
+        if (bucket.tryAcquire(now) != 0) return;
+
+        Map<String, Object> error = new HashMap<>();
+        error.put("type", "RATE_LIMITED");
+        error.put("message", "Too many messages, slow down");
+        error.put("destination", destination);
+        error.put("retryAfterMs", TimeUnit.NANOSECONDS.toMillis(waitNanos) + 1);
+        webSocketService.sendToSession(sessionId, "/queue/errors", error);
+    }
+}
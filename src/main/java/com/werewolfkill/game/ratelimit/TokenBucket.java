@@ -0,0 +1,46 @@
+package com.werewolfkill.game.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket in GCRA form: the whole state is one "theoretical arrival time" in a single
+ * AtomicLong, advanced with compare-and-set. Acquiring allocates nothing and never blocks.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstWindowNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one permit. Returns 0 if it was granted, otherwise the nanoseconds until
+     * one will be available (nothing is consumed in that case).
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long next = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - burstWindowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** True once the bucket has refilled completely, i.e. it can be dropped without losing state. */
+    public boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
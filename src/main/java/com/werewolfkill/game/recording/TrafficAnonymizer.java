@@ -0,0 +1,121 @@
+package com.werewolfkill.game.recording;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Salted, one-way replacement of identifiers in recorded frames. The salt lives only in
+ * memory, so a recording can't be joined back to session ids, players or rooms, but the
+ * same id maps to the same pseudonym throughout one recorder run.
+ */
+class TrafficAnonymizer {
+
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+        "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    // Enum-like values that shape server behaviour and carry nothing personal
+    private static final Set<String> KEPT_FIELDS = Set.of(
+        "type", "action", "phase", "role", "gameMode", "status", "epoch", "lastSeq"
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final byte[] salt = new byte[16];
+    private final MessageDigest digest;
+
+    TrafficAnonymizer() {
+        new SecureRandom().nextBytes(salt);
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    long hashSession(String sessionId) {
+        return ByteBuffer.wrap(hash(sessionId)).getLong();
+    }
+
+    String anonymizeDestination(String destination) {
+        return replaceUuids(destination);
+    }
+
+    /**
+     * JSON bodies keep their shape and (roughly) their size; anything else is blanked.
+     */
+    byte[] anonymizeBody(byte[] body) {
+        try {
+            JsonNode tree = objectMapper.readTree(body);
+            if (tree == null) return new byte[0];
+            return objectMapper.writeValueAsBytes(anonymize(null, tree));
+        } catch (Exception e) {
+            byte[] blank = new byte[body.length];
+            Arrays.fill(blank, (byte) '?');
+            return blank;
+        }
+    }
+
+    private JsonNode anonymize(String field, JsonNode node) {
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> entry = fields.next();
+                entry.setValue(anonymize(entry.getKey(), entry.getValue()));
+            }
+            return object;
+        }
+        if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                ((ArrayNode) node).set(i, anonymize(field, node.get(i)));
+            }
+            return node;
+        }
+        if (!node.isTextual() || (field != null && KEPT_FIELDS.contains(field))) {
+            return node;
+        }
+        String text = node.textValue();
+        if (UUID_PATTERN.matcher(text).matches()) {
+            return TextNode.valueOf(pseudonymUuid(text));
+        }
+        if ("username".equals(field)) {
+            return TextNode.valueOf("user-" + Long.toHexString(ByteBuffer.wrap(hash(text)).getInt() & 0xFFFFFFFFL));
+        }
+        return TextNode.valueOf("x".repeat(text.length()));
+    }
+
+    private String replaceUuids(String text) {
+        Matcher matcher = UUID_PATTERN.matcher(text);
+        StringBuilder out = new StringBuilder(text.length());
+        while (matcher.find()) {
+            matcher.appendReplacement(out, pseudonymUuid(matcher.group()));
+        }
+        matcher.appendTail(out);
+        return out.toString();
+    }
+
+    private String pseudonymUuid(String uuid) {
+        ByteBuffer hash = ByteBuffer.wrap(hash(uuid.toLowerCase()));
+        return new UUID(hash.getLong(), hash.getLong()).toString();
+    }
+
+    private byte[] hash(String value) {
+        digest.update(salt);
+        return digest.digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
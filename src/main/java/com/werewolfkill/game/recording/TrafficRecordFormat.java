@@ -0,0 +1,172 @@
+package com.werewolfkill.game.recording;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary layout of a traffic recording: the magic bytes once, then an append-only
+ * sequence of records. Each recorder start opens a SEGMENT carrying its wall-clock start;
+ * frame offsets are microseconds into the current segment.
+ *
+ * <pre>
+ * SEGMENT     kind varlong(epochMillis)
+ * CONNECT     kind varlong(offsetMicros) int64(session)
+ * SUBSCRIBE   kind varlong(offsetMicros) int64(session) varint(len) destination
+ * SEND        kind varlong(offsetMicros) int64(session) varint(len) destination varint(len) body
+ * DISCONNECT  kind varlong(offsetMicros) int64(session)
+ * </pre>
+ */
+public final class TrafficRecordFormat {
+
+    public static final byte[] MAGIC = "WWREC1".getBytes(StandardCharsets.US_ASCII);
+
+    public static final byte SEGMENT = 0;
+    public static final byte CONNECT = 1;
+    public static final byte SUBSCRIBE = 2;
+    public static final byte SEND = 3;
+    public static final byte DISCONNECT = 4;
+
+    private TrafficRecordFormat() {}
+
+    public static class RecordedFrame {
+        private final byte kind;
+        private final long offsetMicros;
+        private final long session;
+        private final String destination;
+        private final byte[] body;
+
+        public RecordedFrame(byte kind, long offsetMicros, long session, String destination, byte[] body) {
+            this.kind = kind;
+            this.offsetMicros = offsetMicros;
+            this.session = session;
+            this.destination = destination;
+            this.body = body;
+        }
+
+        public byte getKind() { return kind; }
+        /** For SEGMENT records this is the segment's wall-clock start in epoch millis. */
+        public long getOffsetMicros() { return offsetMicros; }
+        public long getSession() { return session; }
+        public String getDestination() { return destination; }
+        public byte[] getBody() { return body; }
+    }
+
+    /**
+     * Not thread-safe; the recorder writes from a single thread.
+     */
+    public static class Writer {
+        private final OutputStream out;
+
+        public Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        public void writeMagic() throws IOException {
+            out.write(MAGIC);
+        }
+
+        public void writeSegment(long epochMillis) throws IOException {
+            out.write(SEGMENT);
+            writeVarLong(epochMillis);
+        }
+
+        public void write(RecordedFrame frame) throws IOException {
+            out.write(frame.getKind());
+            writeVarLong(frame.getOffsetMicros());
+            writeLong(frame.getSession());
+            if (frame.getKind() == SUBSCRIBE || frame.getKind() == SEND) {
+                writeBytes(frame.getDestination().getBytes(StandardCharsets.UTF_8));
+            }
+            if (frame.getKind() == SEND) {
+                writeBytes(frame.getBody());
+            }
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            writeVarLong(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeLong(long value) throws IOException {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (value >>> shift));
+            }
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+    }
+
+    public static class Reader implements Closeable {
+        private final DataInputStream in;
+
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            byte[] magic = new byte[MAGIC.length];
+            this.in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a traffic recording");
+            }
+        }
+
+        /** Returns the next record, or null at the end of the file. */
+        public RecordedFrame next() throws IOException {
+            int kind = in.read();
+            if (kind < 0) return null;
+            try {
+                long offset = readVarLong();
+                if (kind == SEGMENT) {
+                    return new RecordedFrame(SEGMENT, offset, 0, null, null);
+                }
+                long session = in.readLong();
+                String destination = null;
+                byte[] body = null;
+                if (kind == SUBSCRIBE || kind == SEND) {
+                    destination = new String(readBytes(), StandardCharsets.UTF_8);
+                }
+                if (kind == SEND) {
+                    body = readBytes();
+                }
+                return new RecordedFrame((byte) kind, offset, session, destination, body);
+            } catch (EOFException e) {
+                // A record cut short by a crash ends the recording
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[(int) readVarLong()];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.werewolfkill.game.recording;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.recording.TrafficRecordFormat.RecordedFrame;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in recorder for client inbound STOMP traffic (traffic.recording.enabled).
+ *
+ * The interceptor only timestamps the frame and hands it to a bounded queue; a single
+ * writer thread anonymizes, encodes and appends it (see TrafficRecordFormat). If the
+ * writer falls behind, frames are dropped and counted rather than slowing down clients.
+ * Recordings are replayed with the loadtest profile's TrafficReplayMain.
+ */
+@Component
+public class TrafficRecorder implements ChannelInterceptor {
+
+    @Value("${traffic.recording.enabled:false}")
+    private boolean enabled;
+
+    @Value("${traffic.recording.file:recordings/traffic.wwrec}")
+    private String file;
+
+    @Value("${traffic.recording.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    private BlockingQueue<Captured> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+    private long segmentStartNanos;
+
+    // Raw frame as seen on the inbound channel; anonymized on the writer thread
+    private static class Captured {
+        final byte kind;
+        final long nanos;
+        final String sessionId;
+        final String destination;
+        final byte[] body;
+
+        Captured(byte kind, long nanos, String sessionId, String destination, byte[] body) {
+            this.kind = kind;
+            this.nanos = nanos;
+            this.sessionId = sessionId;
+            this.destination = destination;
+            this.body = body;
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) return;
+
+        File target = new File(file);
+        if (target.getAbsoluteFile().getParentFile() != null) {
+            target.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        boolean fresh = !target.exists() || target.length() == 0;
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(target, true), 64 * 1024);
+        TrafficRecordFormat.Writer writer = new TrafficRecordFormat.Writer(out);
+        if (fresh) {
+            writer.writeMagic();
+        }
+        writer.writeSegment(System.currentTimeMillis());
+        segmentStartNanos = System.nanoTime();
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(() -> drain(writer, out), "traffic-recorder");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) return;
+        running = false;
+        writerThread.join(5000);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (!running) return message;
+
+        SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        byte kind;
+        if (type == SimpMessageType.CONNECT) {
+            kind = TrafficRecordFormat.CONNECT;
+        } else if (type == SimpMessageType.SUBSCRIBE && destination != null) {
+            kind = TrafficRecordFormat.SUBSCRIBE;
+        } else if (type == SimpMessageType.MESSAGE && destination != null && destination.startsWith("/app/")) {
+            kind = TrafficRecordFormat.SEND;
+        } else if (type == SimpMessageType.DISCONNECT) {
+            kind = TrafficRecordFormat.DISCONNECT;
+        } else {
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        byte[] body = message.getPayload() instanceof byte[] bytes ? bytes : new byte[0];
+        if (sessionId == null || !queue.offer(new Captured(kind, System.nanoTime(), sessionId, destination, body))) {
+            gameMetrics.recordTrafficFrame(false);
+        }
+        return message;
+    }
+
+    private void drain(TrafficRecordFormat.Writer writer, OutputStream out) {
+        TrafficAnonymizer anonymizer = new TrafficAnonymizer();
+        try (out) {
+            while (running || !queue.isEmpty()) {
+                Captured captured = queue.poll(1, TimeUnit.SECONDS);
+                if (captured == null) {
+                    writer.flush();
+                    continue;
+                }
+                writer.write(new RecordedFrame(
+                    captured.kind,
+                    Math.max(0, (captured.nanos - segmentStartNanos) / 1000),
+                    anonymizer.hashSession(captured.sessionId),
+                    captured.destination != null ? anonymizer.anonymizeDestination(captured.destination) : null,
+                    captured.kind == TrafficRecordFormat.SEND ? anonymizer.anonymizeBody(captured.body) : null));
+                gameMetrics.recordTrafficFrame(true);
+            }
+            writer.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            running = false;
+            throw new RuntimeException("Traffic recording stopped: " + e.getMessage(), e);
+        }
+    }
+}
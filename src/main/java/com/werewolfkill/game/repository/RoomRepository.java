@@ -3,10 +3,15 @@ package com.werewolfkill.game.repository;
 import com.werewolfkill.game.model.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, UUID> {
         Optional<Room> findByName(String name);
+
+        List<Room> findByPooledFalse();
+
+        List<Room> findByPooledFalseAndIsPublicTrue();
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import com.werewolfkill.game.model.User;
 import com.werewolfkill.game.repository.UserRepository;
 import com.werewolfkill.game.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -22,15 +24,35 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private UsernameAvailabilityService usernameAvailability;
+
+    /**
+     * A taken username (seen up front, or lost to a concurrent registration at the unique
+     * constraint) is a DuplicateKeyException, which the controller maps to 409.
+     */
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new RuntimeException("Username already exists");
+        String username = request.getUsername();
+        if (username == null || username.isBlank() || request.getPassword() == null) {
+            throw new RuntimeException("Username and password are required");
+        }
+        if (!usernameAvailability.isAvailable(username)) {
+            throw new DuplicateKeyException("Username already exists");
         }
         
         User user = new User();
-        user.setUsername(request.getUsername());
+        user.setUsername(username);
         user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user = userRepository.save(user);
+        try {
+            user = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (userRepository.existsByUsername(username)) {
+                usernameAvailability.add(username);
+                throw new DuplicateKeyException("Username already exists", e);
+            }
+            throw e;
+        }
+        usernameAvailability.add(username);
         
         // Generate real JWT token
         String token = jwtUtil.generateToken(user.getUsername(), user.getId());
@@ -1,19 +1,32 @@
 package com.werewolfkill.game.service;
 
+import com.werewolfkill.game.engine.GameEngine;
+import com.werewolfkill.game.engine.RoleDistribution;
 import com.werewolfkill.game.model.GameState;
 import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.model.enums.PlayerStatus;
+import com.werewolfkill.game.model.enums.Role;
 import com.werewolfkill.game.repository.GameStateRepository;
 import com.werewolfkill.game.repository.RoomRepository;
 import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.stats.Leaderboard;
+import com.werewolfkill.game.stats.UserStatsService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GameService {
 
+    private static final Logger log = LoggerFactory.getLogger(GameService.class);
+
     @Autowired
     private RoomRepository roomRepository;
 
@@ -26,14 +39,79 @@ public class GameService {
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    @Value("${game.role-distribution:" + RoleDistribution.DEFAULT_SPEC + "}")
+    private List<String> roleDistributionSpec;
+
+    private RoleDistribution roleDistribution;
+
+    // The one answer for any illegal vote or night action, so rejections don't reveal roles
+    private static final String ACTION_REJECTED = "Action not allowed";
+
+    // Games in progress; the engine holds the rules state, players are indexed by join order
+    private final ConcurrentHashMap<UUID, LiveGame> games = new ConcurrentHashMap<>();
+
+    /** One room's game; engine calls are guarded by the instance. */
+    private static final class LiveGame {
+        final GameEngine engine;
+        final UUID[] playerIds;
+        // Captured at the deal, so players who leave mid-game still get a result
+        final String[] usernames;
+        final Map<UUID, Integer> indexByPlayer = new HashMap<>();
+        final UUID gameStateId;
+
+        LiveGame(GameEngine engine, UUID[] playerIds, String[] usernames, UUID gameStateId) {
+            this.engine = engine;
+            this.playerIds = playerIds;
+            this.usernames = usernames;
+            this.gameStateId = gameStateId;
+            for (int i = 0; i < playerIds.length; i++) {
+                indexByPlayer.put(playerIds[i], i);
+            }
+        }
+
+        int indexOf(UUID playerId) {
+            Integer index = indexByPlayer.get(playerId);
+            if (index == null) {
+                throw new IllegalArgumentException("Player is not in this game");
+            }
+            return index;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        roleDistribution = RoleDistribution.parse(roleDistributionSpec);
+    }
+
     @Transactional
     public void startGame(UUID roomId) {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
 
-        // ✅ Check player count from SessionManager
-        int playerCount = sessionManager.getPlayerCount(roomId);
-        if (playerCount < 3) {
+        SessionManager.RoomSession session = sessionManager.getSession(roomId)
+            .orElseThrow(() -> new RuntimeException("Session not found"));
+
+        // A session that was recreated after everyone left starts WAITING again
+        if (games.containsKey(roomId) && !"WAITING".equals(session.getCurrentPhase())) {
+            throw new RuntimeException("Game already in progress");
+        }
+
+        // One seat per player id, even if they are connected twice
+        List<UUID> playerIds = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (SessionManager.PlayerInfo player : session.getPlayers().values()) {
+            if (!playerIds.contains(player.getPlayerId())) {
+                playerIds.add(player.getPlayerId());
+                usernames.add(player.getUsername());
+            }
+        }
+        if (playerIds.size() < 3) {
             throw new RuntimeException("Need at least 3 players");
         }
 
@@ -43,10 +121,16 @@ public class GameService {
         gameState.setPhase("NIGHT");
         gameState.setDayNumber(0);
         gameState.setIsActive(true);
-        gameStateRepository.save(gameState);
+        gameState = gameStateRepository.save(gameState);
+
+        GameEngine engine = new GameEngine(playerIds.size());
+        engine.deal(roleDistribution, new SplittableRandom());
+        LiveGame game = new LiveGame(engine, playerIds.toArray(new UUID[0]), usernames.toArray(new String[0]),
+            gameState.getId());
+        games.put(roomId, game);
 
-        // ✅ Assign roles using SessionManager
-        assignRoles(roomId);
+        assignRoles(roomId, game);
+        sessionManager.setPhase(roomId, "NIGHT");
 
         // Broadcast game start
         Map<String, Object> message = new HashMap<>();
@@ -55,25 +139,189 @@ public class GameService {
         webSocketService.sendGameUpdate(roomId, message);
     }
 
-    private void assignRoles(UUID roomId) {
+    /**
+     * Record the engine's deal in the session and tell each player their role privately;
+     * werewolves also learn who the other werewolves are.
+     */
+    private void assignRoles(UUID roomId, LiveGame game) {
+        GameEngine engine = game.engine;
+        List<String> werewolves = new ArrayList<>();
+        for (int i = 0; i < game.playerIds.length; i++) {
+            if (engine.getRole(i) == Role.WEREWOLF) werewolves.add(game.playerIds[i].toString());
+        }
+
+        Map<String, Object> payloads = new HashMap<>();
         SessionManager.RoomSession session = sessionManager.getSession(roomId)
             .orElseThrow(() -> new RuntimeException("Session not found"));
-        
-        List<SessionManager.PlayerInfo> players = new ArrayList<>(session.getPlayers().values());
-        
-        // Simple role assignment logic
-        // TODO: Implement proper role distribution
-        for (int i = 0; i < players.size(); i++) {
-            SessionManager.PlayerInfo player = players.get(i);
-            // Assign roles...
+        for (SessionManager.PlayerInfo player : session.getPlayers().values()) {
+            Role role = engine.getRole(game.indexOf(player.getPlayerId()));
+            sessionManager.updatePlayer(roomId, player.getWebSocketSessionId(), p -> p.withRole(role));
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "ROLE_ASSIGNED");
+            message.put("role", role.toString());
+            if (role == Role.WEREWOLF) {
+                message.put("werewolves", werewolves);
+            }
+            payloads.put(player.getWebSocketSessionId(), message);
+        }
+        webSocketService.sendPrivateMessagesToSessions("/queue/role", payloads);
+    }
+
+    /**
+     * End the game in a room: winningTeam is "WEREWOLVES" or "VILLAGERS". Stats are
+     * recorded for every player who was dealt a role, connected or not.
+     */
+    public void finishGame(UUID roomId, String winningTeam) {
+        LiveGame game = games.remove(roomId);
+        Optional<GameState> state = game != null
+            ? gameStateRepository.findById(game.gameStateId)
+            : gameStateRepository.findByRoomId(roomId.toString());
+        state.ifPresent(gameState -> {
+            gameState.setPhase("GAME_OVER");
+            gameState.setIsActive(false);
+            gameStateRepository.save(gameState);
+        });
+        sessionManager.setPhase(roomId, "GAME_OVER");
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "GAME_OVER");
+        message.put("winner", winningTeam);
+        webSocketService.sendGameUpdate(roomId, message);
+
+        if (game == null) {
+            return;
+        }
+        Map<UUID, Boolean> results = new HashMap<>();
+        Map<UUID, String> usernames = new HashMap<>();
+        for (int i = 0; i < game.playerIds.length; i++) {
+            String team = game.engine.getRole(i) == Role.WEREWOLF ? "WEREWOLVES" : "VILLAGERS";
+            results.put(game.playerIds[i], team.equals(winningTeam));
+            usernames.put(game.playerIds[i], game.usernames[i]);
+        }
+        String gameMode = roomRepository.findById(roomId)
+            .map(Room::getGameMode)
+            .orElse("CLASSIC");
+        try {
+            userStatsService.recordGame(results);
+            // Only once persisted, so the global board matches user_stats
+            leaderboard.recordGame(gameMode, results, usernames);
+        } catch (RuntimeException e) {
+            // The game is over either way; stats are best-effort
+            log.error("Failed to record stats for room {}", roomId, e);
         }
     }
 
     public void handleVote(UUID roomId, UUID voterId, UUID targetId) {
-        // Implementation using SessionManager
+        LiveGame game = requireGame(roomId);
+        synchronized (game) {
+            try {
+                game.engine.submitVote(seatedIndex(roomId, game, voterId), game.indexOf(targetId));
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                throw new RuntimeException(ACTION_REJECTED);
+            }
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "VOTE_CAST");
+            message.put("voterId", voterId.toString());
+            message.put("targetId", targetId.toString());
+            webSocketService.sendGameUpdate(roomId, message);
+
+            if (game.engine.isPhaseComplete()) {
+                int eliminated = game.engine.resolveDay();
+                endPhase(roomId, game, "DAY_RESULT", eliminated);
+            }
+        }
     }
 
+    /**
+     * action is KILL (werewolves) or INSPECT (seers); an inspection is answered privately
+     * on /queue/role. Any illegal action gets the same ACTION_REJECTED error.
+     */
     public void handleNightAction(UUID roomId, UUID actorId, UUID targetId, String action) {
-        // Implementation using SessionManager
+        LiveGame game = requireGame(roomId);
+        synchronized (game) {
+            Role inspected = null;
+            try {
+                int actor = seatedIndex(roomId, game, actorId);
+                int target = game.indexOf(targetId);
+                switch (action == null ? "" : action.toUpperCase()) {
+                    case "KILL" -> game.engine.submitKill(actor, target);
+                    case "INSPECT" -> inspected = game.engine.inspect(actor, target);
+                    default -> throw new IllegalArgumentException("Unknown action");
+                }
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                throw new RuntimeException(ACTION_REJECTED);
+            }
+            if (inspected != null) {
+                Map<String, Object> result = new HashMap<>();
+                result.put("type", "INSPECTION_RESULT");
+                result.put("targetId", targetId.toString());
+                result.put("role", inspected.toString());
+                sendToPlayer(roomId, actorId, result);
+            }
+
+            if (game.engine.isPhaseComplete()) {
+                int victim = game.engine.resolveNight();
+                endPhase(roomId, game, "NIGHT_RESULT", victim);
+            }
+        }
+    }
+
+    /** The actor's index, if they are in this game and still connected to the room. */
+    private int seatedIndex(UUID roomId, LiveGame game, UUID playerId) {
+        boolean seated = sessionManager.getSession(roomId)
+            .map(session -> session.isSeated(playerId))
+            .orElse(false);
+        if (!seated) {
+            throw new IllegalStateException("Player is not seated");
+        }
+        return game.indexOf(playerId);
+    }
+
+    private LiveGame requireGame(UUID roomId) {
+        LiveGame game = games.get(roomId);
+        if (game == null) {
+            throw new RuntimeException("No game in progress");
+        }
+        return game;
+    }
+
+    /** Apply a resolved night or day: mark the dead, announce it, then move on or finish. */
+    private void endPhase(UUID roomId, LiveGame game, String resultType, int killed) {
+        GameEngine engine = game.engine;
+        UUID killedId = killed != GameEngine.NONE ? game.playerIds[killed] : null;
+        if (killedId != null) {
+            sessionManager.getSession(roomId).ifPresent(session ->
+                session.getPlayers().values().stream()
+                    .filter(player -> player.getPlayerId().equals(killedId))
+                    .forEach(player -> sessionManager.updatePlayer(roomId, player.getWebSocketSessionId(),
+                        p -> p.withStatus(PlayerStatus.DEAD))));
+        }
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", resultType);
+        message.put("playerId", killedId != null ? killedId.toString() : null);
+        message.put("phase", engine.getPhase().toString());
+        message.put("dayNumber", engine.getDayNumber());
+        webSocketService.sendGameUpdate(roomId, message);
+
+        if (engine.getWinner() != null) {
+            finishGame(roomId, engine.getWinner().name());
+        } else {
+            sessionManager.setPhase(roomId, engine.getPhase().toString());
+            gameStateRepository.findById(game.gameStateId).ifPresent(gameState -> {
+                gameState.setPhase(engine.getPhase().toString());
+                gameState.setDayNumber(engine.getDayNumber());
+                gameStateRepository.save(gameState);
+            });
+        }
+        webSocketService.broadcastRoomState(roomId);
+    }
+
+    private void sendToPlayer(UUID roomId, UUID playerId, Object payload) {
+        sessionManager.getSession(roomId).ifPresent(session -> session.getPlayers().values().stream()
+            .filter(player -> player.getPlayerId().equals(playerId))
+            .forEach(player -> webSocketService.sendToSession(player.getWebSocketSessionId(), "/queue/role", payload)));
     }
-}
\ No newline at end of file
+}
@@ -3,22 +3,34 @@ package com.werewolfkill.game.service;
 import com.werewolfkill.game.dto.PlayerDTO;
 import com.werewolfkill.game.model.Room;
 import com.werewolfkill.game.model.User;
+import com.werewolfkill.game.pool.RoomPool;
 import com.werewolfkill.game.repository.RoomRepository;
 import com.werewolfkill.game.repository.UserRepository;
 import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.websocket.LobbyFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
 public class RoomService {
 
+    private static final Logger log = LoggerFactory.getLogger(RoomService.class);
+
     @Autowired
     private RoomRepository roomRepository;
 
@@ -28,37 +40,124 @@ public class RoomService {
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private RoomPool roomPool;
+
+    @Autowired
+    private LobbyFeed lobbyFeed;
+
+    @Value("${room.reservation-ttl-ms:15000}")
+    private long reservationTtlMs;
+
+    // Bumped when the set of lobby rooms changes; seeded from the clock like session versions
+    private final AtomicLong roomsVersion = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    // Metadata version per room we've served or created; rooms missing here just aren't 304-able yet
+    private final ConcurrentHashMap<UUID, Long> metadataVersions = new ConcurrentHashMap<>();
+
     public List<Room> getAvailableRooms() {
-        return roomRepository.findAll();
+        return roomRepository.findByPooledFalseAndIsPublicTrue();
+    }
+
+    /**
+     * A claimed room by id, remembering its metadata version for later conditional GETs.
+     */
+    public Optional<Room> getRoom(UUID roomId) {
+        Optional<Room> room = roomRepository.findById(roomId)
+            .filter(r -> !Boolean.TRUE.equals(r.getPooled()));
+        room.ifPresent(r -> metadataVersions.computeIfAbsent(roomId, id -> roomsVersion.incrementAndGet()));
+        return room;
+    }
+
+    /** ETag for GET /api/rooms, or null. Cheap: no queries. */
+    public String getLobbyEtag() {
+        return roomsVersion.get() + "-" + sessionManager.getLatestVersion();
+    }
+
+    /** ETag for GET /api/rooms/{id}; null until the room's metadata version is known. */
+    public String getRoomEtag(UUID roomId) {
+        Long metadataVersion = metadataVersions.get(roomId);
+        return metadataVersion != null ? metadataVersion + "-" + sessionManager.getVersion(roomId) : null;
+    }
+
+    /** ETag for GET /api/rooms/{id}/players. */
+    public String getPlayersEtag(UUID roomId) {
+        return roomId + "-" + sessionManager.getVersion(roomId);
+    }
+
+    /** Rooms moved out of the rooms table; their ETags must stop matching. */
+    public void roomsArchived(List<UUID> roomIds) {
+        roomIds.forEach(metadataVersions::remove);
+        roomsVersion.incrementAndGet();
+        lobbyFeed.roomsClosed(roomIds);
     }
 
     @Transactional
     public Room createRoom(String name, UUID createdBy, Integer maxPlayers) {
+        return createRoom(name, createdBy, maxPlayers, "CLASSIC", true);
+    }
+
+    /**
+     * A private room (isPublic false) is left out of the lobby list and feed; its players
+     * are sent its id directly, as quick-play lobbies are.
+     */
+    @Transactional
+    public Room createRoom(String name, UUID createdBy, Integer maxPlayers, String gameMode, boolean isPublic) {
+        int size = maxPlayers != null ? maxPlayers : 8;
+
+        // A pre-warmed room is one indexed update instead of an insert
+        Room pooled = roomPool.claim(gameMode, size, name, createdBy, isPublic);
+        if (pooled != null) {
+            afterCommit(() -> roomCreated(pooled));
+            return pooled;
+        }
+
         Room room = new Room();
         room.setName(name);
         room.setCreatedBy(createdBy);
-        room.setMaxPlayers(maxPlayers != null ? maxPlayers : 8);
+        room.setMaxPlayers(size);
         room.setCreatedAt(Instant.now());
-        room.setGameMode("CLASSIC");
-        room.setIsPublic(true);
+        room.setGameMode(gameMode);
+        room.setIsPublic(isPublic);
         
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        afterCommit(() -> roomCreated(saved));
+        return saved;
+    }
+
+    private void roomCreated(Room room) {
+        long version = roomsVersion.incrementAndGet();
+        metadataVersions.put(room.getId(), version);
+        lobbyFeed.roomCreated(room);
+    }
+
+    // Versions move only once the row is visible, so a poll can't cache the pre-commit list
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     // ✅ joinRoom/leaveRoom are now handled by WebSocket + SessionManager
     // Keep these as no-ops for API backward compatibility
     @Transactional
     public void joinRoom(UUID roomId, UUID playerId) {
-        Room room = roomRepository.findById(roomId)
+        Room room = getRoom(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
         
-        // Validation only - actual join happens via WebSocket
-        int currentPlayers = sessionManager.getPlayerCount(roomId);
-        if (currentPlayers >= room.getMaxPlayers()) {
+        // Hold a seat until the WebSocket join arrives; it lapses after room.reservation-ttl-ms
+        if (!sessionManager.reserveSeat(roomId, room.getName(), playerId, room.getMaxPlayers(), reservationTtlMs)) {
             throw new RuntimeException("Room is full");
         }
         
-        System.out.println("✅ Player " + playerId + " validated for room " + roomId);
+        log.debug("Player {} validated for room {}", playerId, roomId);
     }
 
     @Transactional
@@ -67,7 +166,7 @@ public class RoomService {
         Room room = roomRepository.findById(roomId)
                 .orElseThrow(() -> new RuntimeException("Room not found"));
         
-        System.out.println("✅ Player " + playerId + " leaving room " + roomId);
+        log.debug("Player {} leaving room {}", playerId, roomId);
     }
 
     // ✅ Get players from SessionManager instead of database
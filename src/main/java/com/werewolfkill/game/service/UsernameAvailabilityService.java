@@ -0,0 +1,148 @@
+package com.werewolfkill.game.service;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers "is this username free?" from a Bloom filter of taken usernames, so most
+ * registrations and availability checks never touch the users index. The filter has no false
+ * negatives: "not in the filter" means available; "maybe in the filter" falls back to the
+ * database. It is filled by streaming the users table once the app is ready and by every
+ * registration; until loaded, every check goes to the database.
+ *
+ * Sized for username-filter.expected-users at username-filter.false-positive-rate; beyond that
+ * the false-positive rate (and so database checks) rises, but answers stay correct.
+ */
+@Service
+public class UsernameAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameAvailabilityService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Value("${username-filter.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${username-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private AtomicLongArray bits;
+    private long bitCount;
+    private int hashCount;
+    private volatile boolean loaded;
+
+    @PostConstruct
+    void init() {
+        // Optimal sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long n = Math.max(1, expectedUsers);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        bits = new AtomicLongArray(words);
+        bitCount = (long) words * 64;
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long started = System.currentTimeMillis();
+        long[] count = {0};
+        try {
+            // Forward-only with a fetch size (inside a transaction) so PostgreSQL streams rows through a cursor
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT username FROM users",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(1000);
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                add(rs.getString(1));
+                count[0]++;
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to load username filter, checking the database instead: {}", e.getMessage());
+            return;
+        }
+        loaded = true;
+        log.info("Username filter: {} usernames in {} ms ({} KiB, {} hashes)",
+            count[0], System.currentTimeMillis() - started, bitCount / 8 / 1024, hashCount);
+        if (count[0] > expectedUsers) {
+            log.warn("{} usernames exceed username-filter.expected-users={}; more availability checks will hit the database",
+                count[0], expectedUsers);
+        }
+    }
+
+    public boolean isAvailable(String username) {
+        if (loaded && !mightContain(username)) {
+            gameMetrics.recordUsernameCheck("filter");
+            return true;
+        }
+        gameMetrics.recordUsernameCheck("database");
+        return !userRepository.existsByUsername(username);
+    }
+
+    /** Record a taken username. */
+    public void add(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    private boolean mightContain(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer; split in two for double hashing. */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
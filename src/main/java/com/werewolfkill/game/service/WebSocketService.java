@@ -1,14 +1,39 @@
 package com.werewolfkill.game.service;
 
+import com.werewolfkill.game.websocket.LobbyFeed;
+import com.werewolfkill.game.websocket.RoomEventLog;
+import com.werewolfkill.game.websocket.RoomStateBuilder;
+import com.werewolfkill.game.websocket.SlowConsumerMonitor;
+import com.werewolfkill.game.websocket.SpectatorBroadcaster;
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.tracing.RoomTracer;
 import com.werewolfkill.game.websocket.dto.GameUpdateMessage;
+import com.werewolfkill.game.websocket.dto.PrivateDeliveryReport;
 import com.werewolfkill.game.session.SessionManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpSession;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 @Service
 public class WebSocketService {
@@ -19,20 +44,226 @@ public class WebSocketService {
     @Autowired
     private SessionManager sessionManager;
 
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    @Autowired
+    private RoomStateBuilder roomStateBuilder;
+
+    @Autowired
+    private SpectatorBroadcaster spectatorBroadcaster;
+
+    @Autowired
+    private RoomEventLog roomEventLog;
+
+    @Autowired
+    private LobbyFeed lobbyFeed;
+
+    @Autowired
+    private SlowConsumerMonitor slowConsumerMonitor;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Autowired
+    private RoomTracer roomTracer;
+
+    // Rooms waiting for a coalesced state broadcast (e.g. during reconnect storms)
+    private final Set<UUID> pendingRoomBroadcasts = ConcurrentHashMap.newKeySet();
+
     public void sendGameUpdate(UUID roomId, GameUpdateMessage message) {
         String destination = "/topic/game/" + roomId.toString();
-        messagingTemplate.convertAndSend(destination, (Object) message);  // ✅ FIXED: Cast to Object
+        publishRoomEvent(roomId, destination, message, null);
+        spectatorBroadcaster.offerGameEvent(roomId, message);
     }
 
     public void sendGameUpdate(UUID roomId, Object message) {
         String destination = "/topic/game/" + roomId.toString();
-        messagingTemplate.convertAndSend(destination, (Object) message);  // ✅ FIXED: Cast to Object
+        publishRoomEvent(roomId, destination, message, null);
+        spectatorBroadcaster.offerGameEvent(roomId, message);
+    }
+
+    /**
+     * Broadcast the full room state to players; spectators get a throttled public copy.
+     */
+    public void broadcastRoomState(UUID roomId) {
+        gameMetrics.getRoomStateBroadcastTimer().record(() -> doBroadcastRoomState(roomId));
+    }
+
+    private void doBroadcastRoomState(UUID roomId) {
+        Optional<SessionManager.RoomSession> sessionOpt = sessionManager.getSession(roomId);
+        if (sessionOpt.isEmpty()) {
+            roomEventLog.discard(roomId);
+            spectatorBroadcaster.markRoomDirty(roomId);
+            lobbyFeed.markRoomDirty(roomId);
+            return; // Session was destroyed (no players left)
+        }
+
+        Map<String, Object> message = roomStateBuilder.build(sessionOpt.get(), false);
+
+        // Only the latest snapshot matters, lagging clients may skip older ones
+        Map<String, Object> headers = Map.of(SlowConsumerMonitor.CONFLATE_KEY_HEADER, "room-state:" + roomId);
+
+        String destination = "/topic/room/" + roomId.toString();
+        publishRoomEvent(roomId, destination, message, headers);
+        spectatorBroadcaster.markRoomDirty(roomId);
+        lobbyFeed.markRoomDirty(roomId);
+    }
+
+    /**
+     * Queue a room state broadcast; requests within one flush interval collapse into one.
+     */
+    public void scheduleRoomStateBroadcast(UUID roomId) {
+        pendingRoomBroadcasts.add(roomId);
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.resume.broadcast-delay-ms:100}")
+    public void flushRoomStateBroadcasts() {
+        for (UUID roomId : pendingRoomBroadcasts) {
+            pendingRoomBroadcasts.remove(roomId);
+            broadcastRoomState(roomId);
+        }
+    }
+
+    /**
+     * Send to a room topic with per-room "seq" and "epoch" headers, keeping a copy for resume.
+     */
+    private void publishRoomEvent(UUID roomId, String destination, Object payload, Map<String, Object> headers) {
+        // Encode up front (convertAndSend would do the same) so the trace knows the payload size
+        Message<?> encoded = encode(payload);
+        roomEventLog.record(roomId, destination, payload, event -> {
+            Map<String, Object> stamped = headers != null ? new HashMap<>(headers) : new HashMap<>();
+            stamped.put(RoomEventLog.SEQ_HEADER, event.getSeq());
+            stamped.put(RoomEventLog.EPOCH_HEADER, event.getEpoch());
+            sendEncoded(destination, encoded, null, stamped);
+
+            int payloadBytes = encoded.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+            roomTracer.roomBroadcast(roomId, destination, event.getSeq(), payloadBytes,
+                sessionManager.getPlayerCount(roomId));
+        });
     }
 
     public void sendPrivateMessage(String userId, String destination, Object message) {
         messagingTemplate.convertAndSendToUser(userId, destination, (Object) message);  // ✅ FIXED: Cast to Object
     }
 
+    /**
+     * Send a private payload to many users at once.
+     *
+     * Recipients are user names. All their sessions are resolved in a single pass against
+     * the user registry and sent straight to the broker, so the per-message
+     * UserDestinationResolver round trip is skipped. Recipients that share an equal payload
+     * share one encoded byte[]. A user with no connected session is reported as a failure.
+     *
+     * @param destination user destination without the "/user" prefix, e.g. "/queue/role"
+     */
+    public PrivateDeliveryReport sendPrivateMessages(String destination, Map<String, ?> payloads) {
+        return sendPrivate(destination, payloads, this::resolveSessionIds);
+    }
+
+    /**
+     * Like sendPrivateMessages, but keyed by WebSocket session id (the keys SessionManager
+     * uses), for connections that may be anonymous. The user registry only knows authenticated
+     * connections, so sessions are checked against the open connections SlowConsumerMonitor
+     * tracks; one that has closed is reported as a failure instead of counted as delivered.
+     */
+    public PrivateDeliveryReport sendPrivateMessagesToSessions(String destination, Map<String, ?> payloads) {
+        return sendPrivate(destination, payloads,
+            sessionId -> slowConsumerMonitor.isConnected(sessionId) ? List.of(sessionId) : List.of());
+    }
+
+    private PrivateDeliveryReport sendPrivate(String destination, Map<String, ?> payloads,
+                                              Function<String, List<String>> sessionsOf) {
+        PrivateDeliveryReport report = new PrivateDeliveryReport();
+        report.setRecipients(payloads.size());
+
+        Map<Object, Message<?>> encodedByPayload = new HashMap<>();
+
+        for (Map.Entry<String, ?> entry : payloads.entrySet()) {
+            String recipient = entry.getKey();
+            Object payload = entry.getValue();
+
+            List<String> sessionIds = sessionsOf.apply(recipient);
+            if (sessionIds.isEmpty()) {
+                report.getFailures().put(recipient, "No active session");
+                continue;
+            }
+
+            Message<?> encoded;
+            try {
+                encoded = encodedByPayload.computeIfAbsent(payload, this::encode);
+            } catch (RuntimeException e) {
+                report.getFailures().put(recipient, "Encoding failed: " + e.getMessage());
+                continue;
+            }
+
+            int delivered = 0;
+            String lastError = null;
+            for (String sessionId : sessionIds) {
+                try {
+                    sendEncodedToSession(sessionId, destination, encoded);
+                    delivered++;
+                } catch (MessagingException e) {
+                    lastError = e.getMessage();
+                }
+            }
+
+            report.setDeliveredSessions(report.getDeliveredSessions() + delivered);
+            if (delivered == 0) {
+                report.getFailures().put(recipient, "Send failed: " + lastError);
+            }
+        }
+
+        report.setEncodedPayloads(encodedByPayload.size());
+        return report;
+    }
+
+    /**
+     * Send a private payload to one WebSocket session, bypassing user resolution.
+     */
+    public void sendToSession(String webSocketSessionId, String destination, Object payload) {
+        sendEncodedToSession(webSocketSessionId, destination, encode(payload));
+    }
+
+    private List<String> resolveSessionIds(String username) {
+        SimpUser user = userRegistry.getUser(username);
+        if (user == null) {
+            return List.of();
+        }
+
+        List<String> sessionIds = new ArrayList<>();
+        for (SimpSession session : user.getSessions()) {
+            sessionIds.add(session.getId());
+        }
+        return sessionIds;
+    }
+
+    private Message<?> encode(Object payload) {
+        Message<?> encoded = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (encoded == null) {
+            throw new IllegalArgumentException("No converter for " + payload.getClass().getSimpleName());
+        }
+        return encoded;
+    }
+
+    private void sendEncodedToSession(String sessionId, String destination, Message<?> encoded) {
+        // Same target the UserDestinationResolver would compute for "/user/{session}{destination}"
+        sendEncoded(destination + "-user" + sessionId, encoded, sessionId, null);
+    }
+
+    private void sendEncoded(String destination, Message<?> encoded, String sessionId,
+                             Map<String, Object> nativeHeaders) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType((MimeType) encoded.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+        if (nativeHeaders != null) {
+            nativeHeaders.forEach((name, value) -> accessor.setNativeHeader(name, String.valueOf(value)));
+        }
+        accessor.setLeaveMutable(true);
+
+        messagingTemplate.send(destination, MessageBuilder.createMessage(encoded.getPayload(), accessor.getMessageHeaders()));
+    }
+
     // ✅ Use SessionManager instead of querying database
     public void broadcastPlayerJoined(UUID roomId, UUID playerId, String username) {
         SessionManager.RoomSession session = sessionManager.getSession(roomId).orElse(null);
@@ -54,7 +285,7 @@ public class WebSocketService {
         message.put("timestamp", System.currentTimeMillis());
         
         String destination = "/topic/room/" + roomId.toString();
-        messagingTemplate.convertAndSend(destination, (Object) message);  // ✅ FIXED: Cast to Object
+        publishRoomEvent(roomId, destination, message, null);
     }
 
     public void broadcastPlayerLeft(UUID roomId, UUID playerId) {
@@ -63,6 +294,6 @@ public class WebSocketService {
         message.put("playerId", playerId.toString());
         
         String destination = "/topic/room/" + roomId.toString();
-        messagingTemplate.convertAndSend(destination, (Object) message);  // ✅ FIXED: Cast to Object
+        publishRoomEvent(roomId, destination, message, null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.werewolfkill.game.session;
+
+import java.util.UUID;
+
+/**
+ * Published by SessionManager when a room's live session closes: its last player left
+ * or was evicted, or its last reservation lapsed.
+ */
+public class RoomSessionClosedEvent {
+
+    private final UUID roomId;
+    private final long closedAt;
+
+    public RoomSessionClosedEvent(UUID roomId, long closedAt) {
+        this.roomId = roomId;
+        this.closedAt = closedAt;
+    }
+
+    public UUID getRoomId() { return roomId; }
+    public long getClosedAt() { return closedAt; }
+}
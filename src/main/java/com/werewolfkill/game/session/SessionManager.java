@@ -2,65 +2,170 @@ package com.werewolfkill.game.session;  // ✅ FIXED: Removed "main.java."
 
 import com.werewolfkill.game.model.enums.Role;
 import com.werewolfkill.game.model.enums.PlayerStatus;
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
+/**
+ * Live room sessions, kept as immutable snapshots.
+ *
+ * Each room has one AtomicReference to its current RoomSession. Writers build a new
+ * snapshot from the current one and publish it with compareAndSet, retrying if another
+ * writer got there first; readers just take the reference and see players, host and
+ * version from the same moment, without locking. The last player leaving publishes a
+ * closed snapshot, so a racing join can't land in a session that is being removed.
+ *
+ * Seats are counted in the same snapshot: players plus unexpired reservations. A join or
+ * reservation that would exceed maxPlayers fails its CAS check instead of overfilling.
+ */
 @Component
 public class SessionManager {
-    
-    private final ConcurrentHashMap<UUID, RoomSession> activeSessions = new ConcurrentHashMap<>();
-    
-    // ✅ Inner class with MANUAL getters/setters
-    public static class RoomSession {
-        private UUID roomId;
-        private String roomName;
-        private ConcurrentHashMap<String, PlayerInfo> players;
-        private String hostSessionId;
-        private Instant sessionStartTime;
-        private Instant lastActivity;
-        private String currentPhase;
-        
-        public RoomSession() {
-            this.players = new ConcurrentHashMap<>();
-            this.currentPhase = "WAITING";
-        }
-        
-        // Getters
+
+    private final ConcurrentHashMap<UUID, AtomicReference<RoomSession>> activeSessions = new ConcurrentHashMap<>();
+
+    // Sessions built ahead of time for pooled rooms, promoted on first join
+    private final ConcurrentHashMap<UUID, RoomSession> warmSessions = new ConcurrentHashMap<>();
+
+    // Ticks on every visible session change; seeded from the clock so versions don't repeat across restarts
+    private final AtomicLong versionClock = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RoomTracer roomTracer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * One consistent view of a room. Never modified after publication; players are in join order.
+     */
+    public static final class RoomSession {
+        private final UUID roomId;
+        private final String roomName;
+        private final Map<String, PlayerInfo> players;
+        private final String hostSessionId;
+        private final Instant sessionStartTime;
+        private final Instant lastActivity;
+        private final String currentPhase;
+        private final long version;
+        private final boolean closed;
+        // Player id -> expiry (epoch millis) of a seat held for a join that hasn't arrived yet
+        private final Map<UUID, Long> reservations;
+
+        private RoomSession(UUID roomId, String roomName, Map<String, PlayerInfo> players, String hostSessionId,
+                            Instant sessionStartTime, Instant lastActivity, String currentPhase,
+                            long version, boolean closed, Map<UUID, Long> reservations) {
+            this.roomId = roomId;
+            this.roomName = roomName;
+            this.players = players;
+            this.hostSessionId = hostSessionId;
+            this.sessionStartTime = sessionStartTime;
+            this.lastActivity = lastActivity;
+            this.currentPhase = currentPhase;
+            this.version = version;
+            this.closed = closed;
+            this.reservations = reservations;
+        }
+
+        private static RoomSession empty(UUID roomId, String roomName, long version) {
+            Instant now = Instant.now();
+            return new RoomSession(roomId, roomName, Collections.emptyMap(), null, now, now, "WAITING",
+                version, false, Collections.emptyMap());
+        }
+
         public UUID getRoomId() { return roomId; }
         public String getRoomName() { return roomName; }
-        public ConcurrentHashMap<String, PlayerInfo> getPlayers() { return players; }
+        public Map<String, PlayerInfo> getPlayers() { return players; }
         public String getHostSessionId() { return hostSessionId; }
         public Instant getSessionStartTime() { return sessionStartTime; }
         public Instant getLastActivity() { return lastActivity; }
         public String getCurrentPhase() { return currentPhase; }
-        
-        // Setters
-        public void setRoomId(UUID roomId) { this.roomId = roomId; }
-        public void setRoomName(String roomName) { this.roomName = roomName; }
-        public void setPlayers(ConcurrentHashMap<String, PlayerInfo> players) { this.players = players; }
-        public void setHostSessionId(String hostSessionId) { this.hostSessionId = hostSessionId; }
-        public void setSessionStartTime(Instant sessionStartTime) { this.sessionStartTime = sessionStartTime; }
-        public void setLastActivity(Instant lastActivity) { this.lastActivity = lastActivity; }
-        public void setCurrentPhase(String currentPhase) { this.currentPhase = currentPhase; }
-    }
-    
-    // ✅ Inner class with MANUAL getters/setters
-    public static class PlayerInfo {
-        private String webSocketSessionId;
-        private UUID playerId;
-        private String username;
-        private Role role;
-        private PlayerStatus status;
-        private Instant joinedAt;
-        private Instant lastHeartbeat;
-        
-        public PlayerInfo() {}
-        
-        public PlayerInfo(String webSocketSessionId, UUID playerId, String username, 
+        public long getVersion() { return version; }
+        public boolean isClosed() { return closed; }
+        public Map<UUID, Long> getReservations() { return reservations; }
+
+        /**
+         * Seats taken at the given time: players, plus live reservations other than the
+         * given player's own (and other than those already seated).
+         */
+        public int occupiedSeats(long nowMillis, UUID exceptPlayerId) {
+            int seats = players.size();
+            for (Map.Entry<UUID, Long> reservation : reservations.entrySet()) {
+                if (reservation.getValue() > nowMillis && !reservation.getKey().equals(exceptPlayerId)
+                        && !isSeated(reservation.getKey())) {
+                    seats++;
+                }
+            }
+            return seats;
+        }
+
+        public boolean isSeated(UUID playerId) {
+            for (PlayerInfo player : players.values()) {
+                if (player.getPlayerId().equals(playerId)) return true;
+            }
+            return false;
+        }
+
+        private RoomSession withPlayers(Map<String, PlayerInfo> players, String hostSessionId, long version) {
+            return new RoomSession(roomId, roomName, Collections.unmodifiableMap(players), hostSessionId,
+                sessionStartTime, Instant.now(), currentPhase, version, false, reservations);
+        }
+
+        private RoomSession withReservations(Map<UUID, Long> reservations) {
+            return new RoomSession(roomId, roomName, players, hostSessionId,
+                sessionStartTime, lastActivity, currentPhase, version, false, Collections.unmodifiableMap(reservations));
+        }
+
+        private RoomSession withPhase(String currentPhase, long version) {
+            return new RoomSession(roomId, roomName, players, hostSessionId,
+                sessionStartTime, Instant.now(), currentPhase, version, closed, reservations);
+        }
+
+        private RoomSession asClosed(long version) {
+            return new RoomSession(roomId, roomName, Collections.emptyMap(), null,
+                sessionStartTime, Instant.now(), currentPhase, version, true, Collections.emptyMap());
+        }
+
+        private RoomSession renamed(String roomName, long version) {
+            Instant now = Instant.now();
+            return new RoomSession(roomId, roomName, players, hostSessionId, now, now, currentPhase,
+                version, false, reservations);
+        }
+    }
+
+    /**
+     * One player in a RoomSession snapshot. Immutable; changes go through SessionManager.
+     */
+    public static final class PlayerInfo {
+        private final String webSocketSessionId;
+        private final UUID playerId;
+        private final String username;
+        private final Role role;
+        private final PlayerStatus status;
+        private final Instant joinedAt;
+        private final Instant lastHeartbeat;
+        // Secret handed to this connection; a resume must present it to replace this entry
+        private final String resumeToken;
+
+        public PlayerInfo(String webSocketSessionId, UUID playerId, String username,
                          Role role, PlayerStatus status, Instant joinedAt, Instant lastHeartbeat) {
+            this(webSocketSessionId, playerId, username, role, status, joinedAt, lastHeartbeat, null);
+        }
+
+        private PlayerInfo(String webSocketSessionId, UUID playerId, String username, Role role,
+                           PlayerStatus status, Instant joinedAt, Instant lastHeartbeat, String resumeToken) {
             this.webSocketSessionId = webSocketSessionId;
             this.playerId = playerId;
             this.username = username;
@@ -68,9 +173,9 @@ public class SessionManager {
             this.status = status;
             this.joinedAt = joinedAt;
             this.lastHeartbeat = lastHeartbeat;
+            this.resumeToken = resumeToken;
         }
-        
-        // Getters
+
         public String getWebSocketSessionId() { return webSocketSessionId; }
         public UUID getPlayerId() { return playerId; }
         public String getUsername() { return username; }
@@ -78,109 +183,321 @@ public class SessionManager {
         public PlayerStatus getStatus() { return status; }
         public Instant getJoinedAt() { return joinedAt; }
         public Instant getLastHeartbeat() { return lastHeartbeat; }
-        
-        // Setters
-        public void setWebSocketSessionId(String webSocketSessionId) { this.webSocketSessionId = webSocketSessionId; }
-        public void setPlayerId(UUID playerId) { this.playerId = playerId; }
-        public void setUsername(String username) { this.username = username; }
-        public void setRole(Role role) { this.role = role; }
-        public void setStatus(PlayerStatus status) { this.status = status; }
-        public void setJoinedAt(Instant joinedAt) { this.joinedAt = joinedAt; }
-        public void setLastHeartbeat(Instant lastHeartbeat) { this.lastHeartbeat = lastHeartbeat; }
-    }
-    
+
+        /** True if token is this entry's resume token (compared in constant time). */
+        public boolean matchesResumeToken(String token) {
+            return resumeToken != null && token != null
+                && MessageDigest.isEqual(resumeToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public PlayerInfo withRole(Role role) {
+            return new PlayerInfo(webSocketSessionId, playerId, username, role, status, joinedAt, lastHeartbeat, resumeToken);
+        }
+
+        public PlayerInfo withStatus(PlayerStatus status) {
+            return new PlayerInfo(webSocketSessionId, playerId, username, role, status, joinedAt, lastHeartbeat, resumeToken);
+        }
+
+        private PlayerInfo withLastHeartbeat(Instant lastHeartbeat) {
+            return new PlayerInfo(webSocketSessionId, playerId, username, role, status, joinedAt, lastHeartbeat, resumeToken);
+        }
+
+        private PlayerInfo withResumeToken(String resumeToken) {
+            return new PlayerInfo(webSocketSessionId, playerId, username, role, status, joinedAt, lastHeartbeat, resumeToken);
+        }
+    }
+
     public RoomSession getOrCreateSession(UUID roomId, String roomName) {
-        return activeSessions.computeIfAbsent(roomId, id -> {
-            RoomSession session = new RoomSession();
-            session.setRoomId(roomId);
-            session.setRoomName(roomName);
-            session.setSessionStartTime(Instant.now());
-            session.setLastActivity(Instant.now());
-            session.setPlayers(new ConcurrentHashMap<>());
-            System.out.println("🆕 Created new session for room: " + roomName);
-            return session;
-        });
+        while (true) {
+            AtomicReference<RoomSession> ref = activeSessions.get(roomId);
+            if (ref == null) {
+                RoomSession warm = warmSessions.remove(roomId);
+                RoomSession created = warm != null
+                    ? warm.renamed(roomName, versionClock.incrementAndGet())
+                    : RoomSession.empty(roomId, roomName, versionClock.incrementAndGet());
+                if (activeSessions.putIfAbsent(roomId, new AtomicReference<>(created)) == null) {
+                    roomTracer.sessionCreated(roomId, roomName);
+                    return created;
+                }
+                continue;
+            }
+            RoomSession current = ref.get();
+            if (!current.isClosed()) {
+                return current;
+            }
+            // Closing concurrently; clear it out and start a fresh session
+            activeSessions.remove(roomId, ref);
+        }
+    }
+
+    /**
+     * Build a session for a pooled room ahead of its first join. Warm sessions are not
+     * active: they don't count as rooms or show up in getAllSessions until someone joins.
+     */
+    public void prewarmSession(UUID roomId, String roomName) {
+        warmSessions.putIfAbsent(roomId, RoomSession.empty(roomId, roomName, 0));
     }
-    
+
+    public void discardWarmSession(UUID roomId) {
+        warmSessions.remove(roomId);
+    }
+
     public Optional<RoomSession> getSession(UUID roomId) {
-        return Optional.ofNullable(activeSessions.get(roomId));
+        AtomicReference<RoomSession> ref = activeSessions.get(roomId);
+        if (ref == null) return Optional.empty();
+        RoomSession session = ref.get();
+        return session.isClosed() ? Optional.empty() : Optional.of(session);
     }
-    
+
     public PlayerInfo addPlayer(UUID roomId, String webSocketSessionId, UUID playerId, String username) {
-        RoomSession session = activeSessions.get(roomId);
-        if (session == null) {
+        AtomicReference<RoomSession> ref = activeSessions.get(roomId);
+        if (ref == null) {
             throw new IllegalStateException("Session does not exist for room: " + roomId);
         }
-        
-        PlayerInfo existing = session.getPlayers().get(webSocketSessionId);
-        if (existing != null) {
-            existing.setLastHeartbeat(Instant.now());
-            return existing;
-        }
-        
-        PlayerInfo player = new PlayerInfo(
-            webSocketSessionId,
-            playerId,
-            username,
-            null,
-            PlayerStatus.ALIVE,
-            Instant.now(),
-            Instant.now()
-        );
-        
-        session.getPlayers().put(webSocketSessionId, player);
-        session.setLastActivity(Instant.now());
-        
-        if (session.getHostSessionId() == null) {
-            session.setHostSessionId(webSocketSessionId);
-            System.out.println("👑 " + username + " is now the host");
-        }
-        
-        System.out.println("✅ Added player: " + username + " to room " + roomId);
+        return addPlayer(roomId, ref.get().getRoomName(), webSocketSessionId, playerId, username, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Seat a player if the room has a free seat (or one reserved for them), in one CAS with
+     * the capacity check. Returns null if the room is full. Consumes the player's reservation.
+     * If the session was closed or removed since the caller looked it up (last player left,
+     * empty session expired), a fresh one is opened under roomName.
+     */
+    public PlayerInfo addPlayer(UUID roomId, String roomName, String webSocketSessionId, UUID playerId,
+                                String username, int maxPlayers) {
+        Instant now = Instant.now();
+        AtomicReference<RoomSession> ref;
+        RoomSession before;
+        RoomSession after;
+        while (true) {
+            ref = activeSessions.get(roomId);
+            if (ref == null) {
+                getOrCreateSession(roomId, roomName);
+                continue;
+            }
+            before = ref.get();
+            if (before.isClosed()) {
+                getOrCreateSession(roomId, roomName);
+                continue;
+            }
+            PlayerInfo existing = before.getPlayers().get(webSocketSessionId);
+            if (existing != null) {
+                after = before.withPlayers(replace(before.getPlayers(), existing.withLastHeartbeat(now)),
+                    before.getHostSessionId(), before.getVersion());
+            } else {
+                if (before.occupiedSeats(now.toEpochMilli(), playerId) >= maxPlayers) {
+                    return null;
+                }
+                Map<String, PlayerInfo> players = new LinkedHashMap<>(before.getPlayers());
+                players.put(webSocketSessionId,
+                    new PlayerInfo(webSocketSessionId, playerId, username, null, PlayerStatus.ALIVE, now, now));
+                String host = before.getHostSessionId() != null ? before.getHostSessionId() : webSocketSessionId;
+                after = before.withPlayers(players, host, versionClock.incrementAndGet());
+                if (before.getReservations().containsKey(playerId)) {
+                    Map<UUID, Long> reservations = new HashMap<>(before.getReservations());
+                    reservations.remove(playerId);
+                    after = after.withReservations(reservations);
+                }
+            }
+            if (ref.compareAndSet(before, after)) break;
+        }
+
+        PlayerInfo player = after.getPlayers().get(webSocketSessionId);
+        if (!before.getPlayers().containsKey(webSocketSessionId)) {
+            roomTracer.playerJoined(roomId, webSocketSessionId, username, after.getPlayers().size());
+            if (before.getHostSessionId() == null) {
+                roomTracer.hostTransferred(roomId, webSocketSessionId, username);
+            }
+        }
         return player;
     }
-    
+
+    /**
+     * Hold a seat for a player who is about to join over STOMP. Returns false if the room is
+     * full; the seat is released if the join doesn't arrive within ttlMillis.
+     */
+    public boolean reserveSeat(UUID roomId, String roomName, UUID playerId, int maxPlayers, long ttlMillis) {
+        while (true) {
+            getOrCreateSession(roomId, roomName);
+            AtomicReference<RoomSession> ref = activeSessions.get(roomId);
+            if (ref == null) continue;
+
+            RoomSession before = ref.get();
+            if (before.isClosed()) continue;
+            if (before.isSeated(playerId)) return true;
+
+            long now = System.currentTimeMillis();
+            if (before.occupiedSeats(now, playerId) >= maxPlayers) {
+                return false;
+            }
+            Map<UUID, Long> reservations = new HashMap<>(before.getReservations());
+            reservations.put(playerId, now + ttlMillis);
+            if (ref.compareAndSet(before, before.withReservations(reservations))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drop expired reservations, and close sessions left with neither players nor
+     * reservations (e.g. a reservation whose join never came).
+     */
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<UUID, AtomicReference<RoomSession>> entry : activeSessions.entrySet()) {
+            UUID roomId = entry.getKey();
+            AtomicReference<RoomSession> ref = entry.getValue();
+            while (true) {
+                RoomSession before = ref.get();
+                if (before.isClosed()) break;
+
+                Map<UUID, Long> live = new HashMap<>();
+                before.getReservations().forEach((playerId, expiresAt) -> {
+                    if (expiresAt > now) live.put(playerId, expiresAt);
+                });
+                RoomSession after;
+                if (before.getPlayers().isEmpty() && live.isEmpty()) {
+                    after = before.asClosed(versionClock.incrementAndGet());
+                } else if (live.size() != before.getReservations().size()) {
+                    after = before.withReservations(live);
+                } else {
+                    break;
+                }
+                if (ref.compareAndSet(before, after)) {
+                    if (after.isClosed()) {
+                        activeSessions.remove(roomId, ref);
+                        sessionClosed(roomId);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
     public void removePlayer(UUID roomId, String webSocketSessionId) {
-        RoomSession session = activeSessions.get(roomId);
-        if (session == null) return;
-        
-        PlayerInfo removed = session.getPlayers().remove(webSocketSessionId);
-        if (removed == null) return;
-        
-        System.out.println("❌ Removed player: " + removed.getUsername());
-        
-        // Transfer host if needed
-        if (webSocketSessionId.equals(session.getHostSessionId()) && !session.getPlayers().isEmpty()) {
-            String newHost = session.getPlayers().keys().nextElement();
-            session.setHostSessionId(newHost);
-            PlayerInfo newHostPlayer = session.getPlayers().get(newHost);
-            System.out.println("👑 New host: " + newHostPlayer.getUsername());
-        }
-        
-        // Clean up empty sessions
-        if (session.getPlayers().isEmpty()) {
-            activeSessions.remove(roomId);
-            System.out.println("🧹 Cleaned up empty session for room: " + roomId);
-        }
-    }
-    
+        AtomicReference<RoomSession> ref = activeSessions.get(roomId);
+        if (ref == null) return;
+
+        RoomSession before;
+        RoomSession after;
+        PlayerInfo removed;
+        do {
+            before = ref.get();
+            removed = before.getPlayers().get(webSocketSessionId);
+            if (removed == null) return;
+
+            Map<String, PlayerInfo> players = new LinkedHashMap<>(before.getPlayers());
+            players.remove(webSocketSessionId);
+            // An empty room stays open while someone holds a reservation for it
+            if (players.isEmpty() && before.occupiedSeats(System.currentTimeMillis(), null) <= 1) {
+                after = before.asClosed(versionClock.incrementAndGet());
+            } else {
+                // Host passes to the longest-present player, who is in the same snapshot by construction
+                String host = !webSocketSessionId.equals(before.getHostSessionId()) ? before.getHostSessionId()
+                    : players.isEmpty() ? null : players.keySet().iterator().next();
+                after = before.withPlayers(players, host, versionClock.incrementAndGet());
+            }
+        } while (!ref.compareAndSet(before, after));
+
+        roomTracer.playerRemoved(roomId, webSocketSessionId, removed.getUsername(), after.getPlayers().size());
+
+        if (after.isClosed()) {
+            // Clean up empty sessions
+            activeSessions.remove(roomId, ref);
+            sessionClosed(roomId);
+        } else if (after.getHostSessionId() != null && !after.getHostSessionId().equals(before.getHostSessionId())) {
+            PlayerInfo newHostPlayer = after.getPlayers().get(after.getHostSessionId());
+            roomTracer.hostTransferred(roomId, after.getHostSessionId(), newHostPlayer.getUsername());
+        }
+    }
+
     public void updateHeartbeat(UUID roomId, String webSocketSessionId) {
-        RoomSession session = activeSessions.get(roomId);
-        if (session == null) return;
-        
-        PlayerInfo player = session.getPlayers().get(webSocketSessionId);
-        if (player != null) {
-            player.setLastHeartbeat(Instant.now());
-            session.setLastActivity(Instant.now());
+        Instant now = Instant.now();
+        // Heartbeats aren't visible in any projection, so the version stays put
+        update(roomId, session -> {
+            PlayerInfo player = session.getPlayers().get(webSocketSessionId);
+            if (player == null) return session;
+            return session.withPlayers(replace(session.getPlayers(), player.withLastHeartbeat(now)),
+                session.getHostSessionId(), session.getVersion());
+        });
+    }
+
+    /**
+     * Apply a change to one player (role, status) as a new snapshot. No-op if the player left.
+     */
+    public void updatePlayer(UUID roomId, String webSocketSessionId, UnaryOperator<PlayerInfo> change) {
+        update(roomId, session -> {
+            PlayerInfo player = session.getPlayers().get(webSocketSessionId);
+            if (player == null) return session;
+            return session.withPlayers(replace(session.getPlayers(), change.apply(player)),
+                session.getHostSessionId(), versionClock.incrementAndGet());
+        });
+    }
+
+    /**
+     * Give a seated connection a fresh resume token and return it, or null if it isn't seated.
+     * Not visible in any projection, so the version stays put.
+     */
+    public String issueResumeToken(UUID roomId, String webSocketSessionId) {
+        byte[] bytes = new byte[18];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        RoomSession updated = update(roomId, session -> {
+            PlayerInfo player = session.getPlayers().get(webSocketSessionId);
+            if (player == null) return session;
+            return session.withPlayers(replace(session.getPlayers(), player.withResumeToken(token)),
+                session.getHostSessionId(), session.getVersion());
+        });
+        return updated != null && updated.getPlayers().containsKey(webSocketSessionId) ? token : null;
+    }
+
+    public void setPhase(UUID roomId, String phase) {
+        update(roomId, session -> phase.equals(session.getCurrentPhase())
+            ? session
+            : session.withPhase(phase, versionClock.incrementAndGet()));
+    }
+
+    /**
+     * CAS loop for changes that never open or close the session.
+     */
+    private RoomSession update(UUID roomId, UnaryOperator<RoomSession> change) {
+        AtomicReference<RoomSession> ref = activeSessions.get(roomId);
+        if (ref == null) return null;
+        while (true) {
+            RoomSession current = ref.get();
+            if (current.isClosed()) return null;
+            RoomSession next = change.apply(current);
+            if (next == current || ref.compareAndSet(current, next)) {
+                return next;
+            }
         }
     }
-    
+
+    private static Map<String, PlayerInfo> replace(Map<String, PlayerInfo> players, PlayerInfo player) {
+        Map<String, PlayerInfo> copy = new LinkedHashMap<>(players);
+        copy.put(player.getWebSocketSessionId(), player);
+        return copy;
+    }
+
+    /**
+     * Version of the room's session for conditional GETs: changes whenever its players or
+     * host change (heartbeats don't count); 0 while the room has no session.
+     */
+    public long getVersion(UUID roomId) {
+        return getSession(roomId).map(RoomSession::getVersion).orElse(0L);
+    }
+
+    /** Latest version handed out to any session; moves whenever any room's session changes. */
+    public long getLatestVersion() {
+        return versionClock.get();
+    }
+
     public int getPlayerCount(UUID roomId) {
         return getSession(roomId)
             .map(session -> session.getPlayers().size())
             .orElse(0);
     }
-    
+
     public List<PlayerInfo> getAlivePlayers(UUID roomId) {
         return getSession(roomId)
             .map(session -> session.getPlayers().values().stream()
@@ -188,8 +505,32 @@ public class SessionManager {
                 .toList())
             .orElse(Collections.emptyList());
     }
-    
+
+    public int getActiveRoomCount() {
+        return activeSessions.size();
+    }
+
+    public int getActivePlayerCount() {
+        int players = 0;
+        for (AtomicReference<RoomSession> ref : activeSessions.values()) {
+            players += ref.get().getPlayers().size();
+        }
+        return players;
+    }
+
     public Map<UUID, RoomSession> getAllSessions() {
-        return new HashMap<>(activeSessions);
+        Map<UUID, RoomSession> sessions = new HashMap<>();
+        for (Map.Entry<UUID, AtomicReference<RoomSession>> entry : activeSessions.entrySet()) {
+            RoomSession session = entry.getValue().get();
+            if (!session.isClosed()) {
+                sessions.put(entry.getKey(), session);
+            }
+        }
+        return sessions;
+    }
+
+    private void sessionClosed(UUID roomId) {
+        roomTracer.sessionClosed(roomId);
+        eventPublisher.publishEvent(new RoomSessionClosedEvent(roomId, System.currentTimeMillis()));
     }
-}
\ No newline at end of file
+}
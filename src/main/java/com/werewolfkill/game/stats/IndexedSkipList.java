@@ -0,0 +1,161 @@
+package com.werewolfkill.game.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A sorted skip list where every link also records how many elements it skips, so
+ * add, remove, rank-of and element-at-rank are all O(log n) expected.
+ *
+ * Not thread-safe; the comparator must be a total order (no two live elements equal).
+ */
+class IndexedSkipList<E> {
+
+    private static final int MAX_LEVEL = 32;
+    private static final double P = 0.25;
+
+    private static final class Node<E> {
+        final E value;
+        final Node<E>[] next;
+        // width[i]: how many positions next[i] is ahead of this node
+        final int[] width;
+
+        @SuppressWarnings("unchecked")
+        Node(E value, int level) {
+            this.value = value;
+            this.next = new Node[level];
+            this.width = new int[level];
+        }
+    }
+
+    private final Comparator<? super E> comparator;
+    private final Node<E> head = new Node<>(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    IndexedSkipList(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(E value) {
+        @SuppressWarnings("unchecked")
+        Node<E>[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.width[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.width[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node<E> node = new Node<>(value, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.width[i] = update[i].width[i] - (rank[0] - rank[i]);
+            update[i].width[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].width[i]++;
+        }
+        size++;
+    }
+
+    boolean remove(E value) {
+        @SuppressWarnings("unchecked")
+        Node<E>[] update = new Node[MAX_LEVEL];
+
+        Node<E> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        Node<E> target = x.next[0];
+        if (target == null || comparator.compare(target.value, value) != 0) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].width[i] += target.width[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].width[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    /** Zero-based position of the value, or -1 if it isn't in the list. */
+    int indexOf(E value) {
+        Node<E> x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && comparator.compare(x.next[i].value, value) <= 0) {
+                traversed += x.width[i];
+                x = x.next[i];
+            }
+            if (x != head && comparator.compare(x.value, value) == 0) {
+                return traversed - 1;
+            }
+        }
+        return -1;
+    }
+
+    /** Up to count elements starting at the zero-based position from. */
+    List<E> range(int from, int count) {
+        List<E> result = new ArrayList<>(Math.max(0, Math.min(count, size - from)));
+        if (from < 0 || from >= size || count <= 0) {
+            return result;
+        }
+
+        // Walk down to the node at position from + 1 (head is position 0)
+        Node<E> x = head;
+        int traversed = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.width[i] <= from + 1) {
+                traversed += x.width[i];
+                x = x.next[i];
+            }
+        }
+        for (; x != null && result.size() < count; x = x.next[0]) {
+            result.add(x.value);
+        }
+        return result;
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && random.nextDouble() < P) {
+            level++;
+        }
+        return level;
+    }
+}
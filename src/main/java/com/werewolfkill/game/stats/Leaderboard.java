@@ -0,0 +1,285 @@
+package com.werewolfkill.game.stats;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranked boards (most wins first) held in memory, one global and one per game mode, so a
+ * page of the leaderboard or a player's own rank never turns into ORDER BY / COUNT(*).
+ *
+ * Each board is an indexed skip list: top-N pages and "my rank ± neighbours" cost
+ * O(log n) plus the page size. Boards are loaded at startup — the global one from
+ * user_stats, the per-mode ones from user_mode_stats — and updated at game end. Per-mode
+ * totals exist only here, so the games and wins added since the last snapshot are written
+ * back every leaderboard.persist-interval-ms as one multi-row upsert per batch. The upsert
+ * adds to the stored row, like user_stats, so a board that failed to load can't overwrite
+ * persisted totals.
+ */
+@Component
+public class Leaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(Leaderboard.class);
+
+    public static final String GLOBAL = "ALL";
+
+    private static final String UPSERT_CONFLICT = """
+         ON CONFLICT (user_id, game_mode) DO UPDATE SET
+            games_played = user_mode_stats.games_played + EXCLUDED.games_played,
+            wins = user_mode_stats.wins + EXCLUDED.wins,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    // More wins first, then fewer games (better rate), then id so the order is total
+    private static final Comparator<Entry> RANKING = Comparator
+        .comparingInt((Entry e) -> -e.wins)
+        .thenComparingInt(e -> e.gamesPlayed)
+        .thenComparing(e -> e.userId);
+
+    @Value("${leaderboard.persist-interval-ms:30000}")
+    private long persistIntervalMs;
+
+    @Value("${leaderboard.batch-size:500}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ConcurrentHashMap<String, Board> boards = new ConcurrentHashMap<>();
+    private ScheduledExecutorService persister;
+
+    /** One ranked row; replaced, never mutated, when the player's totals change. */
+    private static final class Entry {
+        final UUID userId;
+        final String username;
+        final int wins;
+        final int gamesPlayed;
+
+        Entry(UUID userId, String username, int wins, int gamesPlayed) {
+            this.userId = userId;
+            this.username = username;
+            this.wins = wins;
+            this.gamesPlayed = gamesPlayed;
+        }
+
+        Map<String, Object> toMap(int rank) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("rank", rank);
+            data.put("userId", userId.toString());
+            data.put("username", username);
+            data.put("wins", wins);
+            data.put("gamesPlayed", gamesPlayed);
+            return data;
+        }
+    }
+
+    private static final class Board {
+        final IndexedSkipList<Entry> ranking = new IndexedSkipList<>(RANKING);
+        final Map<UUID, Entry> byUser = new HashMap<>();
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+        // Games and wins per player since the last snapshot; guarded by lock's write side
+        Map<UUID, int[]> pending = new HashMap<>();
+
+        void put(Entry entry) {
+            Entry previous = byUser.put(entry.userId, entry);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            ranking.add(entry);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        try {
+            load(GLOBAL, "SELECT s.user_id, u.username, s.wins, s.games_played, NULL AS game_mode "
+                + "FROM user_stats s LEFT JOIN users u ON u.id = s.user_id");
+            load(null, "SELECT s.user_id, u.username, s.wins, s.games_played, s.game_mode "
+                + "FROM user_mode_stats s LEFT JOIN users u ON u.id = s.user_id");
+        } catch (RuntimeException e) {
+            log.error("Failed to load leaderboard: {}", e.getMessage());
+        }
+        boards.forEach((mode, board) ->
+            log.info("Leaderboard {}: {} players", mode, board.ranking.size()));
+
+        persister = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        persister.scheduleWithFixedDelay(this::persist, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (persister != null) {
+            persister.shutdownNow();
+            persist();
+        }
+    }
+
+    private void load(String fixedMode, String sql) {
+        jdbcTemplate.query(sql, rs -> {
+            String mode = fixedMode != null ? fixedMode : rs.getString("game_mode");
+            String username = rs.getString("username");
+            Entry entry = new Entry(rs.getObject("user_id", UUID.class), username != null ? username : "Unknown",
+                rs.getInt("wins"), rs.getInt("games_played"));
+            board(mode).put(entry);
+        });
+    }
+
+    /**
+     * Apply one finished game (player id -> won) to the global board and the mode's board.
+     */
+    public void recordGame(String gameMode, Map<UUID, Boolean> results, Map<UUID, String> usernames) {
+        for (String mode : List.of(GLOBAL, gameMode)) {
+            Board board = board(mode);
+            board.lock.writeLock().lock();
+            try {
+                results.forEach((userId, won) -> {
+                    Entry previous = board.byUser.get(userId);
+                    int wins = (previous != null ? previous.wins : 0) + (won ? 1 : 0);
+                    int gamesPlayed = (previous != null ? previous.gamesPlayed : 0) + 1;
+                    String username = usernames.getOrDefault(userId, previous != null ? previous.username : "Unknown");
+                    board.put(new Entry(userId, username, wins, gamesPlayed));
+                    if (!GLOBAL.equals(mode)) {
+                        int[] delta = board.pending.computeIfAbsent(userId, id -> new int[2]);
+                        delta[0]++;
+                        delta[1] += won ? 1 : 0;
+                    }
+                });
+            } finally {
+                board.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** A page of the board, best first; ranks are 1-based. */
+    public List<Map<String, Object>> getTop(String gameMode, int offset, int limit) {
+        Board board = boards.get(gameMode);
+        List<Map<String, Object>> page = new ArrayList<>();
+        if (board == null) return page;
+
+        board.lock.readLock().lock();
+        try {
+            int rank = offset + 1;
+            for (Entry entry : board.ranking.range(offset, limit)) {
+                page.add(entry.toMap(rank++));
+            }
+        } finally {
+            board.lock.readLock().unlock();
+        }
+        return page;
+    }
+
+    /**
+     * The player's rank plus up to radius players either side of them, or null if they
+     * aren't on this board.
+     */
+    public Map<String, Object> getAround(String gameMode, UUID userId, int radius) {
+        Board board = boards.get(gameMode);
+        if (board == null) return null;
+
+        board.lock.readLock().lock();
+        try {
+            Entry entry = board.byUser.get(userId);
+            if (entry == null) return null;
+
+            int index = board.ranking.indexOf(entry);
+            int from = Math.max(0, index - radius);
+            List<Map<String, Object>> neighbours = new ArrayList<>();
+            int rank = from + 1;
+            for (Entry neighbour : board.ranking.range(from, index - from + radius + 1)) {
+                neighbours.add(neighbour.toMap(rank++));
+            }
+
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("gameMode", gameMode);
+            data.put("rank", index + 1);
+            data.put("totalPlayers", board.ranking.size());
+            data.put("entries", neighbours);
+            return data;
+        } finally {
+            board.lock.readLock().unlock();
+        }
+    }
+
+    private Board board(String gameMode) {
+        return boards.computeIfAbsent(gameMode, mode -> new Board());
+    }
+
+    /** Add each mode's games and wins since the last snapshot; failed batches are retried next time. */
+    private void persist() {
+        for (Map.Entry<String, Board> modeBoard : boards.entrySet()) {
+            String mode = modeBoard.getKey();
+            Board board = modeBoard.getValue();
+            if (GLOBAL.equals(mode)) continue;
+
+            Map<UUID, int[]> changed;
+            board.lock.writeLock().lock();
+            try {
+                if (board.pending.isEmpty()) continue;
+                changed = board.pending;
+                board.pending = new HashMap<>();
+            } finally {
+                board.lock.writeLock().unlock();
+            }
+
+            List<Map.Entry<UUID, int[]>> rows = new ArrayList<>(changed.entrySet());
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                List<Map.Entry<UUID, int[]>> batch = rows.subList(start, Math.min(rows.size(), start + batchSize));
+                try {
+                    upsert(mode, batch);
+                } catch (RuntimeException e) {
+                    log.warn("Leaderboard snapshot for {} failed, retrying next time: {}", mode, e.getMessage());
+                    board.lock.writeLock().lock();
+                    try {
+                        batch.forEach(row -> board.pending.merge(row.getKey(), row.getValue(),
+                            (a, b) -> new int[] {a[0] + b[0], a[1] + b[1]}));
+                    } finally {
+                        board.lock.writeLock().unlock();
+                    }
+                }
+            }
+        }
+    }
+
+    private void upsert(String gameMode, List<Map.Entry<UUID, int[]>> rows) {
+        Timestamp now = Timestamp.from(Instant.now());
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO user_mode_stats (user_id, game_mode, games_played, wins, updated_at) VALUES ");
+        List<Object> args = new ArrayList<>(rows.size() * 5);
+        for (Map.Entry<UUID, int[]> row : rows) {
+            sql.append(args.isEmpty() ? "" : ", ").append("(?, ?, ?, ?, ?)");
+            args.add(row.getKey());
+            args.add(gameMode);
+            args.add(row.getValue()[0]);
+            args.add(row.getValue()[1]);
+            args.add(now);
+        }
+        sql.append(UPSERT_CONFLICT);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
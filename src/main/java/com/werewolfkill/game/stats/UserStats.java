@@ -0,0 +1,39 @@
+package com.werewolfkill.game.stats;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A user's lifetime totals, as stored in user_stats. Immutable, so cached copies can be
+ * handed out and replaced without locking.
+ */
+public final class UserStats {
+    private final UUID userId;
+    private final int gamesPlayed;
+    private final int wins;
+    private final int losses;
+    private final Instant lastPlayedAt;
+
+    public UserStats(UUID userId, int gamesPlayed, int wins, int losses, Instant lastPlayedAt) {
+        this.userId = userId;
+        this.gamesPlayed = gamesPlayed;
+        this.wins = wins;
+        this.losses = losses;
+        this.lastPlayedAt = lastPlayedAt;
+    }
+
+    public static UserStats empty(UUID userId) {
+        return new UserStats(userId, 0, 0, 0, null);
+    }
+
+    public UUID getUserId() { return userId; }
+    public int getGamesPlayed() { return gamesPlayed; }
+    public int getWins() { return wins; }
+    public int getLosses() { return losses; }
+    public Instant getLastPlayedAt() { return lastPlayedAt; }
+
+    /** These totals plus one finished game, mirroring the upsert. */
+    public UserStats plusGame(boolean won, Instant playedAt) {
+        return new UserStats(userId, gamesPlayed + 1, wins + (won ? 1 : 0), losses + (won ? 0 : 1), playedAt);
+    }
+}
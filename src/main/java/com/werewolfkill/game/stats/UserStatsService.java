@@ -0,0 +1,120 @@
+package com.werewolfkill.game.stats;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Win/loss totals per user, kept current at game end instead of aggregated from history.
+ *
+ * A finished game is one multi-row INSERT ... ON CONFLICT DO UPDATE covering every player,
+ * and the same increments are applied to any cached profiles. Reads are one primary-key
+ * lookup, served from an LRU of recently read profiles when possible.
+ */
+@Service
+public class UserStatsService {
+
+    private static final String UPSERT_CONFLICT = """
+         ON CONFLICT (user_id) DO UPDATE SET
+            games_played = user_stats.games_played + EXCLUDED.games_played,
+            wins = user_stats.wins + EXCLUDED.wins,
+            losses = user_stats.losses + EXCLUDED.losses,
+            last_played_at = EXCLUDED.last_played_at
+        """;
+
+    private static final RowMapper<UserStats> ROW_MAPPER = (rs, rowNum) -> new UserStats(
+        rs.getObject("user_id", UUID.class),
+        rs.getInt("games_played"),
+        rs.getInt("wins"),
+        rs.getInt("losses"),
+        rs.getTimestamp("last_played_at").toInstant());
+
+    @Value("${user-stats.cache-size:10000}")
+    private int cacheSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Access-ordered LRU; guarded by itself
+    private Map<UUID, UserStats> cache;
+
+    // Bumped (under the cache lock) after every committed upsert
+    private final AtomicLong writes = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, UserStats> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public UserStats getStats(UUID userId) {
+        synchronized (cache) {
+            UserStats cached = cache.get(userId);
+            if (cached != null) return cached;
+        }
+
+        long stamp = writes.get();
+        List<UserStats> rows = jdbcTemplate.query(
+            "SELECT user_id, games_played, wins, losses, last_played_at FROM user_stats WHERE user_id = ?",
+            ROW_MAPPER, userId);
+        UserStats stats = rows.isEmpty() ? UserStats.empty(userId) : rows.get(0);
+
+        synchronized (cache) {
+            // A game that ended during the read may be missing from it; serve it, don't cache it
+            if (writes.get() == stamp) {
+                cache.putIfAbsent(userId, stats);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Record one finished game: player id -> whether they were on the winning side.
+     * Runs in its own statement, so cached profiles are only advanced once it has committed.
+     */
+    public void recordGame(Map<UUID, Boolean> results) {
+        if (results.isEmpty()) return;
+
+        Instant now = Instant.now();
+        Timestamp playedAt = Timestamp.from(now);
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO user_stats (user_id, games_played, wins, losses, last_played_at) VALUES ");
+        List<Object> args = new ArrayList<>(results.size() * 4);
+        for (Map.Entry<UUID, Boolean> result : results.entrySet()) {
+            boolean won = result.getValue();
+            sql.append(args.isEmpty() ? "" : ", ").append("(?, 1, ?, ?, ?)");
+            args.add(result.getKey());
+            args.add(won ? 1 : 0);
+            args.add(won ? 0 : 1);
+            args.add(playedAt);
+        }
+        sql.append(UPSERT_CONFLICT);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+
+        synchronized (cache) {
+            writes.incrementAndGet();
+            results.forEach((userId, won) -> {
+                UserStats cached = cache.get(userId);
+                if (cached != null) {
+                    cache.put(userId, cached.plusGame(won, now));
+                }
+            });
+        }
+    }
+}
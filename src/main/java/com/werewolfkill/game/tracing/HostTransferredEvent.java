@@ -0,0 +1,20 @@
+package com.werewolfkill.game.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("werewolf.HostTransferred")
+@Label("Host Transferred")
+@Category({"Werewolf", "Session"})
+class HostTransferredEvent extends Event {
+    @Label("Room Id")
+    String roomId;
+
+    @Label("New Host Session Id")
+    String sessionId;
+
+    @Label("New Host Username")
+    String username;
+}
@@ -0,0 +1,23 @@
+package com.werewolfkill.game.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("werewolf.PlayerJoined")
+@Label("Player Joined")
+@Category({"Werewolf", "Session"})
+class PlayerJoinedEvent extends Event {
+    @Label("Room Id")
+    String roomId;
+
+    @Label("WebSocket Session Id")
+    String sessionId;
+
+    @Label("Username")
+    String username;
+
+    @Label("Players After Join")
+    int playerCount;
+}
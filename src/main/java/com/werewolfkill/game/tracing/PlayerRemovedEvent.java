@@ -0,0 +1,23 @@
+package com.werewolfkill.game.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("werewolf.PlayerRemoved")
+@Label("Player Removed")
+@Category({"Werewolf", "Session"})
+class PlayerRemovedEvent extends Event {
+    @Label("Room Id")
+    String roomId;
+
+    @Label("WebSocket Session Id")
+    String sessionId;
+
+    @Label("Username")
+    String username;
+
+    @Label("Players After Removal")
+    int playerCount;
+}
@@ -0,0 +1,28 @@
+package com.werewolfkill.game.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("werewolf.RoomBroadcast")
+@Label("Room Broadcast")
+@Category({"Werewolf", "Messaging"})
+class RoomBroadcastEvent extends Event {
+    @Label("Room Id")
+    String roomId;
+
+    @Label("Destination")
+    String destination;
+
+    @Label("Sequence")
+    long seq;
+
+    @Label("Payload Size")
+    @DataAmount
+    int payloadBytes;
+
+    @Label("Fan-out")
+    int fanOut;
+}
@@ -0,0 +1,173 @@
+package com.werewolfkill.game.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hot-path tracing for room sessions.
+ *
+ * Each call emits a JDK Flight Recorder event (only materialised while a recording
+ * has the event enabled, e.g. -XX:StartFlightRecording) and appends a small record
+ * to a bounded per-room ring that stays queryable through /api/admin/trace/{roomId} after
+ * the room is gone. tracing.ring-size=0 turns the ring off.
+ */
+@Component
+public class RoomTracer {
+
+    @Value("${tracing.ring-size:64}")
+    private int ringSize;
+
+    @Value("${tracing.max-rooms:1000}")
+    private int maxRooms;
+
+    private final ConcurrentHashMap<UUID, ArrayDeque<TraceRecord>> rings = new ConcurrentHashMap<>();
+
+    // Rooms in the order their ring was created; the oldest is dropped past max-rooms
+    private final ConcurrentLinkedQueue<UUID> ringOrder = new ConcurrentLinkedQueue<>();
+
+    public static class TraceRecord {
+        private final long timestamp;
+        private final String type;
+        private final String detail;
+
+        public TraceRecord(long timestamp, String type, String detail) {
+            this.timestamp = timestamp;
+            this.type = type;
+            this.detail = detail;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public String getType() { return type; }
+        public String getDetail() { return detail; }
+    }
+
+    public void sessionCreated(UUID roomId, String roomName) {
+        if (ringSize > 0) record(roomId, "SESSION_CREATED", roomName);
+    }
+
+    public void sessionClosed(UUID roomId) {
+        if (ringSize > 0) record(roomId, "SESSION_CLOSED", null);
+    }
+
+    public void playerJoined(UUID roomId, String sessionId, String username, int playerCount) {
+        PlayerJoinedEvent event = new PlayerJoinedEvent();
+        if (event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.sessionId = sessionId;
+            event.username = username;
+            event.playerCount = playerCount;
+            event.commit();
+        }
+        if (ringSize > 0) record(roomId, "PLAYER_JOINED", username + " (" + sessionId + "), players=" + playerCount);
+    }
+
+    public void playerRemoved(UUID roomId, String sessionId, String username, int playerCount) {
+        PlayerRemovedEvent event = new PlayerRemovedEvent();
+        if (event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.sessionId = sessionId;
+            event.username = username;
+            event.playerCount = playerCount;
+            event.commit();
+        }
+        if (ringSize > 0) record(roomId, "PLAYER_REMOVED", username + " (" + sessionId + "), players=" + playerCount);
+    }
+
+    public void hostTransferred(UUID roomId, String sessionId, String username) {
+        HostTransferredEvent event = new HostTransferredEvent();
+        if (event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.sessionId = sessionId;
+            event.username = username;
+            event.commit();
+        }
+        if (ringSize > 0) record(roomId, "HOST_TRANSFERRED", username + " (" + sessionId + ")");
+    }
+
+    public void roomBroadcast(UUID roomId, String destination, long seq, int payloadBytes, int fanOut) {
+        RoomBroadcastEvent event = new RoomBroadcastEvent();
+        if (event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.destination = destination;
+            event.seq = seq;
+            event.payloadBytes = payloadBytes;
+            event.fanOut = fanOut;
+            event.commit();
+        }
+        if (ringSize > 0) record(roomId, "ROOM_BROADCAST",
+            destination + " seq=" + seq + ", bytes=" + payloadBytes + ", fanOut=" + fanOut);
+    }
+
+    public void staleEvicted(UUID roomId, String sessionId, long silenceMillis) {
+        StaleEvictedEvent event = new StaleEvictedEvent();
+        if (event.shouldCommit()) {
+            event.roomId = roomId.toString();
+            event.sessionId = sessionId;
+            event.silenceMillis = silenceMillis;
+            event.commit();
+        }
+        if (ringSize > 0) record(roomId, "STALE_EVICTED", sessionId + " silent " + silenceMillis + "ms");
+    }
+
+    /**
+     * Not room-scoped (a connection may be in no room, or several), so JFR only.
+     */
+    public void slowConsumerClosed(String sessionId, int queued, int conflated) {
+        SlowConsumerClosedEvent event = new SlowConsumerClosedEvent();
+        if (event.shouldCommit()) {
+            event.sessionId = sessionId;
+            event.queued = queued;
+            event.conflated = conflated;
+            event.commit();
+        }
+    }
+
+    /**
+     * Recent records for one room, oldest first.
+     */
+    public List<TraceRecord> getTrace(UUID roomId) {
+        ArrayDeque<TraceRecord> ring = rings.get(roomId);
+        if (ring == null) return List.of();
+        synchronized (ring) {
+            return new ArrayList<>(ring);
+        }
+    }
+
+    /**
+     * Rooms with a retained trace, oldest first.
+     */
+    public List<UUID> getTracedRooms() {
+        return new ArrayList<>(ringOrder);
+    }
+
+    private void record(UUID roomId, String type, String detail) {
+        TraceRecord record = new TraceRecord(System.currentTimeMillis(), type, detail);
+
+        ArrayDeque<TraceRecord> ring = rings.get(roomId);
+        if (ring == null) {
+            ring = rings.computeIfAbsent(roomId, id -> {
+                ringOrder.add(id);
+                return new ArrayDeque<>(ringSize);
+            });
+            while (rings.size() > maxRooms) {
+                UUID eldest = ringOrder.poll();
+                if (eldest == null) break;
+                rings.remove(eldest);
+            }
+        }
+
+        synchronized (ring) {
+            if (ring.size() == ringSize) {
+                ring.pollFirst();
+            }
+            ring.addLast(record);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.werewolfkill.game.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("werewolf.SlowConsumerClosed")
+@Label("Slow Consumer Closed")
+@Category({"Werewolf", "Session"})
+class SlowConsumerClosedEvent extends Event {
+    @Label("WebSocket Session Id")
+    String sessionId;
+
+    @Label("Queued Messages")
+    int queued;
+
+    @Label("Conflated Snapshots")
+    int conflated;
+}
@@ -0,0 +1,22 @@
+package com.werewolfkill.game.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("werewolf.StaleEvicted")
+@Label("Stale Connection Evicted")
+@Category({"Werewolf", "Session"})
+class StaleEvictedEvent extends Event {
+    @Label("Room Id")
+    String roomId;
+
+    @Label("WebSocket Session Id")
+    String sessionId;
+
+    @Label("Silence")
+    @Timespan(Timespan.MILLISECONDS)
+    long silenceMillis;
+}
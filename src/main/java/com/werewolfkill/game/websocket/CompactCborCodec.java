@@ -0,0 +1,212 @@
+package com.werewolfkill.game.websocket;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Transcodes the JSON payloads we broadcast into compact CBOR:
+ * well-known keys become small integer field ids and the values of id fields
+ * (UUID_FIELDS) become 16-byte binary values tagged with CBOR tag 37. Any other
+ * string, UUID-shaped or not, is sent as-is, so chat text and usernames decode to
+ * exactly what was sent. Inbound CBOR goes the other way, so clients may send
+ * either field ids or full names.
+ *
+ * The dictionary is part of the wire protocol: ids are list positions, so new
+ * keys may only be appended.
+ */
+@Component
+public class CompactCborCodec {
+
+    public static final List<String> FIELD_DICTIONARY = List.of(
+        "type",
+        "roomId",
+        "roomName",
+        "players",
+        "hostUsername",
+        "playerCount",
+        "currentPhase",
+        "timestamp",
+        "playerId",
+        "username",
+        "isHost",
+        "status",
+        "role",
+        "message",
+        "phase",
+        "dayNumber",
+        "timeRemaining",
+        "lastEvent",
+        "winner"
+    );
+
+    /**
+     * Fields whose values are always UUIDs. Only these are sent as tag-37 binaries;
+     * like the dictionary, this is part of the wire protocol.
+     */
+    public static final Set<String> UUID_FIELDS = Set.of(
+        "id",
+        "roomId",
+        "playerId",
+        "hostId",
+        "userId",
+        "createdBy",
+        "voterId",
+        "actorId",
+        "targetId"
+    );
+
+    /** RFC 9562 / IANA CBOR tag for binary UUIDs */
+    public static final int UUID_TAG = 37;
+
+    private static final Map<String, Integer> FIELD_IDS = new HashMap<>();
+    static {
+        for (int i = 0; i < FIELD_DICTIONARY.size(); i++) {
+            FIELD_IDS.put(FIELD_DICTIONARY.get(i), i);
+        }
+    }
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final CBORFactory cborFactory = new CBORFactory();
+
+    public byte[] transcodeJson(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 16);
+        try (JsonParser parser = jsonFactory.createParser(json);
+             CBORGenerator generator = cborFactory.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case START_OBJECT -> generator.writeStartObject();
+                    case END_OBJECT -> generator.writeEndObject();
+                    case START_ARRAY -> generator.writeStartArray();
+                    case END_ARRAY -> generator.writeEndArray();
+                    case FIELD_NAME -> writeFieldName(generator, parser.currentName());
+                    case VALUE_STRING -> writeString(generator, parser.currentName(), parser.getText());
+                    case VALUE_NUMBER_INT -> {
+                        if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                            generator.writeNumber(parser.getBigIntegerValue());
+                        } else {
+                            generator.writeNumber(parser.getLongValue());
+                        }
+                    }
+                    case VALUE_NUMBER_FLOAT -> generator.writeNumber(parser.getDoubleValue());
+                    case VALUE_TRUE -> generator.writeBoolean(true);
+                    case VALUE_FALSE -> generator.writeBoolean(false);
+                    case VALUE_NULL -> generator.writeNull();
+                    default -> throw new IOException("Unexpected JSON token: " + token);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to transcode payload to CBOR", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * CBOR from a client back to plain JSON: integer keys in the dictionary become their
+     * names, tag-37 binaries become UUID strings, other binaries base64 strings.
+     */
+    public byte[] decodeToJson(byte[] cbor) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(cbor.length * 2 + 16);
+        try (CBORParser parser = cborFactory.createParser(cbor);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case START_OBJECT -> generator.writeStartObject();
+                    case END_OBJECT -> generator.writeEndObject();
+                    case START_ARRAY -> generator.writeStartArray();
+                    case END_ARRAY -> generator.writeEndArray();
+                    case FIELD_NAME -> generator.writeFieldName(fieldName(parser.currentName()));
+                    case VALUE_STRING -> generator.writeString(parser.getText());
+                    case VALUE_NUMBER_INT -> {
+                        if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                            generator.writeNumber(parser.getBigIntegerValue());
+                        } else {
+                            generator.writeNumber(parser.getLongValue());
+                        }
+                    }
+                    case VALUE_NUMBER_FLOAT -> generator.writeNumber(parser.getDoubleValue());
+                    case VALUE_TRUE -> generator.writeBoolean(true);
+                    case VALUE_FALSE -> generator.writeBoolean(false);
+                    case VALUE_NULL -> generator.writeNull();
+                    case VALUE_EMBEDDED_OBJECT -> {
+                        byte[] bytes = parser.getBinaryValue();
+                        if (parser.getCurrentTag() == UUID_TAG && bytes.length == 16) {
+                            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                            generator.writeString(new UUID(buffer.getLong(), buffer.getLong()).toString());
+                        } else {
+                            generator.writeBinary(bytes);
+                        }
+                    }
+                    default -> throw new IOException("Unexpected CBOR token: " + token);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode CBOR payload", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String fieldName(String key) {
+        if (!key.isEmpty() && key.length() <= 3 && key.chars().allMatch(Character::isDigit)) {
+            int id = Integer.parseInt(key);
+            if (id < FIELD_DICTIONARY.size()) {
+                return FIELD_DICTIONARY.get(id);
+            }
+        }
+        return key;
+    }
+
+    private void writeFieldName(CBORGenerator generator, String name) throws IOException {
+        Integer id = FIELD_IDS.get(name);
+        if (id != null) {
+            generator.writeFieldId(id);
+        } else {
+            generator.writeFieldName(name);
+        }
+    }
+
+    /** Array elements and root values have no field name, so they are never tagged. */
+    private void writeString(CBORGenerator generator, String field, String value) throws IOException {
+        UUID uuid = field != null && UUID_FIELDS.contains(field) ? parseUuid(value) : null;
+        if (uuid == null) {
+            generator.writeString(value);
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(16);
+        bytes.putLong(uuid.getMostSignificantBits());
+        bytes.putLong(uuid.getLeastSignificantBits());
+        generator.writeTag(UUID_TAG);
+        generator.writeBinary(bytes.array());
+    }
+
+    /** The UUID, if value is one in canonical form, so decoding gives back the same string. */
+    private UUID parseUuid(String value) {
+        if (value.length() != 36 || value.charAt(8) != '-' || value.charAt(13) != '-'
+                || value.charAt(18) != '-' || value.charAt(23) != '-') {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,17 +1,19 @@
 package com.werewolfkill.game.websocket;
 
+import com.werewolfkill.game.admission.AdmissionControl;
 import com.werewolfkill.game.model.Room;
 import com.werewolfkill.game.repository.RoomRepository;
+import com.werewolfkill.game.service.WebSocketService;
 import com.werewolfkill.game.session.SessionManager;
-import com.werewolfkill.game.session.SessionManager.PlayerInfo;
 import com.werewolfkill.game.session.SessionManager.RoomSession;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
@@ -27,7 +29,28 @@ public class GameWebSocketHandler {
     private RoomRepository roomRepository;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketService webSocketService;
+
+    @Autowired
+    private RoomEventLog roomEventLog;
+
+    @Autowired
+    private RoomStateBuilder roomStateBuilder;
+
+    @Autowired
+    private AdmissionControl admissionControl;
+
+    @Autowired
+    private LobbyFeed lobbyFeed;
+
+    /**
+     * Lobby snapshot, answered straight to the subscriber. Subscribe to /topic/lobby first
+     * and apply only deltas with a seq above the snapshot's.
+     */
+    @SubscribeMapping("/lobby")
+    public Map<String, Object> handleLobbySubscribe() {
+        return lobbyFeed.snapshot();
+    }
 
     @MessageMapping("/room/{roomId}/join")
     public void handleJoinRoom(
@@ -47,32 +70,143 @@ public class GameWebSocketHandler {
         UUID playerId = UUID.fromString(playerIdStr);
         UUID roomUuid = UUID.fromString(roomId);
 
+        // Under load, new players are turned away; anyone already seated gets through, but only
+        // if this connection is that player (playerId is whatever the client sent)
+        if (!isSeatedAsSelf(roomUuid, playerId, headerAccessor) && !admit(webSocketSessionId)) {
+            return;
+        }
+
+        if (enterRoom(roomUuid, playerId, username, headerAccessor) == null) {
+            return;
+        }
+
+        // The token this connection's owner must present to resume after a drop
+        Map<String, Object> joined = new HashMap<>();
+        joined.put("type", "RESUME_TOKEN");
+        joined.put("roomId", roomId);
+        joined.put("resumeToken", sessionManager.issueResumeToken(roomUuid, webSocketSessionId));
+        webSocketService.sendToSession(webSocketSessionId, "/queue/resume", joined);
+
+        // Broadcast updated state
+        webSocketService.broadcastRoomState(roomUuid);
+    }
+
+    /**
+     * Rejoin after a dropped connection. The client presents the epoch and last seq it
+     * saw on the room topics and gets only the missed events (or one snapshot) on
+     * /user/queue/resume; everyone else gets a coalesced state update.
+     *
+     * If the old connection is still seated, the client must also present the resumeToken it
+     * was given at join (RESUME_TOKEN on /user/queue/resume); only then is the old entry
+     * replaced. Every RESUME reply carries a fresh token. Without a seat to take over, a
+     * resume is a join and goes through admission like one.
+     */
+    @MessageMapping("/room/{roomId}/resume")
+    public void handleResume(
+            @DestinationVariable String roomId,
+            Map<String, Object> message,
+            StompHeaderAccessor headerAccessor) {
+
+        Object playerIdObj = message.get("playerId");
+        Object usernameObj = message.get("username");
+        String webSocketSessionId = headerAccessor.getSessionId();
+
+        if (playerIdObj == null || usernameObj == null) {
+            sendError(webSocketSessionId, "playerId and username required");
+            return;
+        }
+
+        UUID playerId = UUID.fromString(playerIdObj.toString());
+        UUID roomUuid = UUID.fromString(roomId);
+        long epoch = message.get("epoch") != null ? Long.parseLong(message.get("epoch").toString()) : 0;
+        long lastSeq = message.get("lastSeq") != null ? Long.parseLong(message.get("lastSeq").toString()) : 0;
+
+        String resumeToken = message.get("resumeToken") != null ? message.get("resumeToken").toString() : null;
+
+        // Drop the entry left behind by the old connection if it hasn't timed out yet, but only
+        // for the client holding its token
+        List<SessionManager.PlayerInfo> stale = sessionManager.getSession(roomUuid)
+            .map(existing -> existing.getPlayers().values().stream()
+                .filter(p -> p.getPlayerId().equals(playerId)
+                        && !p.getWebSocketSessionId().equals(webSocketSessionId))
+                .toList())
+            .orElse(List.of());
+        if (!stale.isEmpty() && stale.stream().noneMatch(p -> p.matchesResumeToken(resumeToken))) {
+            sendError(webSocketSessionId, "Invalid resume token");
+            return;
+        }
+        if (stale.isEmpty() && !isSeatedAsSelf(roomUuid, playerId, headerAccessor) && !admit(webSocketSessionId)) {
+            return;
+        }
+        stale.forEach(p -> sessionManager.removePlayer(roomUuid, p.getWebSocketSessionId()));
+
+        RoomSession session = enterRoom(roomUuid, playerId, usernameObj.toString(), headerAccessor);
+        if (session == null) {
+            return;
+        }
+
+        Map<String, Object> reply = new HashMap<>();
+        reply.put("roomId", roomId);
+        reply.put("resumeToken", sessionManager.issueResumeToken(roomUuid, webSocketSessionId));
+        Optional<List<RoomEventLog.RoomEvent>> missed = roomEventLog.eventsSince(roomUuid, epoch, lastSeq);
+        if (missed.isPresent()) {
+            List<Map<String, Object>> events = missed.get().stream()
+                .map(event -> {
+                    Map<String, Object> data = new HashMap<>();
+                    data.put("seq", event.getSeq());
+                    data.put("destination", event.getDestination());
+                    data.put("payload", event.getPayload());
+                    return data;
+                })
+                .toList();
+            reply.put("type", "RESUME");
+            reply.put("epoch", epoch);
+            reply.put("events", events);
+        } else {
+            long[] position = roomEventLog.position(roomUuid);
+            reply.put("type", "RESUME_SNAPSHOT");
+            reply.put("epoch", position[0]);
+            reply.put("seq", position[1]);
+            reply.put("state", roomStateBuilder.build(session, false));
+        }
+        webSocketService.sendToSession(webSocketSessionId, "/queue/resume", reply);
+
+        // Others learn about the rejoin in the next coalesced update, not one broadcast per client
+        webSocketService.scheduleRoomStateBroadcast(roomUuid);
+    }
+
+    /**
+     * Validate the room, register the player in its session and remember the room on
+     * the WebSocket session. Returns null (after sending an error) if the player can't enter.
+     */
+    private RoomSession enterRoom(UUID roomUuid, UUID playerId, String username,
+                                  StompHeaderAccessor headerAccessor) {
+        String webSocketSessionId = headerAccessor.getSessionId();
+
         // Verify room exists
         Room room = roomRepository.findById(roomUuid).orElse(null);
-        if (room == null) {
+        if (room == null || Boolean.TRUE.equals(room.getPooled())) {
             sendError(webSocketSessionId, "Room does not exist");
-            return;
+            return null;
         }
 
         // Get or create session
         RoomSession session = sessionManager.getOrCreateSession(roomUuid, room.getName());
 
-        // Check max players
-        if (session.getPlayers().size() >= room.getMaxPlayers()) {
+        // Take a seat (or the one reserved for this player) atomically with the capacity check
+        if (sessionManager.addPlayer(roomUuid, room.getName(), webSocketSessionId, playerId, username,
+                room.getMaxPlayers()) == null) {
             sendError(webSocketSessionId, "Room is full");
-            return;
+            return null;
         }
 
         // Store in WebSocket session attributes
-        headerAccessor.getSessionAttributes().put("roomId", roomId);
-        headerAccessor.getSessionAttributes().put("playerId", playerIdStr);
+        headerAccessor.getSessionAttributes().put("roomId", roomUuid.toString());
+        headerAccessor.getSessionAttributes().put("playerId", playerId.toString());
         headerAccessor.getSessionAttributes().put("username", username);
 
-        // Add player to session
-        sessionManager.addPlayer(roomUuid, webSocketSessionId, playerId, username);
-
-        // Broadcast updated state
-        broadcastRoomState(roomUuid);
+        // Hand back the snapshot that includes them
+        return sessionManager.getSession(roomUuid).orElse(session);
     }
 
     @MessageMapping("/room/{roomId}/leave")
@@ -84,7 +218,7 @@ public class GameWebSocketHandler {
         UUID roomUuid = UUID.fromString(roomId);
 
         sessionManager.removePlayer(roomUuid, webSocketSessionId);
-        broadcastRoomState(roomUuid);
+        webSocketService.broadcastRoomState(roomUuid);
         headerAccessor.getSessionAttributes().clear();
     }
 
@@ -109,47 +243,47 @@ public class GameWebSocketHandler {
 
         UUID roomId = UUID.fromString(roomIdStr);
         sessionManager.removePlayer(roomId, webSocketSessionId);
-        broadcastRoomState(roomId);
+        webSocketService.broadcastRoomState(roomId);
     }
 
-    private void broadcastRoomState(UUID roomId) {
-        Optional<RoomSession> sessionOpt = sessionManager.getSession(roomId);
-        if (sessionOpt.isEmpty()) return;
-
-        RoomSession session = sessionOpt.get();
-
-        List<Map<String, Object>> playerList = session.getPlayers().values().stream()
-            .map(player -> {
-                Map<String, Object> playerData = new HashMap<>();
-                playerData.put("playerId", player.getPlayerId().toString());
-                playerData.put("username", player.getUsername());
-                playerData.put("isHost", player.getWebSocketSessionId().equals(session.getHostSessionId()));
-                playerData.put("status", player.getStatus() != null ? player.getStatus().toString() : "ALIVE");
-                playerData.put("role", player.getRole() != null ? player.getRole().toString() : null);
-                return playerData;
-            })
-            .toList();
-
-        PlayerInfo host = session.getPlayers().get(session.getHostSessionId());
-
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", "ROOM_STATE_UPDATE");
-        message.put("roomId", roomId.toString());
-        message.put("roomName", session.getRoomName());
-        message.put("players", playerList);
-        message.put("hostUsername", host != null ? host.getUsername() : null);
-        message.put("playerCount", session.getPlayers().size());
-        message.put("currentPhase", session.getCurrentPhase());
-        message.put("timestamp", System.currentTimeMillis());
-
-        String destination = "/topic/room/" + roomId.toString();
-        messagingTemplate.convertAndSend(destination, (Object) message);  // ✅ FIXED: Cast to Object
+    /**
+     * Whether the player is seated in the room and this connection has shown it is them:
+     * it is the connection seated under that id, or its handshake carried that user's JWT.
+     */
+    private boolean isSeatedAsSelf(UUID roomUuid, UUID playerId, StompHeaderAccessor headerAccessor) {
+        RoomSession session = sessionManager.getSession(roomUuid).orElse(null);
+        if (session == null || !session.isSeated(playerId)) {
+            return false;
+        }
+        SessionManager.PlayerInfo own = session.getPlayers().get(headerAccessor.getSessionId());
+        if (own != null && own.getPlayerId().equals(playerId)) {
+            return true;
+        }
+        return headerAccessor.getUser() instanceof Authentication authentication
+            && playerId.equals(authentication.getDetails());
+    }
+
+    private boolean admit(String webSocketSessionId) {
+        AdmissionControl.Decision decision = admissionControl.admitJoin();
+        if (!decision.isAdmitted()) {
+            sendAdmissionRejected(webSocketSessionId, decision);
+        }
+        return decision.isAdmitted();
+    }
+
+    private void sendAdmissionRejected(String sessionId, AdmissionControl.Decision decision) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("type", "JOIN_DEFERRED");
+        error.put("message", decision.getReason());
+        error.put("retryAfterMs", decision.getRetryAfterMs());
+        webSocketService.sendToSession(sessionId, "/queue/errors", error);
     }
 
     private void sendError(String sessionId, String errorMessage) {
         Map<String, Object> error = new HashMap<>();
         error.put("type", "ERROR");
         error.put("message", errorMessage);
-        messagingTemplate.convertAndSendToUser(sessionId, "/queue/errors", (Object) error);  // ✅ FIXED: Cast to Object
+        // Anonymous connections have no Principal, so address the session's own queue
+        webSocketService.sendToSession(sessionId, "/queue/errors", error);
     }
 }
\ No newline at end of file
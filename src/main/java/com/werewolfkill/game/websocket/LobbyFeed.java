@@ -0,0 +1,231 @@
+package com.werewolfkill.game.websocket;
+
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.repository.RoomRepository;
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.session.SessionManager.RoomSession;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Push-based lobby: clients subscribe to /topic/lobby for deltas, then to /app/lobby
+ * for a one-off snapshot carrying the seq it was taken at.
+ *
+ * The room list lives in memory (loaded once at startup, then kept current by room
+ * creation and archival). Room broadcasts only mark a room dirty; a single thread
+ * flushes every lobby.flush-interval-ms, sending one LOBBY_DELTA with the rooms whose
+ * player count or phase actually changed since the last flush.
+ */
+@Component
+public class LobbyFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyFeed.class);
+
+    public static final String TOPIC = "/topic/lobby";
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${lobby.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    private final ConcurrentHashMap<UUID, LobbyRoom> rooms = new ConcurrentHashMap<>();
+
+    private final Set<UUID> dirtyRooms = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> createdRooms = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> closedRooms = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this: flush, snapshot and room creation/closing agree on what has been
+    // published at which seq
+    private long seq;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * A lobby row: static metadata plus the live fields last published for it.
+     */
+    private static class LobbyRoom {
+        final Map<String, Object> metadata;
+        int currentPlayers;
+        String status;
+
+        LobbyRoom(Room room) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("id", room.getId().toString());
+            data.put("name", room.getName());
+            data.put("createdBy", room.getCreatedBy().toString());
+            data.put("maxPlayers", room.getMaxPlayers());
+            data.put("createdAt", room.getCreatedAt().toString());
+            data.put("gameMode", room.getGameMode());
+            data.put("isPublic", room.getIsPublic());
+            this.metadata = Map.copyOf(data);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> data = new HashMap<>(metadata);
+            data.put("currentPlayers", currentPlayers);
+            if (status != null) {
+                data.put("status", status);
+            }
+            return data;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        for (Room room : roomRepository.findByPooledFalseAndIsPublicTrue()) {
+            // No sessions survive a restart, so every room starts empty
+            rooms.putIfAbsent(room.getId(), new LobbyRoom(room));
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lobby-feed");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * A room became visible in the lobby (created, or claimed from the pool). Private rooms are
+     * skipped. Under the flush/snapshot lock, so a room is never in the list without being
+     * marked as created, which would send it in a snapshot and again as ROOM_CREATED.
+     */
+    public synchronized void roomCreated(Room room) {
+        if (!Boolean.TRUE.equals(room.getIsPublic())) {
+            return;
+        }
+        rooms.put(room.getId(), new LobbyRoom(room));
+        createdRooms.add(room.getId());
+    }
+
+    /** Rooms left the lobby for good (archived). */
+    public synchronized void roomsClosed(Collection<UUID> roomIds) {
+        for (UUID roomId : roomIds) {
+            if (rooms.remove(roomId) != null && !createdRooms.remove(roomId)) {
+                closedRooms.add(roomId);
+            }
+        }
+    }
+
+    /**
+     * Called after every player-facing room state broadcast (joins, leaves, evictions).
+     */
+    public void markRoomDirty(UUID roomId) {
+        if (rooms.containsKey(roomId)) {
+            dirtyRooms.add(roomId);
+        }
+    }
+
+    /**
+     * Every lobby room with its live fields as of the returned seq.
+     */
+    public synchronized Map<String, Object> snapshot() {
+        List<Map<String, Object>> roomData = new ArrayList<>(rooms.size());
+        for (Map.Entry<UUID, LobbyRoom> entry : rooms.entrySet()) {
+            // Not announced yet: it arrives as ROOM_CREATED after this seq
+            if (createdRooms.contains(entry.getKey())) continue;
+            roomData.add(entry.getValue().toMap());
+        }
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "LOBBY_SNAPSHOT");
+        message.put("seq", seq);
+        message.put("rooms", roomData);
+        return message;
+    }
+
+    private synchronized void flush() {
+        try {
+            List<Map<String, Object>> events = new ArrayList<>();
+
+            for (UUID roomId : createdRooms) {
+                createdRooms.remove(roomId);
+                dirtyRooms.remove(roomId);
+                LobbyRoom room = rooms.get(roomId);
+                if (room == null) continue;
+                refresh(roomId, room);
+                Map<String, Object> event = new HashMap<>();
+                event.put("type", "ROOM_CREATED");
+                event.put("room", room.toMap());
+                events.add(event);
+            }
+
+            for (UUID roomId : dirtyRooms) {
+                dirtyRooms.remove(roomId);
+                LobbyRoom room = rooms.get(roomId);
+                if (room == null || !refresh(roomId, room)) continue;
+                Map<String, Object> event = new HashMap<>();
+                event.put("type", "ROOM_UPDATED");
+                event.put("roomId", roomId.toString());
+                event.put("currentPlayers", room.currentPlayers);
+                event.put("status", room.status);
+                events.add(event);
+            }
+
+            for (UUID roomId : closedRooms) {
+                closedRooms.remove(roomId);
+                Map<String, Object> event = new HashMap<>();
+                event.put("type", "ROOM_CLOSED");
+                event.put("roomId", roomId.toString());
+                events.add(event);
+            }
+
+            if (events.isEmpty()) return;
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "LOBBY_DELTA");
+            message.put("seq", ++seq);
+            message.put("events", events);
+            messagingTemplate.convertAndSend(TOPIC, (Object) message);
+        } catch (RuntimeException e) {
+            // Never let one failure cancel the periodic task
+            log.warn("Lobby flush failed", e);
+        }
+    }
+
+    /** Pull the live fields from the session; true if they changed. */
+    private boolean refresh(UUID roomId, LobbyRoom room) {
+        Optional<RoomSession> session = sessionManager.getSession(roomId);
+        int players = session.map(s -> s.getPlayers().size()).orElse(0);
+        String status = session.map(RoomSession::getCurrentPhase).orElse(null);
+        if (players == room.currentPlayers && Objects.equals(status, room.status)) {
+            return false;
+        }
+        room.currentPlayers = players;
+        room.status = status;
+        return true;
+    }
+}
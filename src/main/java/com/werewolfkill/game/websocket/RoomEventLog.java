@@ -0,0 +1,110 @@
+package com.werewolfkill.game.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-room sequence numbers and a bounded ring of the last N outbound events,
+ * so a reconnecting client can be sent only what it missed.
+ *
+ * A ring lives as long as the room session. Its epoch (creation time) is sent with
+ * every event; a client presenting another epoch, or a gap older than the ring,
+ * gets a snapshot instead of a replay.
+ */
+@Component
+public class RoomEventLog {
+
+    public static final String SEQ_HEADER = "seq";
+    public static final String EPOCH_HEADER = "epoch";
+
+    @Value("${websocket.resume.buffer-size:128}")
+    private int bufferSize;
+
+    private final ConcurrentHashMap<UUID, Ring> rings = new ConcurrentHashMap<>();
+
+    public static class RoomEvent {
+        private final long epoch;
+        private final long seq;
+        private final String destination;
+        private final Object payload;
+
+        public RoomEvent(long epoch, long seq, String destination, Object payload) {
+            this.epoch = epoch;
+            this.seq = seq;
+            this.destination = destination;
+            this.payload = payload;
+        }
+
+        public long getEpoch() { return epoch; }
+        public long getSeq() { return seq; }
+        public String getDestination() { return destination; }
+        public Object getPayload() { return payload; }
+    }
+
+    private static class Ring {
+        private final long epoch = System.currentTimeMillis();
+        private final RoomEvent[] events;
+        private long lastSeq;
+
+        Ring(int size) {
+            this.events = new RoomEvent[size];
+        }
+    }
+
+    /**
+     * Stamp the next sequence number and hand the event to the sender while holding
+     * the room's ring lock, so the order on the wire matches the sequence. That relies on
+     * the outbound channel keeping publish order per session (see SlowConsumerMonitor).
+     */
+    public RoomEvent record(UUID roomId, String destination, Object payload, Consumer<RoomEvent> sender) {
+        Ring ring = rings.computeIfAbsent(roomId, id -> new Ring(bufferSize));
+        synchronized (ring) {
+            RoomEvent event = new RoomEvent(ring.epoch, ring.lastSeq + 1, destination, payload);
+            sender.accept(event);
+            ring.lastSeq = event.getSeq();
+            ring.events[(int) (event.getSeq() % ring.events.length)] = event;
+            return event;
+        }
+    }
+
+    /**
+     * Events after lastSeq, oldest first, or empty when the client must take a snapshot.
+     */
+    public Optional<List<RoomEvent>> eventsSince(UUID roomId, long epoch, long lastSeq) {
+        Ring ring = rings.get(roomId);
+        if (ring == null || ring.epoch != epoch) {
+            return Optional.empty();
+        }
+        synchronized (ring) {
+            if (lastSeq > ring.lastSeq || ring.lastSeq - lastSeq > ring.events.length) {
+                return Optional.empty();
+            }
+            List<RoomEvent> missed = new ArrayList<>((int) (ring.lastSeq - lastSeq));
+            for (long seq = lastSeq + 1; seq <= ring.lastSeq; seq++) {
+                missed.add(ring.events[(int) (seq % ring.events.length)]);
+            }
+            return Optional.of(missed);
+        }
+    }
+
+    /**
+     * Current epoch and last sequence number, as {epoch, seq}; a new ring is started if needed.
+     */
+    public long[] position(UUID roomId) {
+        Ring ring = rings.computeIfAbsent(roomId, id -> new Ring(bufferSize));
+        synchronized (ring) {
+            return new long[] { ring.epoch, ring.lastSeq };
+        }
+    }
+
+    public void discard(UUID roomId) {
+        rings.remove(roomId);
+    }
+}
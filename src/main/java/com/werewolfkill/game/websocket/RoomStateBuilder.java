@@ -0,0 +1,47 @@
+package com.werewolfkill.game.websocket;
+
+import com.werewolfkill.game.session.SessionManager.PlayerInfo;
+import com.werewolfkill.game.session.SessionManager.RoomSession;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the ROOM_STATE_UPDATE payload from a RoomSession.
+ * Roles are only included in the player view, and only once the game is over.
+ */
+@Component
+public class RoomStateBuilder {
+
+    public Map<String, Object> build(RoomSession session, boolean publicView) {
+        List<Map<String, Object>> playerList = session.getPlayers().values().stream()
+            .map(player -> {
+                Map<String, Object> playerData = new HashMap<>();
+                playerData.put("playerId", player.getPlayerId().toString());
+                playerData.put("username", player.getUsername());
+                playerData.put("isHost", player.getWebSocketSessionId().equals(session.getHostSessionId()));
+                playerData.put("status", player.getStatus() != null ? player.getStatus().toString() : "ALIVE");
+                // Roles are private (see /queue/role) until the game is over
+                if (!publicView && "GAME_OVER".equals(session.getCurrentPhase())) {
+                    playerData.put("role", player.getRole() != null ? player.getRole().toString() : null);
+                }
+                return playerData;
+            })
+            .toList();
+
+        PlayerInfo host = session.getPlayers().get(session.getHostSessionId());
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "ROOM_STATE_UPDATE");
+        message.put("roomId", session.getRoomId().toString());
+        message.put("roomName", session.getRoomName());
+        message.put("players", playerList);
+        message.put("hostUsername", host != null ? host.getUsername() : null);
+        message.put("playerCount", playerList.size());
+        message.put("currentPhase", session.getCurrentPhase());
+        message.put("timestamp", System.currentTimeMillis());
+        return message;
+    }
+}
@@ -0,0 +1,238 @@
+package com.werewolfkill.game.websocket;
+
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbound ordering and back-pressure per connection.
+ *
+ * clientOutboundChannel is a thread pool, so the monitor hands a session one message
+ * at a time: the next one is dispatched only after the previous one has been written
+ * (afterMessageHandled, which runs whether or not the write failed). Everything else
+ * waits in a per-session queue in publish order, so room event seqs arrive in order.
+ *
+ * While a session has conflate-threshold or more messages in flight it is lagging:
+ * a message tagged with a "conflate-key" header (room state snapshots) replaces the
+ * queued one with the same key, and goes to the back of the queue so it is never
+ * delivered ahead of events published before it. A session that keeps lagging past
+ * max-conflated replacements is closed with SLOW_CONSUMER.
+ *
+ * Hard limits on send time and buffered bytes are enforced by Spring's
+ * ConcurrentWebSocketSessionDecorator (configured in WebSocketConfig), which
+ * closes the session with SESSION_NOT_RELIABLE.
+ */
+@Component
+public class SlowConsumerMonitor implements ExecutorChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowConsumerMonitor.class);
+
+    public static final String CONFLATE_KEY_HEADER = "conflate-key";
+    public static final CloseStatus SLOW_CONSUMER = new CloseStatus(4008, "Slow consumer");
+
+    @Autowired
+    private RoomTracer roomTracer;
+
+    @Value("${websocket.outbound.conflate-threshold:2}")
+    private int conflateThreshold;
+
+    @Value("${websocket.outbound.max-conflated:50}")
+    private int maxConflated;
+
+    private final ConcurrentHashMap<String, ConnectionState> connections = new ConcurrentHashMap<>();
+
+    private static final class ConnectionState {
+        private final WebSocketSession session;
+        private final ArrayDeque<Message<?>> queue = new ArrayDeque<>();
+        // The message being handed to the session, null while idle
+        private Message<?> current;
+        private int conflated;
+
+        ConnectionState(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                connections.put(session.getId(), new ConnectionState(session));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                ConnectionState state = connections.remove(session.getId());
+                if (state != null) {
+                    synchronized (state) {
+                        state.queue.clear();
+                    }
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        ConnectionState state = getState(message);
+        if (state == null) {
+            return message;
+        }
+
+        String conflateKey = getConflateKey(message);
+        int queued;
+
+        synchronized (state) {
+            if (state.current == null) {
+                state.current = message;
+                return message;
+            }
+            if (conflateKey != null && 1 + state.queue.size() >= conflateThreshold
+                    && removeQueued(state, conflateKey)) {
+                state.conflated++;
+            }
+            if (state.conflated <= maxConflated) {
+                state.queue.addLast(message);
+                return null;
+            }
+            queued = state.queue.size();
+            state.queue.clear();
+        }
+
+        roomTracer.slowConsumerClosed(state.session.getId(), queued, state.conflated);
+        close(state);
+        return null;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (sent) {
+            return;
+        }
+        // Never reached the executor (rejected or shut down), so no afterMessageHandled
+        // will follow; drop the session's turn rather than stall its queue forever
+        ConnectionState state = getState(message);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (state.current == message) {
+                state.current = null;
+                state.queue.clear();
+            }
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        ConnectionState state = getState(message);
+        if (state == null) {
+            return;
+        }
+
+        Message<?> handled = message;
+        while (true) {
+            Message<?> next;
+            synchronized (state) {
+                if (state.current != handled) {
+                    return;
+                }
+                next = state.queue.pollFirst();
+                state.current = next;
+                if (next == null) {
+                    state.conflated = 0;
+                    return;
+                }
+            }
+            try {
+                handler.handleMessage(next);
+            } catch (RuntimeException e) {
+                log.warn("Failed to send queued message to session {}", state.session.getId(), e);
+            }
+            handled = next;
+        }
+    }
+
+    /**
+     * Whether the WebSocket session is still open (registered on connect, dropped on close).
+     */
+    public boolean isConnected(String sessionId) {
+        return connections.containsKey(sessionId);
+    }
+
+    /**
+     * Sessions with messages queued behind the one being written.
+     */
+    public int getLaggingSessionCount() {
+        int lagging = 0;
+        for (ConnectionState state : connections.values()) {
+            synchronized (state) {
+                if (!state.queue.isEmpty()) lagging++;
+            }
+        }
+        return lagging;
+    }
+
+    private ConnectionState getState(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? connections.get(sessionId) : null;
+    }
+
+    private static boolean removeQueued(ConnectionState state, String conflateKey) {
+        Iterator<Message<?>> it = state.queue.iterator();
+        while (it.hasNext()) {
+            if (conflateKey.equals(getConflateKey(it.next()))) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getConflateKey(Message<?> message) {
+        NativeMessageHeaderAccessor accessor =
+            MessageHeaderAccessor.getAccessor(message, NativeMessageHeaderAccessor.class);
+        if (accessor != null) {
+            return accessor.getFirstNativeHeader(CONFLATE_KEY_HEADER);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> nativeHeaders =
+            (Map<String, List<String>>) message.getHeaders().get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        if (nativeHeaders == null) return null;
+        List<String> values = nativeHeaders.get(CONFLATE_KEY_HEADER);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    private void close(ConnectionState state) {
+        try {
+            state.session.close(SLOW_CONSUMER);
+        } catch (IOException e) {
+            log.warn("Failed to close slow consumer {}: {}", state.session.getId(), e.getMessage());
+        }
+    }
+}
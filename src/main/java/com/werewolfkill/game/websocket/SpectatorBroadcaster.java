@@ -0,0 +1,218 @@
+package com.werewolfkill.game.websocket;
+
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.session.SessionManager.RoomSession;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spectator tier: watchers subscribe to /topic/spectate/room/{id} and
+ * /topic/spectate/game/{id} instead of the player topics.
+ *
+ * Player broadcasts only mark a room dirty here. A single low-priority thread
+ * flushes dirty rooms at most spectator.max-rate-hz times per second, sending the
+ * latest public room state, so bursts of player traffic collapse into one state
+ * update per tick. Game events are discrete (who died, who won), so they are not
+ * conflated: each room queues up to spectator.max-queued-events of them, and a tick
+ * sends them all in order.
+ */
+@Component
+public class SpectatorBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SpectatorBroadcaster.class);
+
+    public static final String ROOM_PREFIX = "/topic/spectate/room/";
+    public static final String GAME_PREFIX = "/topic/spectate/game/";
+
+    @Autowired
+    private SessionManager sessionManager;
+
+    @Autowired
+    private RoomStateBuilder roomStateBuilder;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${spectator.max-rate-hz:2}")
+    private double maxRateHz;
+
+    @Value("${spectator.max-queued-events:64}")
+    private int maxQueuedEvents;
+
+    // sessionId -> (subscriptionId -> roomId), so unsubscribe/disconnect can be counted down.
+    // The inner maps are only touched inside compute or after remove, like pendingGameEvents
+    private final ConcurrentHashMap<String, Map<String, UUID>> subscriptions = new ConcurrentHashMap<>();
+    // Counts change only inside compute, so a release can't drop an entry an increment just used
+    private final ConcurrentHashMap<UUID, Integer> spectatorCounts = new ConcurrentHashMap<>();
+
+    private final Set<UUID> dirtyRooms = ConcurrentHashMap.newKeySet();
+    // Only touched inside ConcurrentHashMap.compute or after remove, so the deques need no lock of their own
+    private final ConcurrentHashMap<UUID, ArrayDeque<Object>> pendingGameEvents = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spectator-fanout");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        long periodMicros = (long) (1_000_000 / Math.max(maxRateHz, 0.01));
+        executor.scheduleAtFixedRate(this::flush, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Called after every player-facing room broadcast. Cheap no-op without spectators.
+     */
+    public void markRoomDirty(UUID roomId) {
+        if (hasSpectators(roomId)) {
+            dirtyRooms.add(roomId);
+        }
+    }
+
+    /**
+     * Queue a game event for the next tick; past maxQueuedEvents the oldest is dropped.
+     */
+    public void offerGameEvent(UUID roomId, Object message) {
+        if (hasSpectators(roomId)) {
+            pendingGameEvents.compute(roomId, (id, events) -> {
+                if (events == null) events = new ArrayDeque<>();
+                events.addLast(message);
+                if (events.size() > maxQueuedEvents) events.removeFirst();
+                return events;
+            });
+        }
+    }
+
+    public int getSpectatorCount(UUID roomId) {
+        Integer count = spectatorCounts.get(roomId);
+        return count != null ? count : 0;
+    }
+
+    private boolean hasSpectators(UUID roomId) {
+        return getSpectatorCount(roomId) > 0;
+    }
+
+    private void flush() {
+        try {
+            for (UUID roomId : dirtyRooms) {
+                dirtyRooms.remove(roomId);
+                sendRoomState(roomId);
+            }
+            for (UUID roomId : pendingGameEvents.keySet()) {
+                ArrayDeque<Object> events = pendingGameEvents.remove(roomId);
+                if (events == null) continue;
+                for (Object event : events) {
+                    messagingTemplate.convertAndSend(GAME_PREFIX + roomId, event);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Never let one failure cancel the periodic task
+            log.warn("Spectator flush failed", e);
+        }
+    }
+
+    private void sendRoomState(UUID roomId) {
+        Optional<RoomSession> session = sessionManager.getSession(roomId);
+        Map<String, Object> message;
+        if (session.isPresent()) {
+            message = roomStateBuilder.build(session.get(), true);
+        } else {
+            message = new HashMap<>();
+            message.put("type", "ROOM_CLOSED");
+            message.put("roomId", roomId.toString());
+            message.put("timestamp", System.currentTimeMillis());
+        }
+        messagingTemplate.convertAndSend(ROOM_PREFIX + roomId, (Object) message,
+            Map.of(SlowConsumerMonitor.CONFLATE_KEY_HEADER, "spectate-state:" + roomId));
+    }
+
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID roomId = parseRoomId(accessor.getDestination());
+        if (roomId == null) return;
+
+        UUID[] replaced = new UUID[1];
+        subscriptions.compute(accessor.getSessionId(), (id, subs) -> {
+            if (subs == null) subs = new HashMap<>();
+            replaced[0] = subs.put(accessor.getSubscriptionId(), roomId);
+            return subs;
+        });
+        spectatorCounts.compute(roomId, (id, count) -> count == null ? 1 : count + 1);
+        release(replaced[0]);
+
+        // Give the new watcher a snapshot on the next tick
+        dirtyRooms.add(roomId);
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        UUID[] removed = new UUID[1];
+        subscriptions.computeIfPresent(accessor.getSessionId(), (id, subs) -> {
+            removed[0] = subs.remove(accessor.getSubscriptionId());
+            return subs.isEmpty() ? null : subs;
+        });
+        release(removed[0]);
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        Map<String, UUID> subs = subscriptions.remove(event.getSessionId());
+        if (subs != null) {
+            subs.values().forEach(this::release);
+        }
+    }
+
+    private void release(UUID roomId) {
+        if (roomId == null) return;
+        spectatorCounts.computeIfPresent(roomId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private UUID parseRoomId(String destination) {
+        if (destination == null) return null;
+        String id;
+        if (destination.startsWith(ROOM_PREFIX)) {
+            id = destination.substring(ROOM_PREFIX.length());
+        } else if (destination.startsWith(GAME_PREFIX)) {
+            id = destination.substring(GAME_PREFIX.length());
+        } else {
+            return null;
+        }
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.werewolfkill.game.websocket;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Per-session wire format negotiation.
+ *
+ * Inbound (see inbound()): a CONNECT frame carrying "wire-format: cbor" (or
+ * "accept: application/cbor") opts the session into compact CBOR, and SEND frames with
+ * content-type application/cbor are decoded back to JSON (field ids to names, binary
+ * UUIDs to strings) before they reach the handlers. Outbound: JSON MESSAGE frames for CBOR
+ * sessions are transcoded and sent as binary frames with content-type
+ * application/octet-stream and a "wire-format: cbor" header. Everyone else keeps getting JSON.
+ *
+ * The broker hands the same payload array to every subscriber of a topic, so the
+ * transcoded bytes are kept in a small lock-free cache keyed by payload identity and each
+ * broadcast is encoded once (a slot collision just encodes again).
+ * Binary frames need a native WebSocket; SockJS clients should not opt in.
+ */
+@Component
+public class WireFormatInterceptor implements ChannelInterceptor {
+
+    public static final String WIRE_FORMAT_HEADER = "wire-format";
+    public static final String CBOR = "cbor";
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    // Direct-mapped by identity hash; a power of two
+    private static final int CACHE_SLOTS = 256;
+
+    @Autowired
+    private CompactCborCodec codec;
+
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    // Slot holds {json, cbor}; json is compared by identity
+    private final AtomicReferenceArray<byte[][]> transcoded = new AtomicReferenceArray<>(CACHE_SLOTS);
+
+    private final ChannelInterceptor inbound = new ChannelInterceptor() {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            MessageHeaders headers = message.getHeaders();
+            SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(headers);
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+            if (type == null || sessionId == null) {
+                return message;
+            }
+
+            switch (type) {
+                case CONNECT -> negotiate(message, sessionId);
+                case DISCONNECT -> cborSessions.remove(sessionId);
+                case MESSAGE -> {
+                    return fromCbor(message);
+                }
+                default -> { }
+            }
+            return message;
+        }
+    };
+
+    /** The client inbound channel side: negotiation and CBOR SEND decoding. */
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    /** The client outbound channel side: transcoding for CBOR sessions. */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        if (sessionId != null && cborSessions.contains(sessionId)) {
+            return toCbor(message);
+        }
+        return message;
+    }
+
+    public boolean isCborSession(String sessionId) {
+        return cborSessions.contains(sessionId);
+    }
+
+    private void negotiate(Message<?> message, String sessionId) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT
+                && accessor.getCommand() != StompCommand.STOMP) {
+            return;
+        }
+
+        String wireFormat = accessor.getFirstNativeHeader(WIRE_FORMAT_HEADER);
+        String accept = accessor.getFirstNativeHeader("accept");
+        if (CBOR.equalsIgnoreCase(wireFormat)
+                || (accept != null && accept.contains(APPLICATION_CBOR.toString()))) {
+            cborSessions.add(sessionId);
+        }
+    }
+
+    private Message<?> toCbor(Message<?> message) {
+        if (!(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+        MimeType contentType = (MimeType) message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType == null || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return message;
+        }
+
+        int slot = System.identityHashCode(json) & (CACHE_SLOTS - 1);
+        byte[][] cached = transcoded.get(slot);
+        byte[] cbor;
+        if (cached != null && cached[0] == json) {
+            cbor = cached[1];
+        } else {
+            cbor = codec.transcodeJson(json);
+            transcoded.set(slot, new byte[][] {json, cbor});
+        }
+
+        // Not a StompHeaderAccessor: the STOMP handler must still fill in the MESSAGE command
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        // octet-stream makes the STOMP handler emit a binary WebSocket frame
+        accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        accessor.setNativeHeader(WIRE_FORMAT_HEADER, CBOR);
+        return MessageBuilder.createMessage(cbor, accessor.getMessageHeaders());
+    }
+
+    private Message<?> fromCbor(Message<?> message) {
+        if (!(message.getPayload() instanceof byte[] cbor)) {
+            return message;
+        }
+        MimeType contentType = (MimeType) message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType == null || !APPLICATION_CBOR.isCompatibleWith(contentType)) {
+            return message;
+        }
+
+        byte[] json = codec.decodeToJson(cbor);
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json, accessor.getMessageHeaders());
+    }
+}
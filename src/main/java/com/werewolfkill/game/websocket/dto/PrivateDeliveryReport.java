@@ -0,0 +1,24 @@
+package com.werewolfkill.game.websocket.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a batched private send: how many sessions were reached and,
+ * per recipient, why delivery failed.
+ */
+@Data
+@NoArgsConstructor
+public class PrivateDeliveryReport {
+    private int recipients;
+    private int deliveredSessions;
+    private int encodedPayloads;
+    private Map<String, String> failures = new LinkedHashMap<>();
+
+    public boolean isFullyDelivered() {
+        return failures.isEmpty();
+    }
+}
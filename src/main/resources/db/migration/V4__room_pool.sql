@@ -0,0 +1,7 @@
+-- V4: Pre-warmed room pool
+-- Pooled rooms are created ahead of demand and stay hidden from the lobby until claimed
+
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS pooled BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Refill/shrink look up the (small) set of unclaimed rooms per game mode and size
+CREATE INDEX IF NOT EXISTS idx_rooms_pooled ON rooms(game_mode, max_players) WHERE pooled;
@@ -0,0 +1,22 @@
+-- V5: Room archival
+-- Idle rooms move out of the hot rooms table into rooms_archive (see RoomReaper)
+
+CREATE TABLE IF NOT EXISTS rooms_archive (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    created_by UUID NOT NULL,
+    max_players INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    game_mode VARCHAR(50),
+    is_public BOOLEAN,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_rooms_archive_archived_at ON rooms_archive(archived_at);
+
+-- The reaper walks claimed rooms oldest first
+CREATE INDEX IF NOT EXISTS idx_rooms_created_at ON rooms(created_at) WHERE NOT pooled;
+
+-- Leftovers from the V2 migration; rooms_archive is the place for old rows now
+DROP TABLE IF EXISTS rooms_backup_v2;
+DROP TABLE IF EXISTS player_rooms_backup_v2;
@@ -0,0 +1,11 @@
+-- V6: Per-user game statistics
+-- One row per user, maintained incrementally at game end (see UserStatsService)
+
+-- No foreign key to users: guests play with ids that never got a users row
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id UUID PRIMARY KEY,
+    games_played INTEGER NOT NULL DEFAULT 0,
+    wins INTEGER NOT NULL DEFAULT 0,
+    losses INTEGER NOT NULL DEFAULT 0,
+    last_played_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,11 @@
+-- V7: Per-game-mode stats for the leaderboard
+-- Written as periodic snapshots of the in-memory leaderboard (see Leaderboard)
+
+CREATE TABLE IF NOT EXISTS user_mode_stats (
+    user_id UUID NOT NULL,
+    game_mode VARCHAR(50) NOT NULL,
+    games_played INTEGER NOT NULL DEFAULT 0,
+    wins INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, game_mode)
+);
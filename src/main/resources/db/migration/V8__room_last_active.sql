@@ -0,0 +1,5 @@
+-- V8: Room activity
+-- Stamped when a room's live session closes, so the reaper's idle TTL survives restarts
+
+ALTER TABLE rooms ADD COLUMN IF NOT EXISTS last_active_at TIMESTAMP;
+ALTER TABLE rooms_archive ADD COLUMN IF NOT EXISTS last_active_at TIMESTAMP;
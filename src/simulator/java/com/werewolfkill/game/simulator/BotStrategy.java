@@ -0,0 +1,12 @@
+package com.werewolfkill.game.simulator;
+
+/**
+ * How the bots play. Werewolves always kill and vote for a random non-werewolf, and seers
+ * inspect a random living player; the strategies differ in how the town votes.
+ */
+public enum BotStrategy {
+    /** Everyone votes for a random living player. */
+    RANDOM,
+    /** Seers reveal the werewolves they find and the whole town votes for the first one still alive. */
+    SEER_LED
+}
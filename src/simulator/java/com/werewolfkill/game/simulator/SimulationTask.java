@@ -0,0 +1,115 @@
+package com.werewolfkill.game.simulator;
+
+import com.werewolfkill.game.engine.GameEngine;
+import com.werewolfkill.game.engine.RoleDistribution;
+import com.werewolfkill.game.model.enums.GamePhase;
+import com.werewolfkill.game.model.enums.Role;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays games [from, to) for one player count, splitting in half until a range is small
+ * enough for one worker. Game i is seeded from (seed, i) alone, so results don't depend on
+ * how the range was split. A leaf reuses one engine for all its games.
+ */
+public class SimulationTask extends RecursiveTask<Tally> {
+
+    private static final long LEAF_GAMES = 4096;
+
+    private final int players;
+    private final RoleDistribution distribution;
+    private final BotStrategy strategy;
+    private final long seed;
+    private final long from;
+    private final long to;
+
+    public SimulationTask(int players, RoleDistribution distribution, BotStrategy strategy,
+                          long seed, long from, long to) {
+        this.players = players;
+        this.distribution = distribution;
+        this.strategy = strategy;
+        this.seed = seed;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Tally compute() {
+        if (to - from > LEAF_GAMES) {
+            long mid = (from + to) >>> 1;
+            SimulationTask left = new SimulationTask(players, distribution, strategy, seed, from, mid);
+            SimulationTask right = new SimulationTask(players, distribution, strategy, seed, mid, to);
+            left.fork();
+            Tally result = right.compute();
+            return result.merge(left.join());
+        }
+
+        Tally tally = new Tally();
+        GameEngine engine = new GameEngine(players);
+        boolean[] revealed = new boolean[players];
+        for (long game = from; game < to; game++) {
+            SplittableRandom random = new SplittableRandom(seed + game * 0x9E3779B97F4A7C15L);
+            play(engine, revealed, random);
+            tally.games++;
+            tally.days += engine.getDayNumber();
+            if (engine.getWinner() == GameEngine.Team.WEREWOLVES) {
+                tally.werewolfWins++;
+            } else {
+                tally.villagerWins++;
+            }
+        }
+        return tally;
+    }
+
+    private void play(GameEngine engine, boolean[] revealed, SplittableRandom random) {
+        engine.deal(distribution, random);
+        Arrays.fill(revealed, false);
+        while (engine.getPhase() != GamePhase.GAME_OVER) {
+            if (engine.getPhase() == GamePhase.NIGHT) {
+                for (int i = 0; i < players; i++) {
+                    if (!engine.isAlive(i)) continue;
+                    Role role = engine.getRole(i);
+                    if (role == Role.WEREWOLF) {
+                        engine.submitKill(i, randomPlayer(engine, random, i, true));
+                    } else if (role == Role.SEER) {
+                        int target = randomPlayer(engine, random, i, false);
+                        if (engine.inspect(i, target) == Role.WEREWOLF) revealed[target] = true;
+                    }
+                }
+                engine.resolveNight();
+            } else {
+                int suspect = strategy == BotStrategy.SEER_LED ? firstRevealed(engine, revealed) : GameEngine.NONE;
+                for (int i = 0; i < players; i++) {
+                    if (!engine.isAlive(i)) continue;
+                    boolean werewolf = engine.getRole(i) == Role.WEREWOLF;
+                    int target = !werewolf && suspect != GameEngine.NONE
+                        ? suspect
+                        : randomPlayer(engine, random, i, werewolf);
+                    engine.submitVote(i, target);
+                }
+                engine.resolveDay();
+            }
+        }
+    }
+
+    private static int firstRevealed(GameEngine engine, boolean[] revealed) {
+        for (int i = 0; i < revealed.length; i++) {
+            if (revealed[i] && engine.isAlive(i)) return i;
+        }
+        return GameEngine.NONE;
+    }
+
+    /** A random living player other than self (and not a werewolf, if asked). */
+    private static int randomPlayer(GameEngine engine, SplittableRandom random, int self, boolean notWerewolf) {
+        int players = engine.getPlayerCount();
+        while (true) {
+            int candidate = random.nextInt(players);
+            if (candidate != self && engine.isAlive(candidate)
+                    && !(notWerewolf && engine.getRole(candidate) == Role.WEREWOLF)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.werewolfkill.game.simulator;
+
+import com.werewolfkill.game.engine.RoleDistribution;
+
+/**
+ * Simulator settings, read from -Dsim.* system properties so a run is reproducible from its
+ * command line alone: the same seed and settings give the same results at any parallelism.
+ */
+public class SimulatorConfig {
+
+    private final long games;
+    private final int minPlayers;
+    private final int maxPlayers;
+    private final long seed;
+    private final BotStrategy strategy;
+    private final String distributionSpec;
+    private final RoleDistribution distribution;
+    private final int parallelism;
+    private final String reportPath;
+
+    private SimulatorConfig() {
+        this.games = Long.getLong("sim.games", 1_000_000);
+        // "8" or a range "5-12"
+        String[] players = System.getProperty("sim.players", "5-12").split("-");
+        this.minPlayers = Integer.parseInt(players[0].trim());
+        this.maxPlayers = Integer.parseInt(players[players.length - 1].trim());
+        this.seed = Long.getLong("sim.seed", 42);
+        this.strategy = BotStrategy.valueOf(System.getProperty("sim.strategy", "SEER_LED").toUpperCase());
+        // -Dsim.werewolves/-Dsim.seers fix the counts at every size; otherwise the server's table applies
+        Integer werewolves = Integer.getInteger("sim.werewolves");
+        if (werewolves != null) {
+            int seers = Integer.getInteger("sim.seers", 0);
+            this.distributionSpec = "fixed " + werewolves + ":" + seers;
+            this.distribution = RoleDistribution.fixed(werewolves, seers);
+        } else {
+            this.distributionSpec = System.getProperty("sim.distribution", RoleDistribution.DEFAULT_SPEC);
+            this.distribution = RoleDistribution.parse(distributionSpec);
+        }
+        this.parallelism = Integer.getInteger("sim.parallelism", Runtime.getRuntime().availableProcessors());
+        this.reportPath = System.getProperty("sim.report", "target/simulation-report.json");
+    }
+
+    public static SimulatorConfig fromSystemProperties() {
+        return new SimulatorConfig();
+    }
+
+    /** Games per player count. */
+    public long getGames() { return games; }
+    public int getMinPlayers() { return minPlayers; }
+    public int getMaxPlayers() { return maxPlayers; }
+    public long getSeed() { return seed; }
+    public BotStrategy getStrategy() { return strategy; }
+    public String getDistributionSpec() { return distributionSpec; }
+    public RoleDistribution getDistribution() { return distribution; }
+    public int getParallelism() { return parallelism; }
+    public String getReportPath() { return reportPath; }
+}
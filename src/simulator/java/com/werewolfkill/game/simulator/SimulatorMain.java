@@ -0,0 +1,71 @@
+package com.werewolfkill.game.simulator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Entry point for mvn -Psimulate verify. Plays sim.games seeded games per player count on
+ * the same GameEngine the server uses, with no Spring context, and reports win rates.
+ */
+public class SimulatorMain {
+
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.fromSystemProperties();
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+
+        System.out.printf("🎲 %d games per size, %d-%d players, strategy %s, roles %s, seed %d, %d workers%n",
+            config.getGames(), config.getMinPlayers(), config.getMaxPlayers(), config.getStrategy(),
+            config.getDistributionSpec(), config.getSeed(), config.getParallelism());
+        System.out.printf("%7s %10s %6s %12s %10s %10s %9s%n",
+            "players", "werewolves", "seers", "games", "wolf win", "town win", "avg days");
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        long started = System.nanoTime();
+        long totalGames = 0;
+        for (int players = config.getMinPlayers(); players <= config.getMaxPlayers(); players++) {
+            int werewolves = config.getDistribution().werewolves(players);
+            int seers = config.getDistribution().seers(players);
+            Tally tally = pool.invoke(new SimulationTask(players, config.getDistribution(),
+                config.getStrategy(), config.getSeed(), 0, config.getGames()));
+            totalGames += tally.games;
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("players", players);
+            row.put("werewolves", werewolves);
+            row.put("seers", seers);
+            row.putAll(tally.toMap());
+            results.add(row);
+            System.out.printf("%7d %10d %6d %12d %9.1f%% %9.1f%% %9.2f%n",
+                players, werewolves, seers, tally.games,
+                100.0 * (double) row.get("werewolfWinRate"), 100.0 * (double) row.get("villagerWinRate"),
+                (double) row.get("averageDays"));
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        pool.shutdown();
+        System.out.printf("✅ %d games in %.1f s (%.0f games/s)%n", totalGames, seconds, totalGames / seconds);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", config.getSeed());
+        report.put("strategy", config.getStrategy().toString());
+        report.put("roleDistribution", config.getDistributionSpec());
+        report.put("gamesPerSize", config.getGames());
+        report.put("parallelism", config.getParallelism());
+        report.put("elapsedSeconds", seconds);
+        report.put("gamesPerSecond", totalGames / seconds);
+        report.put("results", results);
+        writeReport(report, config.getReportPath());
+    }
+
+    static void writeReport(Map<String, Object> report, String path) throws Exception {
+        File file = new File(path);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, report);
+        System.out.println("Report written to " + file.getAbsolutePath());
+    }
+}
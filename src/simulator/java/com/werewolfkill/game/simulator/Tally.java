@@ -0,0 +1,32 @@
+package com.werewolfkill.game.simulator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Outcomes of a batch of games; batches from different workers are merged. */
+public class Tally {
+
+    long games;
+    long werewolfWins;
+    long villagerWins;
+    long days;
+
+    Tally merge(Tally other) {
+        games += other.games;
+        werewolfWins += other.werewolfWins;
+        villagerWins += other.villagerWins;
+        days += other.days;
+        return this;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("games", games);
+        map.put("werewolfWins", werewolfWins);
+        map.put("villagerWins", villagerWins);
+        map.put("werewolfWinRate", games > 0 ? (double) werewolfWins / games : 0.0);
+        map.put("villagerWinRate", games > 0 ? (double) villagerWins / games : 0.0);
+        map.put("averageDays", games > 0 ? (double) days / games : 0.0);
+        return map;
+    }
+}
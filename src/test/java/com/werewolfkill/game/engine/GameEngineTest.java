@@ -0,0 +1,239 @@
+package com.werewolfkill.game.engine;
+
+import com.werewolfkill.game.model.enums.GamePhase;
+import com.werewolfkill.game.model.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEngineTest {
+
+    @Test
+    void villagersWinWhenTheLastWerewolfIsVotedOut() {
+        GameEngine engine = dealt(5, 1, 0);
+        int wolf = playersWith(engine, Role.WEREWOLF).get(0);
+        List<Integer> villagers = playersWith(engine, Role.VILLAGER);
+
+        engine.submitKill(wolf, villagers.get(0));
+        assertTrue(engine.isPhaseComplete());
+        assertEquals(villagers.get(0), engine.resolveNight());
+        assertEquals(GamePhase.DAY, engine.getPhase());
+        assertEquals(4, engine.getAliveCount());
+
+        for (int voter : alive(engine)) {
+            engine.submitVote(voter, voter == wolf ? villagers.get(1) : wolf);
+        }
+        assertEquals(wolf, engine.resolveDay());
+        assertEquals(GamePhase.GAME_OVER, engine.getPhase());
+        assertEquals(GameEngine.Team.VILLAGERS, engine.getWinner());
+    }
+
+    @Test
+    void werewolvesWinOnceTheyAreHalfOfTheLiving() {
+        GameEngine engine = dealt(4, 1, 0);
+        int wolf = playersWith(engine, Role.WEREWOLF).get(0);
+        List<Integer> villagers = playersWith(engine, Role.VILLAGER);
+
+        engine.submitKill(wolf, villagers.get(0));
+        engine.resolveNight();
+        assertNull(engine.getWinner());
+
+        engine.submitVote(wolf, villagers.get(1));
+        engine.submitVote(villagers.get(2), villagers.get(1));
+        engine.submitVote(villagers.get(1), wolf);
+        assertEquals(villagers.get(1), engine.resolveDay());
+
+        assertEquals(GamePhase.GAME_OVER, engine.getPhase());
+        assertEquals(GameEngine.Team.WEREWOLVES, engine.getWinner());
+        assertEquals(2, engine.getAliveCount());
+        assertEquals(1, engine.getAliveWerewolves());
+    }
+
+    @Test
+    void tiedDayVoteEliminatesNobody() {
+        GameEngine engine = dealt(6, 1, 0);
+        int wolf = playersWith(engine, Role.WEREWOLF).get(0);
+        List<Integer> villagers = playersWith(engine, Role.VILLAGER);
+
+        engine.submitKill(wolf, villagers.get(0));
+        engine.resolveNight();
+
+        int a = villagers.get(1);
+        int b = villagers.get(2);
+        engine.submitVote(wolf, a);
+        engine.submitVote(villagers.get(3), a);
+        engine.submitVote(villagers.get(4), b);
+        engine.submitVote(a, b);
+        engine.submitVote(b, wolf);
+        assertTrue(engine.isPhaseComplete());
+
+        assertEquals(GameEngine.NONE, engine.resolveDay());
+        assertEquals(5, engine.getAliveCount());
+        assertEquals(GamePhase.NIGHT, engine.getPhase());
+        assertEquals(1, engine.getDayNumber());
+    }
+
+    @Test
+    void tiedNightKillTakesTheLowestIndex() {
+        GameEngine engine = dealt(8, 2, 0);
+        List<Integer> wolves = playersWith(engine, Role.WEREWOLF);
+        List<Integer> villagers = playersWith(engine, Role.VILLAGER);
+        int low = villagers.get(0);
+        int high = villagers.get(villagers.size() - 1);
+
+        engine.submitKill(wolves.get(0), high);
+        assertFalse(engine.isPhaseComplete());
+        engine.submitKill(wolves.get(1), low);
+
+        assertEquals(low, engine.resolveNight());
+        assertFalse(engine.isAlive(low));
+        assertTrue(engine.isAlive(high));
+    }
+
+    @Test
+    void aChangedChoiceCountsOnce() {
+        GameEngine engine = dealt(8, 2, 0);
+        List<Integer> wolves = playersWith(engine, Role.WEREWOLF);
+        List<Integer> villagers = playersWith(engine, Role.VILLAGER);
+
+        engine.submitKill(wolves.get(0), villagers.get(0));
+        engine.submitKill(wolves.get(0), villagers.get(1));
+        assertFalse(engine.isPhaseComplete());
+        assertEquals(villagers.get(1), engine.getChoice(wolves.get(0)));
+
+        engine.submitKill(wolves.get(1), villagers.get(1));
+        assertTrue(engine.isPhaseComplete());
+        assertEquals(villagers.get(1), engine.resolveNight());
+    }
+
+    @Test
+    void seersInspectOncePerNight() {
+        GameEngine engine = dealt(6, 1, 1);
+        int wolf = playersWith(engine, Role.WEREWOLF).get(0);
+        int seer = playersWith(engine, Role.SEER).get(0);
+
+        assertEquals(Role.WEREWOLF, engine.inspect(seer, wolf));
+        assertThrows(IllegalStateException.class, () -> engine.inspect(seer, wolf));
+        assertThrows(IllegalArgumentException.class, () -> engine.inspect(seer, seer));
+        assertFalse(engine.isPhaseComplete());
+    }
+
+    @Test
+    void rejectsActionsOutOfTurn() {
+        GameEngine engine = dealt(6, 1, 1);
+        int wolf = playersWith(engine, Role.WEREWOLF).get(0);
+        int seer = playersWith(engine, Role.SEER).get(0);
+        List<Integer> villagers = playersWith(engine, Role.VILLAGER);
+
+        assertThrows(IllegalStateException.class, () -> engine.submitKill(villagers.get(0), villagers.get(1)));
+        assertThrows(IllegalArgumentException.class, () -> engine.submitKill(wolf, wolf));
+        assertThrows(IllegalStateException.class, () -> engine.inspect(villagers.get(0), wolf));
+        assertThrows(IllegalStateException.class, () -> engine.submitVote(villagers.get(0), wolf));
+        assertThrows(IllegalStateException.class, engine::resolveDay);
+        assertThrows(IllegalArgumentException.class, () -> engine.submitKill(wolf, 6));
+        assertThrows(IllegalArgumentException.class, () -> engine.submitKill(wolf, -1));
+
+        engine.submitKill(wolf, villagers.get(0));
+        engine.inspect(seer, wolf);
+        engine.resolveNight();
+
+        assertThrows(IllegalStateException.class, () -> engine.submitKill(wolf, villagers.get(1)));
+        assertThrows(IllegalStateException.class, () -> engine.submitVote(villagers.get(0), wolf));
+        assertThrows(IllegalStateException.class, () -> engine.submitVote(wolf, villagers.get(0)));
+        assertThrows(IllegalArgumentException.class, () -> engine.submitVote(wolf, wolf));
+        assertThrows(IllegalStateException.class, engine::resolveNight);
+    }
+
+    @Test
+    void dealResetsTheEngineForAnotherGame() {
+        GameEngine engine = dealt(4, 1, 0);
+        int wolf = playersWith(engine, Role.WEREWOLF).get(0);
+        engine.submitKill(wolf, playersWith(engine, Role.VILLAGER).get(0));
+        engine.resolveNight();
+
+        engine.deal(RoleDistribution.fixed(1, 0), new SplittableRandom(7));
+        assertEquals(GamePhase.NIGHT, engine.getPhase());
+        assertEquals(0, engine.getDayNumber());
+        assertEquals(4, engine.getAliveCount());
+        assertEquals(1, engine.getAliveWerewolves());
+        assertNull(engine.getWinner());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(engine.isAlive(i));
+            assertEquals(GameEngine.NONE, engine.getChoice(i));
+        }
+    }
+
+    @Test
+    void distributionPicksTheEntryForThePlayerCount() {
+        RoleDistribution distribution = RoleDistribution.parse(RoleDistribution.DEFAULT_SPEC);
+
+        assertEquals(1, distribution.werewolves(4));
+        assertEquals(0, distribution.seers(4));
+        assertEquals(1, distribution.seers(5));
+        assertEquals(2, distribution.werewolves(11));
+        assertEquals(3, distribution.werewolves(20));
+        assertThrows(IllegalArgumentException.class, () -> distribution.werewolves(2));
+    }
+
+    @Test
+    void distributionDealsExactCounts() {
+        RoleDistribution distribution = RoleDistribution.parse(RoleDistribution.DEFAULT_SPEC);
+        SplittableRandom random = new SplittableRandom(1);
+        for (int players = 3; players <= 16; players++) {
+            Role[] roles = new Role[players];
+            distribution.deal(roles, random);
+            assertEquals(distribution.werewolves(players), count(roles, Role.WEREWOLF));
+            assertEquals(distribution.seers(players), count(roles, Role.SEER));
+            assertEquals(players - distribution.werewolves(players) - distribution.seers(players),
+                count(roles, Role.VILLAGER));
+        }
+    }
+
+    @Test
+    void distributionRejectsBadSpecs() {
+        assertThrows(IllegalArgumentException.class, () -> RoleDistribution.parse("3:1"));
+        assertThrows(IllegalArgumentException.class, () -> RoleDistribution.parse(" , "));
+        assertThrows(IllegalArgumentException.class,
+            () -> RoleDistribution.fixed(2, 0).deal(new Role[4], new SplittableRandom(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> RoleDistribution.fixed(0, 1).deal(new Role[4], new SplittableRandom(1)));
+    }
+
+    private static GameEngine dealt(int players, int werewolves, int seers) {
+        GameEngine engine = new GameEngine(players);
+        engine.deal(RoleDistribution.fixed(werewolves, seers), new SplittableRandom(players));
+        return engine;
+    }
+
+    private static List<Integer> playersWith(GameEngine engine, Role role) {
+        List<Integer> players = new ArrayList<>();
+        for (int i = 0; i < engine.getPlayerCount(); i++) {
+            if (engine.getRole(i) == role) players.add(i);
+        }
+        return players;
+    }
+
+    private static List<Integer> alive(GameEngine engine) {
+        List<Integer> players = new ArrayList<>();
+        for (int i = 0; i < engine.getPlayerCount(); i++) {
+            if (engine.isAlive(i)) players.add(i);
+        }
+        return players;
+    }
+
+    private static int count(Role[] roles, Role role) {
+        int count = 0;
+        for (Role r : roles) {
+            if (r == role) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,195 @@
+package com.werewolfkill.game.matchmaking;
+
+import com.werewolfkill.game.admission.AdmissionControl;
+import com.werewolfkill.game.admission.AdmissionState;
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.service.RoomService;
+import com.werewolfkill.game.service.WebSocketService;
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchmakingServiceTest {
+
+    private static final int LOBBY_SIZE = 3;
+
+    private final SessionManager sessionManager = new SessionManager();
+    private final RoomService roomService = mock(RoomService.class);
+    private final WebSocketService webSocketService = mock(WebSocketService.class);
+    private final AdmissionControl admissionControl = new AdmissionControl();
+    private final List<Room> rooms = new ArrayList<>();
+    private MatchmakingService matchmakingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionManager, "roomTracer", new RoomTracer());
+        ReflectionTestUtils.setField(sessionManager, "eventPublisher", (ApplicationEventPublisher) event -> { });
+        ReflectionTestUtils.setField(admissionControl, "gameMetrics", mock(GameMetrics.class));
+        ReflectionTestUtils.setField(admissionControl, "retryAfterMs", 0L);
+
+        when(roomService.createRoom(anyString(), any(UUID.class), anyInt(), anyString(), anyBoolean()))
+            .thenAnswer(invocation -> {
+                Room room = new Room(UUID.randomUUID(), invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2), Instant.now(), invocation.getArgument(3),
+                    invocation.getArgument(4), false);
+                rooms.add(room);
+                return room;
+            });
+
+        matchmakingService = new MatchmakingService();
+        ReflectionTestUtils.setField(matchmakingService, "gameModes", new String[] {"CLASSIC"});
+        ReflectionTestUtils.setField(matchmakingService, "lobbySize", LOBBY_SIZE);
+        ReflectionTestUtils.setField(matchmakingService, "minPlayers", 2);
+        ReflectionTestUtils.setField(matchmakingService, "fillWaitMs", 60_000L);
+        ReflectionTestUtils.setField(matchmakingService, "maxWaitMs", 120_000L);
+        ReflectionTestUtils.setField(matchmakingService, "reservationTtlMs", 60_000L);
+        ReflectionTestUtils.setField(matchmakingService, "roomService", roomService);
+        ReflectionTestUtils.setField(matchmakingService, "webSocketService", webSocketService);
+        ReflectionTestUtils.setField(matchmakingService, "sessionManager", sessionManager);
+        ReflectionTestUtils.setField(matchmakingService, "admissionControl", admissionControl);
+        ReflectionTestUtils.setField(matchmakingService, "gameMetrics", mock(GameMetrics.class));
+        matchmakingService.createQueues();
+    }
+
+    @Test
+    void aFullLobbyGetsAPrivateRoomWithEverySeatReserved() {
+        List<UUID> players = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        assertEquals(1, matchmakingService.enqueue("ws-0", players.get(0), "p0", "CLASSIC"));
+        assertEquals(2, matchmakingService.enqueue("ws-1", players.get(1), "p1", "CLASSIC"));
+        assertEquals(0, matchmakingService.enqueue("ws-2", players.get(2), "p2", "CLASSIC"));
+        assertEquals(0, matchmakingService.getWaitingCount());
+
+        verify(roomService).createRoom(anyString(), eq(players.get(0)), eq(LOBBY_SIZE), eq("CLASSIC"), eq(false));
+        Room room = rooms.get(0);
+        assertEquals(Set.copyOf(players),
+            sessionManager.getSession(room.getId()).orElseThrow().getReservations().keySet());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, ?>> payloads = ArgumentCaptor.forClass(Map.class);
+        verify(webSocketService).sendPrivateMessagesToSessions(eq(MatchmakingService.DESTINATION), payloads.capture());
+        assertEquals(Set.of("ws-0", "ws-1", "ws-2"), payloads.getValue().keySet());
+    }
+
+    @Test
+    void reservedSeatsKeepStrangersOut() {
+        for (int i = 0; i < LOBBY_SIZE; i++) {
+            matchmakingService.enqueue("ws-" + i, UUID.randomUUID(), "p" + i, "CLASSIC");
+        }
+        Room room = rooms.get(0);
+
+        assertNull(sessionManager.addPlayer(room.getId(), room.getName(), "stranger", UUID.randomUUID(),
+            "stranger", room.getMaxPlayers()));
+    }
+
+    @Test
+    void aSecondTabReplacesTheFirstTicket() {
+        UUID player = UUID.randomUUID();
+        assertEquals(1, matchmakingService.enqueue("ws-1", player, "p", "CLASSIC"));
+        assertEquals(1, matchmakingService.enqueue("ws-2", player, "p", "CLASSIC"));
+
+        assertFalse(matchmakingService.cancel("ws-1"));
+        assertTrue(matchmakingService.cancel("ws-2"));
+        assertEquals(0, matchmakingService.getWaitingCount());
+    }
+
+    @Test
+    void aDeferredLobbyKeepsItsPlaceAtTheHead() {
+        ReflectionTestUtils.setField(admissionControl, "state", AdmissionState.DEGRADED);
+        List<UUID> first = new ArrayList<>();
+        for (int i = 0; i < LOBBY_SIZE; i++) {
+            UUID player = UUID.randomUUID();
+            first.add(player);
+            assertEquals(i + 1, matchmakingService.enqueue("ws-" + i, player, "p" + i, "CLASSIC"));
+        }
+        verify(roomService, never()).createRoom(anyString(), any(UUID.class), anyInt(), anyString(), anyBoolean());
+
+        // Load drops; the next enqueue starts the deferred lobby, not one that includes the newcomer
+        ReflectionTestUtils.setField(admissionControl, "state", AdmissionState.ACCEPTING);
+        assertEquals(1, matchmakingService.enqueue("ws-late", UUID.randomUUID(), "late", "CLASSIC"));
+
+        Room room = rooms.get(0);
+        assertEquals(Set.copyOf(first),
+            sessionManager.getSession(room.getId()).orElseThrow().getReservations().keySet());
+    }
+
+    @Test
+    void aDeferredLobbyWaitsOutTheRetryDelay() {
+        ReflectionTestUtils.setField(admissionControl, "state", AdmissionState.DEGRADED);
+        ReflectionTestUtils.setField(admissionControl, "retryAfterMs", 60_000L);
+        for (int i = 0; i < LOBBY_SIZE; i++) {
+            matchmakingService.enqueue("ws-" + i, UUID.randomUUID(), "p" + i, "CLASSIC");
+        }
+
+        ReflectionTestUtils.setField(admissionControl, "state", AdmissionState.ACCEPTING);
+        matchmakingService.enqueue("ws-late", UUID.randomUUID(), "late", "CLASSIC");
+        matchmakingService.sweep();
+
+        verify(roomService, never()).createRoom(anyString(), any(UUID.class), anyInt(), anyString(), anyBoolean());
+        assertEquals(LOBBY_SIZE + 1, matchmakingService.getWaitingCount());
+    }
+
+    @Test
+    void aFailedRoomCreationRestoresTheLobby() {
+        when(roomService.createRoom(anyString(), any(UUID.class), anyInt(), anyString(), anyBoolean()))
+            .thenThrow(new RuntimeException("database down"));
+        for (int i = 0; i < LOBBY_SIZE; i++) {
+            matchmakingService.enqueue("ws-" + i, UUID.randomUUID(), "p" + i, "CLASSIC");
+        }
+
+        assertEquals(LOBBY_SIZE, matchmakingService.getWaitingCount());
+        assertTrue(matchmakingService.cancel("ws-0"));
+    }
+
+    @Test
+    void longWaitersGetAShortLobby() {
+        ReflectionTestUtils.setField(matchmakingService, "fillWaitMs", 0L);
+        matchmakingService.enqueue("ws-0", UUID.randomUUID(), "p0", "CLASSIC");
+        matchmakingService.sweep();
+        verify(roomService, never()).createRoom(anyString(), any(UUID.class), anyInt(), anyString(), anyBoolean());
+
+        matchmakingService.enqueue("ws-1", UUID.randomUUID(), "p1", "CLASSIC");
+        matchmakingService.sweep();
+        verify(roomService, times(1)).createRoom(anyString(), any(UUID.class), anyInt(), anyString(), anyBoolean());
+        assertEquals(2, sessionManager.getSession(rooms.get(0).getId()).orElseThrow().getReservations().size());
+        assertEquals(0, matchmakingService.getWaitingCount());
+    }
+
+    @Test
+    void ticketsPastTheMaxWaitAreDroppedAndTold() {
+        ReflectionTestUtils.setField(matchmakingService, "maxWaitMs", 0L);
+        matchmakingService.enqueue("ws-0", UUID.randomUUID(), "p0", "CLASSIC");
+        matchmakingService.sweep();
+
+        assertEquals(0, matchmakingService.getWaitingCount());
+        assertFalse(matchmakingService.cancel("ws-0"));
+        verify(webSocketService).sendToSession(eq("ws-0"), eq(MatchmakingService.DESTINATION), anyMap());
+    }
+}
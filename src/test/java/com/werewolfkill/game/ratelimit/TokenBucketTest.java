@@ -0,0 +1,129 @@
+package com.werewolfkill.game.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    // 10 permits per second
+    private static final long INTERVAL = SECOND / 10;
+
+    @Test
+    void grantsTheBurstThenReportsTheWait() {
+        long now = 5 * SECOND;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(now));
+        // A denied attempt consumes nothing
+        assertEquals(INTERVAL, bucket.tryAcquire(now));
+        assertEquals(INTERVAL / 2, bucket.tryAcquire(now + INTERVAL / 2));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire(now);
+        }
+
+        now += INTERVAL;
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now) > 0);
+
+        // Two intervals later, two permits
+        now += 2 * INTERVAL;
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now) > 0);
+    }
+
+    @Test
+    void idleTimeNeverBanksMoreThanTheBurst() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(10, 3, now);
+
+        now += 60 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(now));
+    }
+
+    @Test
+    void sustainedRateMatchesPermitsPerSecond() {
+        TokenBucket bucket = new TokenBucket(10, 1, 0);
+        int granted = 0;
+        // Ask every millisecond for ten seconds
+        for (long now = 0; now < 10 * SECOND; now += 1_000_000L) {
+            if (bucket.tryAcquire(now) == 0) granted++;
+        }
+        assertEquals(100, granted);
+    }
+
+    @Test
+    void isIdleOnceFullyRefilled() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        assertTrue(bucket.isIdle(0));
+
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isIdle(0));
+        assertFalse(bucket.isIdle(INTERVAL));
+        assertTrue(bucket.isIdle(2 * INTERVAL));
+    }
+
+    @Test
+    void concurrentCallersShareOneBurst() throws Exception {
+        int threads = 32;
+        long now = SECOND;
+        TokenBucket bucket = new TokenBucket(1, 10, now);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (bucket.tryAcquire(now) == 0) granted++;
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> future : futures) {
+                granted += future.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(10, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveRateOrBurst() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(-1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0, 0));
+    }
+}
@@ -0,0 +1,126 @@
+package com.werewolfkill.game.service;
+
+import com.werewolfkill.game.model.GameState;
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.model.enums.Role;
+import com.werewolfkill.game.repository.GameStateRepository;
+import com.werewolfkill.game.repository.RoomRepository;
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.stats.Leaderboard;
+import com.werewolfkill.game.stats.UserStatsService;
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameServiceTest {
+
+    private final UUID roomId = UUID.randomUUID();
+    private final SessionManager sessionManager = new SessionManager();
+    private final UserStatsService userStatsService = mock(UserStatsService.class);
+    private final Leaderboard leaderboard = mock(Leaderboard.class);
+    private GameService gameService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionManager, "roomTracer", new RoomTracer());
+        ReflectionTestUtils.setField(sessionManager, "eventPublisher", (ApplicationEventPublisher) event -> { });
+
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findById(roomId)).thenReturn(Optional.of(
+            new Room(roomId, "room", UUID.randomUUID(), 8, Instant.now(), "CLASSIC", true, false)));
+        GameStateRepository gameStateRepository = mock(GameStateRepository.class);
+        when(gameStateRepository.save(any(GameState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        gameService = new GameService();
+        ReflectionTestUtils.setField(gameService, "roomRepository", roomRepository);
+        ReflectionTestUtils.setField(gameService, "gameStateRepository", gameStateRepository);
+        ReflectionTestUtils.setField(gameService, "webSocketService", mock(WebSocketService.class));
+        ReflectionTestUtils.setField(gameService, "sessionManager", sessionManager);
+        ReflectionTestUtils.setField(gameService, "userStatsService", userStatsService);
+        ReflectionTestUtils.setField(gameService, "leaderboard", leaderboard);
+        ReflectionTestUtils.setField(gameService, "roleDistributionSpec", List.of("3:1:0"));
+        gameService.init();
+    }
+
+    @Test
+    void playersWhoLeaveMidGameStillGetAResult() {
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UUID playerId = UUID.randomUUID();
+            players.add(playerId);
+            sessionManager.addPlayer(roomId, "room", "ws-" + i, playerId, "player" + i, 8);
+        }
+        gameService.startGame(roomId);
+
+        UUID wolf = null;
+        List<UUID> villagers = new ArrayList<>();
+        List<String> villagerSessions = new ArrayList<>();
+        for (SessionManager.PlayerInfo player : sessionManager.getSession(roomId).orElseThrow().getPlayers().values()) {
+            if (player.getRole() == Role.WEREWOLF) {
+                wolf = player.getPlayerId();
+            } else {
+                villagers.add(player.getPlayerId());
+                villagerSessions.add(player.getWebSocketSessionId());
+            }
+        }
+
+        // One villager drops out; the wolf kills the other, which is a werewolf win
+        sessionManager.removePlayer(roomId, villagerSessions.get(0));
+        gameService.handleNightAction(roomId, wolf, villagers.get(1), "KILL");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, Boolean>> results = ArgumentCaptor.forClass(Map.class);
+        verify(userStatsService).recordGame(results.capture());
+        assertEquals(3, results.getValue().size());
+        assertTrue(results.getValue().get(wolf));
+        assertFalse(results.getValue().get(villagers.get(0)));
+        assertFalse(results.getValue().get(villagers.get(1)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<UUID, String>> usernames = ArgumentCaptor.forClass(Map.class);
+        verify(leaderboard).recordGame(eq("CLASSIC"), anyMap(), usernames.capture());
+        int leaver = players.indexOf(villagers.get(0));
+        assertEquals("player" + leaver, usernames.getValue().get(villagers.get(0)));
+    }
+
+    @Test
+    void departedPlayersCannotAct() {
+        for (int i = 0; i < 3; i++) {
+            sessionManager.addPlayer(roomId, "room", "ws-" + i, UUID.randomUUID(), "player" + i, 8);
+        }
+        gameService.startGame(roomId);
+
+        SessionManager.PlayerInfo wolf = sessionManager.getSession(roomId).orElseThrow().getPlayers().values().stream()
+            .filter(player -> player.getRole() == Role.WEREWOLF)
+            .findFirst().orElseThrow();
+        SessionManager.PlayerInfo villager = sessionManager.getSession(roomId).orElseThrow().getPlayers().values().stream()
+            .filter(player -> player.getRole() != Role.WEREWOLF)
+            .findFirst().orElseThrow();
+        sessionManager.removePlayer(roomId, wolf.getWebSocketSessionId());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> gameService.handleNightAction(roomId, wolf.getPlayerId(), villager.getPlayerId(), "KILL"));
+        assertEquals("Action not allowed", e.getMessage());
+    }
+}
@@ -0,0 +1,83 @@
+package com.werewolfkill.game.service;
+
+import com.werewolfkill.game.metrics.GameMetrics;
+import com.werewolfkill.game.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameAvailabilityServiceTest {
+
+    private static final int EXPECTED_USERS = 20_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Set<String> taken = new HashSet<>();
+    private final AtomicInteger databaseChecks = new AtomicInteger();
+    private UsernameAvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.existsByUsername(anyString())).thenAnswer(invocation -> {
+            databaseChecks.incrementAndGet();
+            return taken.contains(invocation.<String>getArgument(0));
+        });
+
+        service = new UsernameAvailabilityService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "gameMetrics", mock(GameMetrics.class));
+        ReflectionTestUtils.setField(service, "expectedUsers", (long) EXPECTED_USERS);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", FALSE_POSITIVE_RATE);
+        service.init();
+    }
+
+    @Test
+    void checksTheDatabaseUntilLoaded() {
+        assertTrue(service.isAvailable("alice"));
+        assertEquals(1, databaseChecks.get());
+    }
+
+    @Test
+    void takenUsernamesAreNeverReportedAvailable() {
+        register(EXPECTED_USERS);
+        ReflectionTestUtils.setField(service, "loaded", true);
+
+        for (String username : taken) {
+            assertFalse(service.isAvailable(username), username);
+        }
+        // No false negatives: every taken name went to the database
+        assertEquals(EXPECTED_USERS, databaseChecks.get());
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        register(EXPECTED_USERS);
+        ReflectionTestUtils.setField(service, "loaded", true);
+
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            assertTrue(service.isAvailable("free-" + i));
+        }
+        double rate = (double) databaseChecks.get() / probes;
+        assertTrue(rate < FALSE_POSITIVE_RATE * 1.5, "false-positive rate " + rate);
+    }
+
+    private void register(int count) {
+        for (int i = 0; i < count; i++) {
+            String username = "user" + i;
+            taken.add(username);
+            service.add(username);
+        }
+    }
+}
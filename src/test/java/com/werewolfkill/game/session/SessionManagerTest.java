@@ -0,0 +1,211 @@
+package com.werewolfkill.game.session;
+
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionManagerTest {
+
+    private static final int THREADS = 32;
+    private static final int MAX_PLAYERS = 8;
+
+    private SessionManager sessionManager;
+    private final UUID roomId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        sessionManager = new SessionManager();
+        // tracing.ring-size is unset (0), so the tracer only emits JFR events
+        ReflectionTestUtils.setField(sessionManager, "roomTracer", new RoomTracer());
+        ReflectionTestUtils.setField(sessionManager, "eventPublisher", (ApplicationEventPublisher) event -> { });
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        List<Boolean> results = race(i ->
+            sessionManager.reserveSeat(roomId, "room", UUID.randomUUID(), MAX_PLAYERS, 60_000));
+
+        assertEquals(MAX_PLAYERS, results.stream().filter(reserved -> reserved).count());
+        assertEquals(MAX_PLAYERS, sessionManager.getSession(roomId).orElseThrow().getReservations().size());
+    }
+
+    @Test
+    void concurrentJoinsNeverExceedCapacity() throws Exception {
+        List<SessionManager.PlayerInfo> results = race(i ->
+            sessionManager.addPlayer(roomId, "room", "ws-" + i, UUID.randomUUID(), "player" + i, MAX_PLAYERS));
+
+        assertEquals(MAX_PLAYERS, results.stream().filter(player -> player != null).count());
+        SessionManager.RoomSession session = sessionManager.getSession(roomId).orElseThrow();
+        assertEquals(MAX_PLAYERS, session.getPlayers().size());
+        // The host is the first player in join order
+        assertEquals(session.getPlayers().keySet().iterator().next(), session.getHostSessionId());
+    }
+
+    @Test
+    void reservedSeatsCountAgainstCapacityUntilClaimed() {
+        UUID reserved = UUID.randomUUID();
+        assertTrue(sessionManager.reserveSeat(roomId, "room", reserved, 2, 60_000));
+        assertNotNull(sessionManager.addPlayer(roomId, "room", "ws-1", UUID.randomUUID(), "first", 2));
+
+        assertNull(sessionManager.addPlayer(roomId, "room", "ws-2", UUID.randomUUID(), "late", 2));
+        assertFalse(sessionManager.reserveSeat(roomId, "room", UUID.randomUUID(), 2, 60_000));
+
+        assertNotNull(sessionManager.addPlayer(roomId, "room", "ws-3", reserved, "reserved", 2));
+        SessionManager.RoomSession session = sessionManager.getSession(roomId).orElseThrow();
+        assertEquals(2, session.getPlayers().size());
+        assertTrue(session.getReservations().isEmpty());
+        // Already seated: reserving again is a no-op success
+        assertTrue(sessionManager.reserveSeat(roomId, "room", reserved, 2, 60_000));
+    }
+
+    @Test
+    void snapshotsAreNeverModifiedInPlace() {
+        sessionManager.addPlayer(roomId, "room", "ws-1", UUID.randomUUID(), "first", MAX_PLAYERS);
+        SessionManager.RoomSession before = sessionManager.getSession(roomId).orElseThrow();
+
+        sessionManager.addPlayer(roomId, "room", "ws-2", UUID.randomUUID(), "second", MAX_PLAYERS);
+        SessionManager.RoomSession after = sessionManager.getSession(roomId).orElseThrow();
+
+        assertEquals(1, before.getPlayers().size());
+        assertEquals(2, after.getPlayers().size());
+        assertTrue(after.getVersion() > before.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> after.getPlayers().remove("ws-1"));
+
+        // Heartbeats replace the snapshot but aren't visible, so the version stays put
+        sessionManager.updateHeartbeat(roomId, "ws-1");
+        SessionManager.RoomSession beat = sessionManager.getSession(roomId).orElseThrow();
+        assertNotEquals(after, beat);
+        assertEquals(after.getVersion(), beat.getVersion());
+    }
+
+    @Test
+    void hostPassesToTheLongestPresentPlayer() {
+        sessionManager.addPlayer(roomId, "room", "ws-1", UUID.randomUUID(), "first", MAX_PLAYERS);
+        sessionManager.addPlayer(roomId, "room", "ws-2", UUID.randomUUID(), "second", MAX_PLAYERS);
+        sessionManager.addPlayer(roomId, "room", "ws-3", UUID.randomUUID(), "third", MAX_PLAYERS);
+
+        sessionManager.removePlayer(roomId, "ws-1");
+        assertEquals("ws-2", sessionManager.getSession(roomId).orElseThrow().getHostSessionId());
+    }
+
+    @Test
+    void joiningAClosedRoomOpensAFreshSession() {
+        sessionManager.addPlayer(roomId, "room", "ws-1", UUID.randomUUID(), "first", MAX_PLAYERS);
+        sessionManager.removePlayer(roomId, "ws-1");
+        assertTrue(sessionManager.getSession(roomId).isEmpty());
+        assertThrows(IllegalStateException.class,
+            () -> sessionManager.addPlayer(roomId, "ws-2", UUID.randomUUID(), "second"));
+
+        assertNotNull(sessionManager.addPlayer(roomId, "room", "ws-2", UUID.randomUUID(), "second", MAX_PLAYERS));
+        SessionManager.RoomSession session = sessionManager.getSession(roomId).orElseThrow();
+        assertEquals("room", session.getRoomName());
+        assertEquals("ws-2", session.getHostSessionId());
+    }
+
+    @Test
+    void closingASessionPublishesItsRoom() {
+        List<Object> events = new ArrayList<>();
+        ReflectionTestUtils.setField(sessionManager, "eventPublisher", (ApplicationEventPublisher) events::add);
+
+        sessionManager.addPlayer(roomId, "room", "ws-1", UUID.randomUUID(), "first", MAX_PLAYERS);
+        sessionManager.addPlayer(roomId, "room", "ws-2", UUID.randomUUID(), "second", MAX_PLAYERS);
+        sessionManager.removePlayer(roomId, "ws-1");
+        assertTrue(events.isEmpty());
+
+        sessionManager.removePlayer(roomId, "ws-2");
+        assertEquals(1, events.size());
+        assertEquals(roomId, ((RoomSessionClosedEvent) events.get(0)).getRoomId());
+    }
+
+    @Test
+    void concurrentJoinsAndLeavesStayConsistent() throws Exception {
+        sessionManager.addPlayer(roomId, "room", "anchor", UUID.randomUUID(), "anchor", Integer.MAX_VALUE);
+
+        race(i -> {
+            for (int round = 0; round < 50; round++) {
+                String wsId = "ws-" + i + "-" + round;
+                assertNotNull(sessionManager.addPlayer(roomId, "room", wsId, UUID.randomUUID(), "p" + i, Integer.MAX_VALUE));
+                sessionManager.removePlayer(roomId, wsId);
+            }
+            return null;
+        });
+
+        SessionManager.RoomSession session = sessionManager.getSession(roomId).orElseThrow();
+        assertEquals(1, session.getPlayers().size());
+        assertEquals("anchor", session.getHostSessionId());
+    }
+
+    @Test
+    void readersAlwaysSeeAConsistentSnapshot() throws Exception {
+        sessionManager.addPlayer(roomId, "room", "anchor", UUID.randomUUID(), "anchor", Integer.MAX_VALUE);
+
+        race(i -> {
+            if (i % 2 == 0) {
+                for (int round = 0; round < 200; round++) {
+                    String wsId = "ws-" + i + "-" + round;
+                    sessionManager.addPlayer(roomId, "room", wsId, UUID.randomUUID(), "p" + i, Integer.MAX_VALUE);
+                    sessionManager.setPhase(roomId, round % 2 == 0 ? "DAY" : "NIGHT");
+                    sessionManager.removePlayer(roomId, wsId);
+                }
+                return null;
+            }
+            long lastVersion = 0;
+            for (int round = 0; round < 2_000; round++) {
+                SessionManager.RoomSession session = sessionManager.getSession(roomId).orElseThrow();
+                assertTrue(session.getPlayers().containsKey(session.getHostSessionId()));
+                assertTrue(session.getVersion() >= lastVersion);
+                lastVersion = session.getVersion();
+            }
+            return null;
+        });
+    }
+
+    private interface Task<T> {
+        T run(int index) throws Exception;
+    }
+
+    /** Run the task on THREADS threads released at once; results in thread order. */
+    private static <T> List<T> race(Task<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.werewolfkill.game.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedSkipListTest {
+
+    @Test
+    void emptyList() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+
+        assertEquals(0, list.size());
+        assertEquals(-1, list.indexOf(1));
+        assertFalse(list.remove(1));
+        assertTrue(list.range(0, 10).isEmpty());
+    }
+
+    @Test
+    void rangeIsClampedToTheList() {
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.naturalOrder());
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+
+        assertEquals(List.of(7, 8, 9), list.range(7, 100));
+        assertTrue(list.range(10, 5).isEmpty());
+        assertTrue(list.range(-1, 5).isEmpty());
+        assertTrue(list.range(3, 0).isEmpty());
+    }
+
+    @Test
+    void matchesTreeSetUnderRandomOperations() {
+        Random random = new Random(42);
+        IndexedSkipList<Integer> list = new IndexedSkipList<>(Comparator.reverseOrder());
+        TreeSet<Integer> expected = new TreeSet<>(Comparator.reverseOrder());
+
+        for (int op = 0; op < 20_000; op++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), list.remove(value), "remove " + value);
+            } else if (expected.add(value)) {
+                list.add(value);
+            }
+            assertEquals(expected.size(), list.size());
+
+            if (op % 500 == 0) {
+                assertSameOrder(expected, list);
+            }
+        }
+        assertSameOrder(expected, list);
+
+        // Drain to empty and back, so the level shrinks and grows again
+        for (Integer value : new ArrayList<>(expected)) {
+            assertTrue(list.remove(value));
+        }
+        expected.clear();
+        assertEquals(0, list.size());
+        for (int i = 0; i < 500; i++) {
+            expected.add(i);
+            list.add(i);
+        }
+        assertSameOrder(expected, list);
+    }
+
+    private static void assertSameOrder(TreeSet<Integer> expected, IndexedSkipList<Integer> list) {
+        List<Integer> ordered = new ArrayList<>(expected);
+        assertEquals(ordered, list.range(0, ordered.size() + 1));
+
+        for (int i = 0; i < ordered.size(); i++) {
+            assertEquals(i, list.indexOf(ordered.get(i)));
+        }
+        assertEquals(-1, list.indexOf(-1));
+
+        Random random = new Random(ordered.size());
+        for (int i = 0; i < 20 && !ordered.isEmpty(); i++) {
+            int from = random.nextInt(ordered.size());
+            int count = 1 + random.nextInt(50);
+            assertEquals(ordered.subList(from, Math.min(ordered.size(), from + count)), list.range(from, count));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.werewolfkill.game.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardTest {
+
+    private static final String MODE = "CLASSIC";
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private final UUID carol = UUID.randomUUID();
+    private final Map<UUID, String> usernames = Map.of(alice, "alice", bob, "bob", carol, "carol");
+
+    // Each successful upsert: the game mode it wrote and user id -> {games, wins}
+    private final List<Map<UUID, int[]>> upserts = new ArrayList<>();
+    private final List<String> upsertModes = new ArrayList<>();
+    // Upserts left to fail before the database "recovers"
+    private final AtomicInteger failures = new AtomicInteger();
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            Object[] args = (Object[]) invocation.getRawArguments()[1];
+            Map<UUID, int[]> rows = new HashMap<>();
+            for (int i = 0; i < args.length; i += 5) {
+                upsertModes.add((String) args[i + 1]);
+                rows.put((UUID) args[i], new int[] {(Integer) args[i + 2], (Integer) args[i + 3]});
+            }
+            upserts.add(rows);
+            return rows.size();
+        });
+
+        leaderboard = new Leaderboard();
+        ReflectionTestUtils.setField(leaderboard, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(leaderboard, "batchSize", 500);
+    }
+
+    @Test
+    void ranksByWinsThenFewerGames() {
+        record(Map.of(alice, true, bob, false, carol, true));
+        record(Map.of(alice, true, bob, true));
+
+        List<Map<String, Object>> top = leaderboard.getTop(MODE, 0, 10);
+        assertEquals(List.of("alice", "carol", "bob"), top.stream().map(row -> row.get("username")).toList());
+        assertEquals(List.of(1, 2, 3), top.stream().map(row -> row.get("rank")).toList());
+        // carol and bob both have one win; carol needed fewer games
+        assertEquals(1, top.get(1).get("gamesPlayed"));
+
+        Map<String, Object> around = leaderboard.getAround(Leaderboard.GLOBAL, bob, 1);
+        assertEquals(3, around.get("rank"));
+        assertEquals(3, around.get("totalPlayers"));
+        assertEquals(2, ((List<?>) around.get("entries")).size());
+
+        assertNull(leaderboard.getAround(MODE, UUID.randomUUID(), 1));
+        assertTrue(leaderboard.getTop("RANKED", 0, 10).isEmpty());
+    }
+
+    @Test
+    void persistsOnlyTheModeDeltasSinceTheLastSnapshot() {
+        record(Map.of(alice, true, bob, false));
+        record(Map.of(alice, false));
+        persist();
+
+        assertEquals(1, upserts.size());
+        assertEquals(List.of(MODE, MODE), upsertModes);
+        assertArrayEquals(new int[] {2, 1}, upserts.get(0).get(alice));
+        assertArrayEquals(new int[] {1, 0}, upserts.get(0).get(bob));
+
+        // Nothing new: nothing written
+        persist();
+        assertEquals(1, upserts.size());
+
+        record(Map.of(bob, true));
+        persist();
+        assertEquals(Map.of(bob, List.of(1, 1)), asLists(upserts.get(1)));
+    }
+
+    @Test
+    void aFailedSnapshotIsRetriedWithLaterGamesAdded() {
+        record(Map.of(alice, true, bob, false));
+        failures.set(1);
+        persist();
+        assertTrue(upserts.isEmpty());
+
+        // The board itself is unaffected by the failed write
+        assertEquals(1, leaderboard.getTop(MODE, 0, 1).get(0).get("wins"));
+
+        record(Map.of(alice, true));
+        persist();
+        assertEquals(1, upserts.size());
+        assertArrayEquals(new int[] {2, 2}, upserts.get(0).get(alice));
+        assertArrayEquals(new int[] {1, 0}, upserts.get(0).get(bob));
+
+        persist();
+        assertEquals(1, upserts.size());
+    }
+
+    @Test
+    void onlyTheFailedBatchIsRetried() {
+        ReflectionTestUtils.setField(leaderboard, "batchSize", 2);
+        record(Map.of(alice, true, bob, false, carol, false));
+
+        // The first batch fails, the second goes through
+        failures.set(1);
+        persist();
+        assertEquals(1, upserts.size());
+        Map<UUID, int[]> written = upserts.get(0);
+        assertEquals(1, written.size());
+
+        persist();
+        assertEquals(2, upserts.size());
+        assertEquals(2, upserts.get(1).size());
+        assertTrue(upserts.get(1).keySet().stream().noneMatch(written::containsKey));
+
+        // Every player was written exactly once, with their one game
+        Map<UUID, int[]> all = new HashMap<>(written);
+        all.putAll(upserts.get(1));
+        assertEquals(Map.of(alice, List.of(1, 1), bob, List.of(1, 0), carol, List.of(1, 0)), asLists(all));
+    }
+
+    private void record(Map<UUID, Boolean> results) {
+        leaderboard.recordGame(MODE, results, usernames);
+    }
+
+    private void persist() {
+        ReflectionTestUtils.invokeMethod(leaderboard, "persist");
+    }
+
+    private static Map<UUID, List<Integer>> asLists(Map<UUID, int[]> rows) {
+        Map<UUID, List<Integer>> lists = new HashMap<>();
+        rows.forEach((userId, delta) -> lists.put(userId, List.of(delta[0], delta[1])));
+        return lists;
+    }
+}
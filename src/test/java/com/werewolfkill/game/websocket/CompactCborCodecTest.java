@@ -0,0 +1,98 @@
+package com.werewolfkill.game.websocket;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompactCborCodecTest {
+
+    private final CompactCborCodec codec = new CompactCborCodec();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void idFieldsAreSentAsTaggedUuids() throws Exception {
+        String roomId = UUID.randomUUID().toString();
+        String playerId = UUID.randomUUID().toString();
+        byte[] cbor = transcode("{\"type\":\"ROOM_STATE\",\"roomId\":\"" + roomId + "\","
+            + "\"players\":[{\"playerId\":\"" + playerId + "\",\"username\":\"alice\"}]}");
+
+        assertEquals(2, tagged(cbor).size());
+        assertRoundTrips(cbor, "{\"type\":\"ROOM_STATE\",\"roomId\":\"" + roomId + "\","
+            + "\"players\":[{\"playerId\":\"" + playerId + "\",\"username\":\"alice\"}]}");
+    }
+
+    @Test
+    void uuidShapedTextElsewhereIsSentVerbatim() throws Exception {
+        String uuid = UUID.randomUUID().toString();
+        String json = "{\"message\":\"" + uuid + "\",\"username\":\"" + uuid + "\","
+            + "\"targets\":[\"" + uuid + "\"]}";
+        byte[] cbor = transcode(json);
+
+        assertEquals(List.of(), tagged(cbor));
+        assertRoundTrips(cbor, json);
+    }
+
+    @Test
+    void nonCanonicalIdsAreSentVerbatim() throws Exception {
+        // UUID.fromString would accept these but print them differently
+        String json = "{\"roomId\":\"" + UUID.randomUUID().toString().toUpperCase() + "\","
+            + "\"playerId\":\"0001-0002-0003-0004-000000000005\"}";
+        byte[] cbor = transcode(json);
+
+        assertEquals(List.of(), tagged(cbor));
+        assertRoundTrips(cbor, json);
+    }
+
+    @Test
+    void dictionaryKeysBecomeIdsAndBackAgain() throws Exception {
+        byte[] cbor = transcode("{\"type\":\"PHASE\",\"dayNumber\":2,\"custom\":true}");
+
+        List<String> keys = new ArrayList<>();
+        try (CBORParser parser = new CBORFactory().createParser(cbor)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME) keys.add(parser.currentName());
+            }
+        }
+        assertEquals(List.of(
+            String.valueOf(CompactCborCodec.FIELD_DICTIONARY.indexOf("type")),
+            String.valueOf(CompactCborCodec.FIELD_DICTIONARY.indexOf("dayNumber")),
+            "custom"), keys);
+        assertRoundTrips(cbor, "{\"type\":\"PHASE\",\"dayNumber\":2,\"custom\":true}");
+    }
+
+    private byte[] transcode(String json) {
+        return codec.transcodeJson(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertRoundTrips(byte[] cbor, String json) throws Exception {
+        JsonNode decoded = objectMapper.readTree(codec.decodeToJson(cbor));
+        assertEquals(objectMapper.readTree(json), decoded);
+    }
+
+    /** Every tag-37 value in the payload, as UUIDs. */
+    private static List<String> tagged(byte[] cbor) throws Exception {
+        List<String> uuids = new ArrayList<>();
+        try (CBORParser parser = new CBORFactory().createParser(cbor)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_EMBEDDED_OBJECT && parser.getCurrentTag() == CompactCborCodec.UUID_TAG) {
+                    ByteBuffer buffer = ByteBuffer.wrap(parser.getBinaryValue());
+                    uuids.add(new UUID(buffer.getLong(), buffer.getLong()).toString());
+                }
+            }
+        }
+        return uuids;
+    }
+}
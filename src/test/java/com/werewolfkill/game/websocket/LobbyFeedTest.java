@@ -0,0 +1,234 @@
+package com.werewolfkill.game.websocket;
+
+import com.werewolfkill.game.model.Room;
+import com.werewolfkill.game.repository.RoomRepository;
+import com.werewolfkill.game.session.SessionManager;
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LobbyFeedTest {
+
+    private final SessionManager sessionManager = new SessionManager();
+    private final List<Map<String, Object>> sent = Collections.synchronizedList(new ArrayList<>());
+    private final Room existing = room(true);
+    private LobbyFeed lobbyFeed;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionManager, "roomTracer", new RoomTracer());
+        ReflectionTestUtils.setField(sessionManager, "eventPublisher", (ApplicationEventPublisher) event -> { });
+
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        when(roomRepository.findByPooledFalseAndIsPublicTrue()).thenReturn(List.of(existing));
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(1));
+            return null;
+        }).when(messagingTemplate).convertAndSend(eq(LobbyFeed.TOPIC), any(Object.class));
+
+        lobbyFeed = new LobbyFeed();
+        ReflectionTestUtils.setField(lobbyFeed, "sessionManager", sessionManager);
+        ReflectionTestUtils.setField(lobbyFeed, "roomRepository", roomRepository);
+        ReflectionTestUtils.setField(lobbyFeed, "messagingTemplate", messagingTemplate);
+        // Flushed by hand below; the scheduled one never comes due
+        ReflectionTestUtils.setField(lobbyFeed, "flushIntervalMs", TimeUnit.HOURS.toMillis(1));
+        lobbyFeed.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lobbyFeed.stop();
+    }
+
+    @Test
+    void aNewRoomIsInTheSnapshotOnlyAfterItsDelta() {
+        assertEquals(0L, lobbyFeed.snapshot().get("seq"));
+        assertEquals(List.of(existing.getId().toString()), roomIds(lobbyFeed.snapshot()));
+
+        Room created = room(true);
+        lobbyFeed.roomCreated(created);
+        assertEquals(List.of(existing.getId().toString()), roomIds(lobbyFeed.snapshot()));
+
+        flush();
+        assertEquals(1, sent.size());
+        assertEquals(1L, sent.get(0).get("seq"));
+        assertEquals(List.of("ROOM_CREATED"), eventTypes(sent.get(0)));
+
+        Map<String, Object> snapshot = lobbyFeed.snapshot();
+        assertEquals(1L, snapshot.get("seq"));
+        assertEquals(2, roomIds(snapshot).size());
+    }
+
+    @Test
+    void onlyRoomsThatChangedAreSent() {
+        lobbyFeed.markRoomDirty(existing.getId());
+        flush();
+        assertTrue(sent.isEmpty());
+        assertEquals(0L, lobbyFeed.snapshot().get("seq"));
+
+        sessionManager.addPlayer(existing.getId(), existing.getName(), "ws-1", UUID.randomUUID(), "first", 8);
+        lobbyFeed.markRoomDirty(existing.getId());
+        lobbyFeed.markRoomDirty(existing.getId());
+        flush();
+
+        assertEquals(1, sent.size());
+        Map<String, Object> event = events(sent.get(0)).get(0);
+        assertEquals("ROOM_UPDATED", event.get("type"));
+        assertEquals(1, event.get("currentPlayers"));
+        assertEquals(1, rooms(lobbyFeed.snapshot()).get(0).get("currentPlayers"));
+    }
+
+    @Test
+    void closedRoomsAreAnnouncedOnce() {
+        lobbyFeed.roomsClosed(List.of(existing.getId()));
+        flush();
+        flush();
+
+        assertEquals(1, sent.size());
+        assertEquals(List.of("ROOM_CLOSED"), eventTypes(sent.get(0)));
+        assertTrue(roomIds(lobbyFeed.snapshot()).isEmpty());
+    }
+
+    @Test
+    void aRoomClosedBeforeItsDeltaIsNeverAnnounced() {
+        Room created = room(true);
+        lobbyFeed.roomCreated(created);
+        lobbyFeed.roomsClosed(List.of(created.getId()));
+        flush();
+
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    void privateRoomsStayOutOfTheLobby() {
+        lobbyFeed.roomCreated(room(false));
+        flush();
+
+        assertTrue(sent.isEmpty());
+        assertEquals(1, roomIds(lobbyFeed.snapshot()).size());
+    }
+
+    @Test
+    void concurrentCreationsAreEachSeenExactlyOnce() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        AtomicBoolean done = new AtomicBoolean();
+        List<Map<String, Object>> snapshots = new ArrayList<>();
+        Map<String, Long> createdAt = new HashMap<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            // Snapshots and flushes interleave with creation, as subscribers and the flush thread do
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (!done.get()) {
+                    snapshots.add(lobbyFeed.snapshot());
+                    flush();
+                }
+                return null;
+            });
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        lobbyFeed.roomCreated(room(true));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        flush();
+
+        long lastSeq = 0;
+        synchronized (sent) {
+            for (Map<String, Object> delta : sent) {
+                long seq = (Long) delta.get("seq");
+                assertEquals(lastSeq + 1, seq);
+                lastSeq = seq;
+                for (Map<String, Object> event : events(delta)) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> room = (Map<String, Object>) event.get("room");
+                    assertNull(createdAt.put((String) room.get("id"), seq));
+                }
+            }
+        }
+        assertEquals(threads * perThread, createdAt.size());
+
+        // A room in a snapshot was announced at or before its seq, never after it
+        for (Map<String, Object> snapshot : snapshots) {
+            long snapshotSeq = (Long) snapshot.get("seq");
+            for (String roomId : roomIds(snapshot)) {
+                assertTrue(createdAt.getOrDefault(roomId, 0L) <= snapshotSeq);
+            }
+        }
+
+        Map<String, Object> snapshot = lobbyFeed.snapshot();
+        assertEquals(lastSeq, snapshot.get("seq"));
+        assertEquals(threads * perThread + 1, roomIds(snapshot).size());
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(lobbyFeed, "flush");
+    }
+
+    private static Room room(boolean isPublic) {
+        UUID id = UUID.randomUUID();
+        return new Room(id, "room-" + id, UUID.randomUUID(), 8, Instant.now(), "CLASSIC", isPublic, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rooms(Map<String, Object> snapshot) {
+        return (List<Map<String, Object>>) snapshot.get("rooms");
+    }
+
+    private static List<String> roomIds(Map<String, Object> snapshot) {
+        return rooms(snapshot).stream().map(room -> (String) room.get("id")).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> events(Map<String, Object> delta) {
+        return (List<Map<String, Object>>) delta.get("events");
+    }
+
+    private static List<Object> eventTypes(Map<String, Object> delta) {
+        return events(delta).stream().map(event -> event.get("type")).toList();
+    }
+}
@@ -0,0 +1,135 @@
+package com.werewolfkill.game.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomEventLogTest {
+
+    private static final int BUFFER_SIZE = 8;
+
+    private RoomEventLog eventLog;
+    private final UUID roomId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        eventLog = new RoomEventLog();
+        ReflectionTestUtils.setField(eventLog, "bufferSize", BUFFER_SIZE);
+    }
+
+    @Test
+    void sequenceStartsAtOneAndIncrements() {
+        long epoch = eventLog.position(roomId)[0];
+        assertEquals(0, eventLog.position(roomId)[1]);
+
+        for (int i = 1; i <= 3; i++) {
+            RoomEventLog.RoomEvent event = record("event" + i);
+            assertEquals(i, event.getSeq());
+            assertEquals(epoch, event.getEpoch());
+        }
+        assertEquals(3, eventLog.position(roomId)[1]);
+    }
+
+    @Test
+    void replaysOnlyTheMissedEvents() {
+        long epoch = eventLog.position(roomId)[0];
+        for (int i = 1; i <= 5; i++) {
+            record("event" + i);
+        }
+
+        List<RoomEventLog.RoomEvent> missed = eventLog.eventsSince(roomId, epoch, 2).orElseThrow();
+        assertEquals(List.of(3L, 4L, 5L), missed.stream().map(RoomEventLog.RoomEvent::getSeq).toList());
+        assertEquals("event3", missed.get(0).getPayload());
+
+        // Up to date: nothing to replay, but no snapshot needed either
+        assertTrue(eventLog.eventsSince(roomId, epoch, 5).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void gapsOlderThanTheRingNeedASnapshot() {
+        long epoch = eventLog.position(roomId)[0];
+        for (int i = 1; i <= BUFFER_SIZE + 3; i++) {
+            record("event" + i);
+        }
+
+        // Exactly a ring's worth behind still replays; one more does not
+        assertEquals(BUFFER_SIZE, eventLog.eventsSince(roomId, epoch, 3).orElseThrow().size());
+        assertTrue(eventLog.eventsSince(roomId, epoch, 2).isEmpty());
+        assertTrue(eventLog.eventsSince(roomId, epoch, 0).isEmpty());
+    }
+
+    @Test
+    void aSeqFromTheFutureNeedsASnapshot() {
+        long epoch = eventLog.position(roomId)[0];
+        record("event1");
+
+        assertTrue(eventLog.eventsSince(roomId, epoch, 2).isEmpty());
+    }
+
+    @Test
+    void anotherEpochNeedsASnapshot() throws Exception {
+        long epoch = eventLog.position(roomId)[0];
+        record("event1");
+        assertTrue(eventLog.eventsSince(roomId, epoch + 1, 0).isEmpty());
+
+        // A room whose session ended starts a new ring under a new epoch
+        eventLog.discard(roomId);
+        assertTrue(eventLog.eventsSince(roomId, epoch, 1).isEmpty());
+        Thread.sleep(2);
+        long[] position = eventLog.position(roomId);
+        assertNotEquals(epoch, position[0]);
+        assertEquals(0, position[1]);
+        assertTrue(eventLog.eventsSince(roomId, epoch, 1).isEmpty());
+    }
+
+    @Test
+    void concurrentSendersSeeSequenceOrder() throws Exception {
+        int threads = 16;
+        int perThread = 200;
+        List<Long> sent = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        eventLog.record(roomId, "/topic/room/" + roomId, "event", event -> sent.add(event.getSeq()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            assertEquals(i + 1, sent.get(i));
+        }
+    }
+
+    private RoomEventLog.RoomEvent record(Object payload) {
+        return eventLog.record(roomId, "/topic/room/" + roomId, payload, event -> { });
+    }
+}
@@ -0,0 +1,197 @@
+package com.werewolfkill.game.websocket;
+
+import com.werewolfkill.game.tracing.RoomTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlowConsumerMonitorTest {
+
+    private static final String SESSION_ID = "ws-1";
+    private static final int MAX_CONFLATED = 3;
+
+    private SlowConsumerMonitor monitor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+    private final List<String> delivered = new ArrayList<>();
+    private final MessageHandler handler = message -> delivered.add((String) message.getPayload());
+
+    @BeforeEach
+    void setUp() throws Exception {
+        monitor = new SlowConsumerMonitor();
+        ReflectionTestUtils.setField(monitor, "roomTracer", new RoomTracer());
+        ReflectionTestUtils.setField(monitor, "conflateThreshold", 2);
+        ReflectionTestUtils.setField(monitor, "maxConflated", MAX_CONFLATED);
+
+        when(session.getId()).thenReturn(SESSION_ID);
+        monitor.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+    }
+
+    @Test
+    void idleSessionsSendStraightThrough() {
+        Message<?> first = message("event1", null);
+        assertSame(first, monitor.preSend(first, channel));
+        handled(first);
+
+        Message<?> second = message("event2", null);
+        assertSame(second, monitor.preSend(second, channel));
+        assertEquals(0, monitor.getLaggingSessionCount());
+    }
+
+    @Test
+    void queuedMessagesFollowInPublishOrder() {
+        Message<?> first = message("event1", null);
+        assertSame(first, monitor.preSend(first, channel));
+        assertNull(monitor.preSend(message("event2", null), channel));
+        assertNull(monitor.preSend(message("event3", null), channel));
+        assertEquals(1, monitor.getLaggingSessionCount());
+
+        handled(first);
+        assertEquals(List.of("event2", "event3"), delivered);
+        assertEquals(0, monitor.getLaggingSessionCount());
+
+        // Drained: the session is idle again
+        Message<?> next = message("event4", null);
+        assertSame(next, monitor.preSend(next, channel));
+    }
+
+    @Test
+    void aNewerSnapshotReplacesTheQueuedOneBehindLaterEvents() {
+        Message<?> first = message("event1", null);
+        monitor.preSend(first, channel);
+        monitor.preSend(message("state1", "room-state"), channel);
+        monitor.preSend(message("event2", null), channel);
+        monitor.preSend(message("state2", "room-state"), channel);
+
+        handled(first);
+        // state1 is dropped rather than sent after event2
+        assertEquals(List.of("event2", "state2"), delivered);
+    }
+
+    @Test
+    void snapshotsAreOnlyConflatedWhileLagging() {
+        ReflectionTestUtils.setField(monitor, "conflateThreshold", 3);
+        Message<?> first = message("event1", null);
+        monitor.preSend(first, channel);
+        monitor.preSend(message("state1", "room-state"), channel);
+        monitor.preSend(message("state2", "room-state"), channel);
+
+        handled(first);
+        assertEquals(List.of("state1", "state2"), delivered);
+    }
+
+    @Test
+    void aFailedWriteStillReleasesTheNextMessage() {
+        List<String> attempted = new ArrayList<>();
+        MessageHandler failing = message -> {
+            attempted.add((String) message.getPayload());
+            throw new IllegalStateException("write failed");
+        };
+
+        Message<?> first = message("event1", null);
+        monitor.preSend(first, channel);
+        monitor.preSend(message("event2", null), channel);
+        monitor.preSend(message("event3", null), channel);
+
+        monitor.afterMessageHandled(first, channel, failing, new IllegalStateException("write failed"));
+        assertEquals(List.of("event2", "event3"), attempted);
+
+        Message<?> next = message("event4", null);
+        assertSame(next, monitor.preSend(next, channel));
+    }
+
+    @Test
+    void aRejectedSendDoesNotStallTheSession() {
+        Message<?> first = message("event1", null);
+        monitor.preSend(first, channel);
+        monitor.preSend(message("event2", null), channel);
+
+        monitor.afterSendCompletion(first, channel, false, null);
+
+        Message<?> next = message("event3", null);
+        assertSame(next, monitor.preSend(next, channel));
+    }
+
+    @Test
+    void closesSessionsThatKeepLagging() throws Exception {
+        Message<?> first = message("event1", null);
+        monitor.preSend(first, channel);
+        for (int i = 0; i <= MAX_CONFLATED; i++) {
+            monitor.preSend(message("state" + i, "room-state"), channel);
+        }
+        verify(session, never()).close(SlowConsumerMonitor.SLOW_CONSUMER);
+
+        assertNull(monitor.preSend(message("state-last", "room-state"), channel));
+        verify(session).close(SlowConsumerMonitor.SLOW_CONSUMER);
+
+        handled(first);
+        assertEquals(List.of(), delivered);
+    }
+
+    @Test
+    void drainingResetsTheConflationCount() throws Exception {
+        for (int round = 0; round < 3; round++) {
+            Message<?> first = message("event" + round, null);
+            monitor.preSend(first, channel);
+            for (int i = 0; i <= MAX_CONFLATED; i++) {
+                monitor.preSend(message("state" + i, "room-state"), channel);
+            }
+            handled(first);
+        }
+        verify(session, never()).close(SlowConsumerMonitor.SLOW_CONSUMER);
+    }
+
+    @Test
+    void otherSessionsAreUntouched() {
+        Message<?> first = message("event1", null);
+        monitor.preSend(first, channel);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId("unknown");
+        Message<?> other = MessageBuilder.createMessage("other", accessor.getMessageHeaders());
+        assertSame(other, monitor.preSend(other, channel));
+    }
+
+    @Test
+    void tracksOpenConnections() throws Exception {
+        assertTrue(monitor.isConnected(SESSION_ID));
+        assertFalse(monitor.isConnected("unknown"));
+
+        monitor.decorate(mock(WebSocketHandler.class)).afterConnectionClosed(session, CloseStatus.NORMAL);
+        assertFalse(monitor.isConnected(SESSION_ID));
+    }
+
+    private void handled(Message<?> message) {
+        monitor.afterMessageHandled(message, channel, handler, null);
+    }
+
+    private static Message<?> message(String payload, String conflateKey) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId(SESSION_ID);
+        if (conflateKey != null) {
+            accessor.setNativeHeader(SlowConsumerMonitor.CONFLATE_KEY_HEADER, conflateKey);
+        }
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+}